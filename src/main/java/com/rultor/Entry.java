@@ -35,18 +35,22 @@ import co.stateful.cached.CdSttc;
 import co.stateful.retry.ReSttc;
 import com.google.common.collect.EvictingQueue;
 import com.jcabi.aspects.Cacheable;
-import com.jcabi.aspects.Tv;
 import com.jcabi.dynamo.Credentials;
 import com.jcabi.dynamo.Region;
 import com.jcabi.dynamo.retry.ReRegion;
 import com.jcabi.github.Github;
 import com.jcabi.github.RtGithub;
 import com.jcabi.github.mock.MkGithub;
-import com.jcabi.github.wire.RetryCarefulWire;
+import com.jcabi.http.wire.RetryWire;
 import com.jcabi.log.Logger;
 import com.jcabi.manifests.Manifests;
 import com.jcabi.urn.URN;
+import com.rultor.agents.github.BreakerWire;
+import com.rultor.agents.github.BudgetWire;
+import com.rultor.agents.github.Metadata;
+import com.rultor.agents.github.TimedWire;
 import com.rultor.cached.CdTalks;
+import com.rultor.cached.CdWire;
 import com.rultor.dynamo.DyTalks;
 import com.rultor.spi.Pulse;
 import com.rultor.spi.Talks;
@@ -109,7 +113,10 @@ public final class Entry {
         );
         try {
             new FtCLI(
-                new TkApp(talks, Entry.pulse(), new Toggles.InFile()),
+                new TkApp(
+                    talks, Entry.pulse(), new Toggles.InFile(),
+                    new Metadata(this.github()).self()
+                ),
                 this.arguments
             ).start(Exit.NEVER);
         } finally {
@@ -130,15 +137,16 @@ public final class Entry {
             github = new MkGithub();
         } else {
             github = new RtGithub(
-                new RtGithub(token).entry().through(
-                    RetryCarefulWire.class,
-                    Tv.HUNDRED
-                )
+                new RtGithub(token).entry().through(TimedWire.class)
+                    .through(RetryWire.class)
+                    .through(BreakerWire.class)
+                    .through(BudgetWire.class)
+                    .through(CdWire.class)
             );
         }
         Logger.info(
             this, "Github connected as @%s",
-            github.users().self().login()
+            new Metadata(github).self()
         );
         return github;
     }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor;
+
+import com.jcabi.http.Response;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * HTTP header of a response, found by its name in any case.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString
+@EqualsAndHashCode(of = { "headers", "name" })
+public final class Header {
+
+    /**
+     * All headers of the response.
+     */
+    private final transient Map<String, List<String>> headers;
+
+    /**
+     * Name of the header.
+     */
+    private final transient String name;
+
+    /**
+     * Ctor.
+     * @param response Response
+     * @param hdr Name of the header
+     */
+    public Header(final Response response, final String hdr) {
+        this(response.headers(), hdr);
+    }
+
+    /**
+     * Ctor.
+     * @param all All headers of the response
+     * @param hdr Name of the header
+     */
+    public Header(final Map<String, List<String>> all, final String hdr) {
+        this.headers = all;
+        this.name = hdr;
+    }
+
+    /**
+     * First value of the header, trimmed.
+     * @return Value or empty string if there is no such header
+     */
+    public String value() {
+        String value = "";
+        for (final Map.Entry<String, List<String>> hdr
+            : this.headers.entrySet()) {
+            if (hdr.getKey().equalsIgnoreCase(this.name)
+                && !hdr.getValue().isEmpty()) {
+                value = hdr.getValue().get(0).trim();
+                break;
+            }
+        }
+        return value;
+    }
+
+}
@@ -36,6 +36,8 @@ import com.jcabi.aspects.Tv;
 import com.jcabi.github.Github;
 import com.jcabi.log.Logger;
 import com.rultor.agents.Agents;
+import com.rultor.agents.TimedAgent;
+import com.rultor.agents.github.Ledger;
 import com.rultor.profiles.Profiles;
 import com.rultor.spi.Profile;
 import com.rultor.spi.Pulse;
@@ -104,6 +106,8 @@ final class Routine implements Runnable, Closeable {
     @Override
     public void close() {
         this.down.set(true);
+        Ledger.STARS.flush();
+        Ledger.FOLLOWS.flush();
     }
 
     @Override
@@ -145,7 +149,10 @@ final class Routine implements Runnable, Closeable {
             total = this.process();
         }
         this.pulse.add(
-            new Tick(begin, System.currentTimeMillis() - begin, total)
+            new Tick(
+                begin, System.currentTimeMillis() - begin, total,
+                this.agents.notifications().backlog(), TimedAgent.overdue()
+            )
         );
         return total;
     }
@@ -67,6 +67,17 @@ public abstract class AbstractAgent implements Agent {
     @Override
     public final void execute(final Talk talk) throws IOException {
         final XML xml = talk.read();
+        if (this.applies(xml)) {
+            talk.modify(this.process(xml));
+        }
+    }
+
+    /**
+     * Does it apply to this talk?
+     * @param xml Its xml
+     * @return TRUE if all XPath expressions match
+     */
+    final boolean applies(final XML xml) {
         boolean good = true;
         for (final String xpath : this.xpaths) {
             if (xml.nodes(xpath).isEmpty()) {
@@ -74,9 +85,7 @@ public abstract class AbstractAgent implements Agent {
                 break;
             }
         }
-        if (good) {
-            talk.modify(this.process(xml));
-        }
+        return good;
     }
 
     /**
@@ -31,10 +31,12 @@ package com.rultor.agents;
 
 import co.stateful.Locks;
 import co.stateful.Sttc;
+import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.github.Github;
-import com.jcabi.immutable.Array;
+import com.jcabi.immutable.ArrayMap;
 import com.jcabi.manifests.Manifests;
+import com.jcabi.s3.Bucket;
 import com.jcabi.s3.Region;
 import com.jcabi.s3.retry.ReRegion;
 import com.jcabi.ssh.SSH;
@@ -47,6 +49,10 @@ import com.rultor.agents.daemons.StopsDaemon;
 import com.rultor.agents.daemons.WipesDaemon;
 import com.rultor.agents.docker.DockerExec;
 import com.rultor.agents.github.CommentsTag;
+import com.rultor.agents.github.GuardedAgent;
+import com.rultor.agents.github.GuardedSuperAgent;
+import com.rultor.agents.github.Metadata;
+import com.rultor.agents.github.PostsComment;
 import com.rultor.agents.github.Question;
 import com.rultor.agents.github.ReleaseBinaries;
 import com.rultor.agents.github.Reports;
@@ -54,15 +60,10 @@ import com.rultor.agents.github.Stars;
 import com.rultor.agents.github.StartsTalks;
 import com.rultor.agents.github.Understands;
 import com.rultor.agents.github.UnlocksRepo;
-import com.rultor.agents.github.qtn.QnAlone;
-import com.rultor.agents.github.qtn.QnAskedBy;
-import com.rultor.agents.github.qtn.QnByArchitect;
 import com.rultor.agents.github.qtn.QnConfig;
 import com.rultor.agents.github.qtn.QnDeploy;
-import com.rultor.agents.github.qtn.QnFollow;
+import com.rultor.agents.github.qtn.QnDispatch;
 import com.rultor.agents.github.qtn.QnHello;
-import com.rultor.agents.github.qtn.QnIfCollaborator;
-import com.rultor.agents.github.qtn.QnIfContains;
 import com.rultor.agents.github.qtn.QnIfPull;
 import com.rultor.agents.github.qtn.QnIfUnlocked;
 import com.rultor.agents.github.qtn.QnLock;
@@ -77,17 +78,24 @@ import com.rultor.agents.github.qtn.QnStatus;
 import com.rultor.agents.github.qtn.QnStop;
 import com.rultor.agents.github.qtn.QnUnlock;
 import com.rultor.agents.github.qtn.QnVersion;
+import com.rultor.agents.outbox.Courier;
+import com.rultor.agents.outbox.DeliversOutbox;
+import com.rultor.agents.req.DequeuesRequest;
 import com.rultor.agents.req.EndsRequest;
 import com.rultor.agents.req.StartsRequest;
 import com.rultor.agents.shells.RegistersShell;
 import com.rultor.agents.shells.RemovesShell;
 import com.rultor.agents.twitter.OAuthTwitter;
+import com.rultor.agents.twitter.PostsTweet;
 import com.rultor.agents.twitter.Tweets;
+import com.rultor.agents.twitter.Twitter;
 import com.rultor.spi.Agent;
 import com.rultor.spi.Profile;
 import com.rultor.spi.SuperAgent;
 import com.rultor.spi.Talk;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -110,6 +118,21 @@ import org.apache.commons.lang3.CharEncoding;
 @SuppressWarnings("PMD.ExcessiveImports")
 public final class Agents {
 
+    /**
+     * Build server.
+     */
+    private static final String HOST = "b3.rultor.com";
+
+    /**
+     * SSH port of the build server.
+     */
+    private static final int PORT = 22;
+
+    /**
+     * SSH login at the build server.
+     */
+    private static final String LOGIN = "rultor";
+
     /**
      * Github client.
      */
@@ -130,25 +153,34 @@ public final class Agents {
         this.sttc = stc;
     }
 
+    /**
+     * Poller of notifications, one for the lifetime of the server.
+     * @return The poller
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    @Cacheable(forever = true)
+    public StartsTalks notifications() throws IOException {
+        return new StartsTalks(
+            this.github,
+            this.sttc.counters().get("rt-notifications")
+        );
+    }
+
     /**
      * Create super agent, starter.
      * @return The starter
      * @throws IOException If fails
      */
+    @Cacheable(forever = true)
     public SuperAgent starter() throws IOException {
         return new SuperAgent.Iterative(
-            new Array<>(
-                new StartsTalks(this.github),
+            Agents.guarded(
+                this.notifications(),
                 new IndexesRequests(),
                 new DockerExec(
                     new SSH(
-                        // @checkstyle MagicNumber (1 line)
-                        "b3.rultor.com", 22,
-                        "rultor",
-                        IOUtils.toString(
-                            this.getClass().getResourceAsStream("rultor.key"),
-                            CharEncoding.UTF_8
-                        )
+                        Agents.HOST, Agents.PORT, Agents.LOGIN, Agents.key()
                     ),
                     "rmi.sh"
                 )
@@ -161,10 +193,19 @@ public final class Agents {
      * @return The closer
      * @throws IOException If fails
      */
+    @Cacheable(forever = true)
     public SuperAgent closer() throws IOException {
         return new SuperAgent.Iterative(
-            new Array<>(
-                new UnlocksRepo(this.sttc.locks(), this.github),
+            Agents.guarded(
+                new UnlocksRepo(this.locks(), this.github),
+                new DeliversOutbox(
+                    new ArrayMap<String, Courier>()
+                        .with("github", new PostsComment(this.github))
+                        .with(
+                            "twitter",
+                            new PostsTweet(Agents.twitter(), this.github)
+                        )
+                ),
                 new DeactivatesTalks()
             )
         );
@@ -172,6 +213,15 @@ public final class Agents {
 
     /**
      * Create it for a talk.
+     *
+     * <p>Only the parts that don't depend on the talk are made once:
+     * the locks, the SSH key, the S3 bucket, the Twitter client and
+     * the login of rultor, cached by {@link Metadata}. The tree itself is
+     * still built again for every talk on every tick, because its agents
+     * and questions get the talk and the profile through their
+     * constructors. Building it once, with the talk and the profile
+     * passed to agents and questions when they run, is still to be done.
+     *
      * @param talk Talk itself
      * @param profile Profile
      * @return The agent
@@ -179,152 +229,206 @@ public final class Agents {
      */
     public Agent agent(final Talk talk, final Profile profile)
         throws IOException {
-        final Locks locks = this.sttc.locks();
+        final Locks locks = this.locks();
         final Question question = new QnSince(
             // @checkstyle MagicNumber (1 line)
             49092213,
             new QnNotSelf(
                 new QnReferredTo(
-                    this.github.users().self().login(),
+                    new Metadata(this.github).self(),
                     new QnParametrized(
-                        new Question.FirstOf(
-                            new Array<>(
-                                new QnIfContains(
-                                    "config", new QnConfig(profile)
-                                ),
-                                new QnIfContains("status", new QnStatus(talk)),
-                                new QnIfContains("version", new QnVersion()),
-                                new QnIfContains("hello", new QnHello()),
-                                new QnIfContains(
-                                    "stop",
-                                    new QnAskedBy(
-                                        profile,
-                                        Agents.commanders("stop"),
-                                        new QnStop()
-                                    )
-                                ),
-                                new QnFollow(
-                                    new QnIfCollaborator(
-                                        new QnAlone(
-                                            talk, locks,
-                                            Agents.commands(profile)
-                                        )
-                                    )
-                                )
-                            )
+                        Agents.dispatcher(
+                            talk, profile,
+                            new Guards.Strict(talk, locks, profile)
                         )
                     )
                 )
             )
         );
         return new Agent.Iterative(
-            new Array<Agent>(
+            Agents.guarded(
                 new SanitizesDaemon(),
                 new WipesDaemon(),
                 new Understands(
                     this.github,
                     new QnSafe(question)
                 ),
+                new DequeuesRequest(),
                 new StartsRequest(profile),
                 new RegistersShell(
-                    profile,
-                    // @checkstyle MagicNumber (1 line)
-                    "b3.rultor.com", 22,
-                    "rultor",
-                    IOUtils.toString(
-                        this.getClass().getResourceAsStream("rultor.key"),
-                        CharEncoding.UTF_8
-                    )
+                    profile, Agents.HOST, Agents.PORT, Agents.LOGIN,
+                    Agents.key()
+                ),
+                new TimedAgent(
+                    new StartsDaemon(profile), 2L, TimeUnit.MINUTES
                 ),
-                new StartsDaemon(profile),
                 new KillsDaemon(TimeUnit.HOURS.toMinutes(2L)),
                 new StopsDaemon(),
                 new EndsDaemon(),
                 new EndsRequest(),
-                new Tweets(
-                    this.github,
-                    new OAuthTwitter(
-                        Manifests.read("Rultor-TwitterKey"),
-                        Manifests.read("Rultor-TwitterSecret"),
-                        Manifests.read("Rultor-TwitterToken"),
-                        Manifests.read("Rultor-TwitterTokenSecret")
-                    )
+                new Concurrent(
+                    new Tweets(),
+                    new CommentsTag(this.github),
+                    new ReleaseBinaries(this.github, profile),
+                    new Reports(),
+                    new Stars(this.github)
                 ),
-                new CommentsTag(this.github),
-                new ReleaseBinaries(this.github, profile),
-                new Reports(this.github),
                 new RemovesShell(),
-                new ArchivesDaemon(
-                    new ReRegion(
-                        new Region.Simple(
-                            Manifests.read("Rultor-S3Key"),
-                            Manifests.read("Rultor-S3Secret")
-                        )
-                    ).bucket(Manifests.read("Rultor-S3Bucket"))
+                new TimedAgent(
+                    new ArchivesDaemon(Agents.bucket()), 2L, TimeUnit.MINUTES
                 ),
-                new Publishes(profile),
-                new Stars(this.github)
+                new Publishes(profile)
             )
         );
     }
 
     /**
-     * Handle main commands.
-     * @param profile Profile to uuse
-     * @return Array of questions.
+     * Guard agents from Github outages and give them time budgets.
+     *
+     * <p>Agents that are not {@link TimedAgent} already get the default
+     * budget.
+     *
+     * @param agents Agents
+     * @return Guarded agents
      */
-    private static Question commands(final Profile profile) {
-        return new QnByArchitect(
-            profile,
-            "/p/entry[@key='architect']/item/text()",
-            new Question.FirstOf(
-                new Array<Question>(
-                    new QnIfContains(
-                        "unlock",
-                        new QnUnlock()
-                    ),
-                    new QnIfContains(
-                        "lock",
-                        new QnLock()
-                    ),
-                    new QnIfContains(
-                        "merge",
-                        new QnAskedBy(
-                            profile,
-                            Agents.commanders("merge"),
-                            new QnIfPull(new QnIfUnlocked(new QnMerge()))
-                        )
-                    ),
-                    new QnIfContains(
-                        "deploy",
-                        new QnAskedBy(
-                            profile,
-                            Agents.commanders("deploy"),
-                            new QnDeploy()
-                        )
-                    ),
-                    new QnIfContains(
-                        "release",
-                        new QnAskedBy(
-                            profile,
-                            Agents.commanders("release"),
-                            new QnRelease()
-                        )
+    private static Iterable<Agent> guarded(final Agent... agents) {
+        final Collection<Agent> list = new ArrayList<>(agents.length);
+        for (final Agent agent : agents) {
+            final Agent timed;
+            if (agent instanceof TimedAgent) {
+                timed = agent;
+            } else {
+                timed = new TimedAgent(agent);
+            }
+            list.add(new GuardedAgent(timed));
+        }
+        return list;
+    }
+
+    /**
+     * Guard super agents from Github outages.
+     * @param agents Super agents
+     * @return Guarded super agents
+     */
+    private static Iterable<SuperAgent> guarded(final SuperAgent... agents) {
+        final Collection<SuperAgent> list = new ArrayList<>(agents.length);
+        for (final SuperAgent agent : agents) {
+            list.add(new GuardedSuperAgent(agent));
+        }
+        return list;
+    }
+
+    /**
+     * Dispatcher of all commands.
+     *
+     * <p>A comment with a known verb is checked against rate limits
+     * first, once, no matter how many verbs it has. The main commands
+     * are guarded together, cheapest guard first: collaborators,
+     * architects, the lock of the repo and, at last, following the
+     * author. Comments without known verbs are not guarded at all.
+     *
+     * @param talk Talk itself
+     * @param profile Profile to use
+     * @param guards Guards of commands
+     * @return Dispatcher
+     */
+    static Question dispatcher(final Talk talk, final Profile profile,
+        final Guards guards) {
+        final QnDispatch commands = Agents.commands(guards);
+        final QnDispatch verbs = new QnDispatch(
+            new QnDispatch.Verb("config", new QnConfig(profile)),
+            new QnDispatch.Verb("status", new QnStatus(talk)),
+            new QnDispatch.Verb("version", new QnVersion()),
+            new QnDispatch.Verb("hello", new QnHello()),
+            new QnDispatch.Verb(
+                "stop", guards.askedBy("stop", new QnStop())
+            ),
+            new QnDispatch.Verb(
+                commands.words(),
+                guards.collaborator(
+                    guards.architect(
+                        guards.alone(guards.follow(commands))
                     )
                 )
             )
         );
+        return new QnDispatch(
+            new QnDispatch.Verb(verbs.words(), guards.rated(verbs))
+        );
+    }
+
+    /**
+     * Handle main commands.
+     * @param guards Guards of commands
+     * @return Dispatcher of commands
+     */
+    private static QnDispatch commands(final Guards guards) {
+        return new QnDispatch(
+            new QnDispatch.Verb("unlock", new QnUnlock()),
+            new QnDispatch.Verb("lock", new QnLock()),
+            new QnDispatch.Verb(
+                "merge",
+                guards.askedBy(
+                    "merge", new QnIfPull(new QnIfUnlocked(new QnMerge()))
+                )
+            ),
+            new QnDispatch.Verb(
+                "deploy", guards.askedBy("deploy", new QnDeploy())
+            ),
+            new QnDispatch.Verb(
+                "release", guards.askedBy("release", new QnRelease())
+            )
+        );
+    }
+
+    /**
+     * Locks of repositories.
+     * @return Locks
+     * @throws IOException If fails
+     */
+    @Cacheable(forever = true)
+    private Locks locks() throws IOException {
+        return this.sttc.locks();
+    }
+
+    /**
+     * Private SSH key of the build server.
+     * @return Key
+     * @throws IOException If fails
+     */
+    @Cacheable(forever = true)
+    private static String key() throws IOException {
+        return IOUtils.toString(
+            Agents.class.getResourceAsStream("rultor.key"),
+            CharEncoding.UTF_8
+        );
+    }
+
+    /**
+     * S3 bucket for build logs.
+     * @return Bucket
+     */
+    @Cacheable(forever = true)
+    private static Bucket bucket() {
+        return new ReRegion(
+            new Region.Simple(
+                Manifests.read("Rultor-S3Key"),
+                Manifests.read("Rultor-S3Secret")
+            )
+        ).bucket(Manifests.read("Rultor-S3Bucket"));
     }
 
     /**
-     * XPath for commanders.
-     * @param entry Entry
-     * @return XPath
+     * Make Twitter client.
+     * @return Twitter
      */
-    private static String commanders(final String entry) {
-        return String.format(
-            "/p/entry[@key='%s']/entry[@key='commanders']/item/text()",
-            entry
+    @Cacheable(forever = true)
+    private static Twitter twitter() {
+        return new OAuthTwitter(
+            Manifests.read("Rultor-TwitterKey"),
+            Manifests.read("Rultor-TwitterSecret"),
+            Manifests.read("Rultor-TwitterToken"),
+            Manifests.read("Rultor-TwitterTokenSecret")
         );
     }
 
@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.immutable.Array;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Agent;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Agents that run at the same time, when they don't depend on each other.
+ *
+ * <p>Agents are split into waves, in the order they are given. An agent
+ * joins the current wave if it doesn't read anything the agents already
+ * in the wave write and doesn't call any external service they call,
+ * according to their {@link Footprint}s. That way, a repository on
+ * Github is not hit by a few agents of one talk at once. An agent
+ * without a footprint is supposed to read and write everything and to
+ * call every service. All agents
+ * of a wave see the same version of the talk and run in parallel, then
+ * their directives are applied in the order the agents were given, in
+ * one modification of the talk. The outcome is the same as if they
+ * ran one by one.
+ *
+ * <p>If an agent fails with {@link IOException}, directives of the agents
+ * given before it are applied, while directives of the agents given after
+ * it are dropped, and the exception is thrown afterwards. Just like
+ * with agents running one by one, the failed agent and all that follow it
+ * will try again in the next cycle.
+ *
+ * <p>Agents of a wave share the {@link Deadline} of the thread that
+ * runs the wave. Waves of all talks run in one pool with a few threads,
+ * so agents of many talks don't open as many connections at once.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "agents")
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class Concurrent implements Agent {
+
+    /**
+     * Any part of the talk.
+     */
+    private static final String ANY = "*";
+
+    /**
+     * Threads that run agents of waves, shared by all talks.
+     */
+    private static final ExecutorService THREADS =
+        Executors.newFixedThreadPool(
+            Tv.EIGHT,
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "concurrent");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }
+        );
+
+    /**
+     * Agents, in order.
+     */
+    private final transient Array<AbstractAgent> agents;
+
+    /**
+     * Ctor.
+     * @param list Agents, in order
+     */
+    public Concurrent(final AbstractAgent... list) {
+        this.agents = new Array<>(list);
+    }
+
+    @Override
+    public void execute(final Talk talk) throws IOException {
+        int start = 0;
+        while (start < this.agents.size()) {
+            final int end = this.wave(start);
+            Concurrent.run(talk, this.agents.subList(start, end));
+            start = end;
+        }
+    }
+
+    /**
+     * Find the end of the wave.
+     * @param start Position of its first agent
+     * @return Position right after its last agent
+     */
+    private int wave(final int start) {
+        final Collection<String> written = new HashSet<>(0);
+        final Collection<String> called = new HashSet<>(0);
+        int end = start;
+        while (end < this.agents.size()) {
+            final AbstractAgent agent = this.agents.get(end);
+            final Collection<String> reads = Concurrent.reads(agent);
+            final Collection<String> calls = Concurrent.services(agent);
+            if (end > start && (Concurrent.conflict(written, reads)
+                || Concurrent.conflict(called, calls))) {
+                break;
+            }
+            written.addAll(Concurrent.writes(agent));
+            called.addAll(calls);
+            ++end;
+        }
+        return end;
+    }
+
+    /**
+     * Run one wave.
+     * @param talk Talk
+     * @param wave Agents of the wave
+     * @throws IOException If fails
+     */
+    @SuppressWarnings("PMD.AvoidInstanceofChecksInCatchClause")
+    private static void run(final Talk talk,
+        final Collection<AbstractAgent> wave) throws IOException {
+        final XML xml = talk.read();
+        final List<AbstractAgent> ready = new ArrayList<>(wave.size());
+        for (final AbstractAgent agent : wave) {
+            if (agent.applies(xml)) {
+                ready.add(agent);
+            }
+        }
+        if (ready.size() == 1) {
+            talk.modify(ready.get(0).process(xml));
+        } else if (!ready.isEmpty()) {
+            final String text = xml.toString();
+            final long end = Deadline.end();
+            final Directives dirs = new Directives();
+            final Collection<Future<Iterable<Directive>>> futures =
+                new ArrayList<>(ready.size());
+            IOException error = null;
+            try {
+                for (final AbstractAgent agent : ready) {
+                    futures.add(
+                        Concurrent.THREADS.submit(
+                            new Callable<Iterable<Directive>>() {
+                                @Override
+                                public Iterable<Directive> call()
+                                    throws IOException {
+                                    Deadline.start(end);
+                                    try {
+                                        return agent.process(
+                                            new XMLDocument(text)
+                                        );
+                                    } finally {
+                                        Deadline.stop();
+                                    }
+                                }
+                            }
+                        )
+                    );
+                }
+                for (final Future<Iterable<Directive>> future : futures) {
+                    if (error != null) {
+                        break;
+                    }
+                    try {
+                        dirs.xpath("/").append(future.get());
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(ex);
+                    } catch (final ExecutionException ex) {
+                        if (!(ex.getCause() instanceof IOException)) {
+                            throw new IllegalStateException(ex.getCause());
+                        }
+                        error = IOException.class.cast(ex.getCause());
+                    }
+                }
+            } finally {
+                for (final Future<Iterable<Directive>> future : futures) {
+                    future.cancel(true);
+                }
+            }
+            talk.modify(dirs);
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    /**
+     * Do parts or services of agents already in the wave conflict with
+     * the ones of the next agent?
+     * @param taken Parts or services of the wave
+     * @param wanted Parts or services of the agent
+     * @return TRUE if they do
+     */
+    private static boolean conflict(final Collection<String> taken,
+        final Collection<String> wanted) {
+        return taken.contains(Concurrent.ANY)
+            || !taken.isEmpty() && wanted.contains(Concurrent.ANY)
+            || !Collections.disjoint(taken, wanted);
+    }
+
+    /**
+     * What the agent reads.
+     * @param agent Agent
+     * @return Parts of the talk
+     */
+    private static Collection<String> reads(final AbstractAgent agent) {
+        final Collection<String> parts = new HashSet<>(0);
+        if (agent instanceof Footprint) {
+            for (final String part : Footprint.class.cast(agent).reads()) {
+                parts.add(part);
+            }
+        } else {
+            parts.add(Concurrent.ANY);
+        }
+        return parts;
+    }
+
+    /**
+     * What the agent writes.
+     * @param agent Agent
+     * @return Parts of the talk
+     */
+    private static Collection<String> writes(final AbstractAgent agent) {
+        final Collection<String> parts = new HashSet<>(0);
+        if (agent instanceof Footprint) {
+            for (final String part : Footprint.class.cast(agent).writes()) {
+                parts.add(part);
+            }
+        } else {
+            parts.add(Concurrent.ANY);
+        }
+        return parts;
+    }
+
+    /**
+     * What services the agent calls.
+     * @param agent Agent
+     * @return Names of services
+     */
+    private static Collection<String> services(final AbstractAgent agent) {
+        final Collection<String> names = new HashSet<>(0);
+        if (agent instanceof Footprint) {
+            for (final String name : Footprint.class.cast(agent).services()) {
+                names.add(name);
+            }
+        } else {
+            names.add(Concurrent.ANY);
+        }
+        return names;
+    }
+
+}
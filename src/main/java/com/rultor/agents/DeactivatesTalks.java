@@ -57,7 +57,7 @@ public final class DeactivatesTalks implements SuperAgent {
      */
     private static final String XPATH = StringUtils.join(
         "/talk[@later='false' and not(request) and not(daemon)",
-        " and not(shell)]"
+        " and not(shell) and not(outbox/message) and not(queue/request)]"
     );
 
     @Override
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents;
+
+import java.io.IOException;
+
+/**
+ * Deadline of the agent running in the current thread.
+ *
+ * <p>{@link TimedAgent} sets it before it starts an agent. Blocking I/O,
+ * like SSH sessions and HTTP requests, takes its socket timeouts
+ * from {@link #timeout()} and calls {@link #check()} before it starts,
+ * so an agent that is out of time stops talking to the outside world,
+ * even if its thread can't be interrupted. A thread without a deadline
+ * has all the time it wants.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class Deadline {
+
+    /**
+     * When the time is over, in msec since epoch.
+     */
+    private static final ThreadLocal<Long> END = new ThreadLocal<>();
+
+    /**
+     * Utility class.
+     */
+    private Deadline() {
+        // intentionally empty
+    }
+
+    /**
+     * When the time of the current thread is over.
+     * @return Time in msec since epoch, or {@link Long#MAX_VALUE}
+     */
+    public static long end() {
+        final Long end = Deadline.END.get();
+        final long msec;
+        if (end == null) {
+            msec = Long.MAX_VALUE;
+        } else {
+            msec = end;
+        }
+        return msec;
+    }
+
+    /**
+     * Socket timeout for the time left.
+     * @return Timeout in msec, or zero if there is no deadline
+     */
+    public static int timeout() {
+        final long end = Deadline.end();
+        final int msec;
+        if (end == Long.MAX_VALUE) {
+            msec = 0;
+        } else {
+            msec = (int) Math.min(
+                (long) Integer.MAX_VALUE,
+                Math.max(1L, end - System.currentTimeMillis())
+            );
+        }
+        return msec;
+    }
+
+    /**
+     * Make sure the current thread still has time.
+     * @throws IOException If it is out of time or interrupted
+     */
+    public static void check() throws IOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IOException("the agent is interrupted");
+        }
+        final long over = System.currentTimeMillis() - Deadline.end();
+        if (over >= 0L) {
+            throw new IOException(
+                String.format("the agent is out of time by %d ms", over)
+            );
+        }
+    }
+
+    /**
+     * Set the deadline of the current thread.
+     * @param end Time in msec since epoch, {@link Long#MAX_VALUE} for none
+     */
+    static void start(final long end) {
+        if (end == Long.MAX_VALUE) {
+            Deadline.END.remove();
+        } else {
+            Deadline.END.set(end);
+        }
+    }
+
+    /**
+     * Remove the deadline of the current thread.
+     */
+    static void stop() {
+        Deadline.END.remove();
+    }
+
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents;
+
+import co.stateful.Locks;
+import com.jcabi.aspects.Immutable;
+import com.rultor.agents.github.Question;
+import com.rultor.agents.github.qtn.QnAlone;
+import com.rultor.agents.github.qtn.QnAskedBy;
+import com.rultor.agents.github.qtn.QnByArchitect;
+import com.rultor.agents.github.qtn.QnFollow;
+import com.rultor.agents.github.qtn.QnIfCollaborator;
+import com.rultor.agents.github.qtn.QnRateLimited;
+import com.rultor.spi.Profile;
+import com.rultor.spi.Talk;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Guards of commands in a talk.
+ *
+ * <p>{@link Agents} puts them around the commands it understands, in
+ * the order it wants them to run; a test may put its own guards there.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+interface Guards {
+
+    /**
+     * Keep commands within the rate limits of the repo and the author.
+     * @param origin Original question
+     * @return Guarded question
+     */
+    Question rated(Question origin);
+
+    /**
+     * Follow the author of the command.
+     * @param origin Original question
+     * @return Guarded question
+     */
+    Question follow(Question origin);
+
+    /**
+     * Let only collaborators of the repo in.
+     * @param origin Original question
+     * @return Guarded question
+     */
+    Question collaborator(Question origin);
+
+    /**
+     * Let only architects in, if there are any.
+     * @param origin Original question
+     * @return Guarded question
+     */
+    Question architect(Question origin);
+
+    /**
+     * Lock the repo, for one talk at a time.
+     * @param origin Original question
+     * @return Guarded question
+     */
+    Question alone(Question origin);
+
+    /**
+     * Let only commanders of the section in, if there are any.
+     * @param section Section of the profile, like "merge"
+     * @param origin Original question
+     * @return Guarded question
+     */
+    Question askedBy(String section, Question origin);
+
+    /**
+     * Guards that check for real.
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode(of = { "talk", "locks", "profile" })
+    final class Strict implements Guards {
+        /**
+         * Talk.
+         */
+        private final transient Talk talk;
+        /**
+         * Locks of repos.
+         */
+        private final transient Locks locks;
+        /**
+         * Profile.
+         */
+        private final transient Profile profile;
+        /**
+         * Ctor.
+         * @param tlk Talk
+         * @param lcks Locks of repos
+         * @param prof Profile
+         */
+        Strict(final Talk tlk, final Locks lcks, final Profile prof) {
+            this.talk = tlk;
+            this.locks = lcks;
+            this.profile = prof;
+        }
+        @Override
+        public Question rated(final Question origin) {
+            return new QnRateLimited(this.profile, origin);
+        }
+        @Override
+        public Question follow(final Question origin) {
+            return new QnFollow(origin);
+        }
+        @Override
+        public Question collaborator(final Question origin) {
+            return new QnIfCollaborator(origin);
+        }
+        @Override
+        public Question architect(final Question origin) {
+            return new QnByArchitect(this.profile, origin);
+        }
+        @Override
+        public Question alone(final Question origin) {
+            return new QnAlone(this.talk, this.locks, origin);
+        }
+        @Override
+        public Question askedBy(final String section, final Question origin) {
+            return new QnAskedBy(this.profile, section, origin);
+        }
+    }
+
+}
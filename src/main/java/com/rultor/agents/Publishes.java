@@ -31,6 +31,7 @@ package com.rultor.agents;
 
 import com.jcabi.aspects.Immutable;
 import com.jcabi.xml.XML;
+import com.rultor.spi.Config;
 import com.rultor.spi.Profile;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
@@ -71,9 +72,7 @@ public final class Publishes extends AbstractAgent {
     public Iterable<Directive> process(final XML xml) throws IOException {
         boolean pub;
         try {
-            pub = this.profile.read()
-                .nodes("/p/entry[@key='readers']/item")
-                .isEmpty();
+            pub = Config.of(this.profile).readers().isEmpty();
         } catch (final Profile.ConfigException ex) {
             pub = false;
         }
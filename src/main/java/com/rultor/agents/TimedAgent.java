@@ -0,0 +1,351 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.rultor.spi.Agent;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.xembly.Directive;
+
+/**
+ * Agent with a time budget.
+ *
+ * <p>The agent runs in its own thread, with a {@link Deadline}. SSH
+ * sessions and HTTP requests of the agent get socket timeouts from
+ * the time left and refuse to start when it's over. When the budget
+ * is over, the thread is interrupted and the talk is closed for the
+ * agent: whatever it tries to modify afterwards is rejected. The talk
+ * stays as it was before the agent started, so the next pass can try
+ * again. The number of agents that ran out of time is reported
+ * by {@link #overdue()}.
+ *
+ * <p>A thread stuck in I/O that is neither interrupted nor timed out
+ * stays busy until the I/O is over. The number of such threads is
+ * limited per talk: when a talk already has {@link #MAX} busy threads,
+ * its agent is skipped in this pass and counted as overdue, while
+ * other talks are not affected.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = { "origin", "msec" })
+@EqualsAndHashCode(of = { "origin", "msec" })
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class TimedAgent implements Agent {
+
+    /**
+     * Maximum number of threads per talk, including stuck ones.
+     */
+    static final int MAX = 3;
+
+    /**
+     * Threads for agents.
+     */
+    private static final ExecutorService THREADS =
+        Executors.newCachedThreadPool(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "agent");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }
+        );
+
+    /**
+     * Busy threads, per talk name.
+     */
+    private static final Multiset<String> BUSY =
+        ConcurrentHashMultiset.create();
+
+    /**
+     * Agents that ran out of time since the last check.
+     */
+    private static final AtomicLong OVERDUE = new AtomicLong();
+
+    /**
+     * Original agent.
+     */
+    private final transient Agent origin;
+
+    /**
+     * Budget, in milliseconds.
+     */
+    private final transient long msec;
+
+    /**
+     * Ctor, with the default budget of one minute.
+     * @param agent Original agent
+     */
+    public TimedAgent(final Agent agent) {
+        this(agent, 1L, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Ctor.
+     * @param agent Original agent
+     * @param limit Budget
+     * @param unit Unit of the budget
+     */
+    public TimedAgent(final Agent agent, final long limit,
+        final TimeUnit unit) {
+        this.origin = agent;
+        this.msec = unit.toMillis(limit);
+    }
+
+    /**
+     * How many agents ran out of time since the last call.
+     * @return Number of agents
+     */
+    public static long overdue() {
+        return TimedAgent.OVERDUE.getAndSet(0L);
+    }
+
+    @Override
+    public void execute(final Talk talk) throws IOException {
+        final String name = talk.name();
+        if (TimedAgent.occupy(name)) {
+            final TimedAgent.Fenced fenced = new TimedAgent.Fenced(talk);
+            final long end = System.currentTimeMillis() + this.msec;
+            final Future<Void> future = TimedAgent.THREADS.submit(
+                new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        if (fenced.enter()) {
+                            Deadline.start(end);
+                            try {
+                                TimedAgent.this.origin.execute(fenced);
+                            } finally {
+                                Deadline.stop();
+                                TimedAgent.BUSY.remove(name);
+                            }
+                        }
+                        return null;
+                    }
+                }
+            );
+            this.await(talk, fenced, future);
+        } else {
+            TimedAgent.OVERDUE.incrementAndGet();
+            Logger.warn(
+                this, "%s skipped in %s, %d threads of the talk are busy",
+                this.origin.getClass().getSimpleName(), name, TimedAgent.MAX
+            );
+        }
+    }
+
+    /**
+     * Take a thread of the talk, if it has any left.
+     * @param name Name of the talk
+     * @return TRUE if taken
+     */
+    private static boolean occupy(final String name) {
+        boolean taken = false;
+        while (true) {
+            final int busy = TimedAgent.BUSY.count(name);
+            if (busy >= TimedAgent.MAX) {
+                break;
+            }
+            if (TimedAgent.BUSY.setCount(name, busy, busy + 1)) {
+                taken = true;
+                break;
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Wait for the agent to finish within its budget.
+     * @param talk Talk
+     * @param fenced Talk as seen by the agent
+     * @param future Future of the agent
+     * @throws IOException If fails
+     */
+    private void await(final Talk talk, final TimedAgent.Fenced fenced,
+        final Future<Void> future) throws IOException {
+        try {
+            future.get(this.msec, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException ex) {
+            TimedAgent.close(talk, fenced);
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (final ExecutionException ex) {
+            TimedAgent.rethrow(ex.getCause());
+        } catch (final TimeoutException ex) {
+            TimedAgent.close(talk, fenced);
+            future.cancel(true);
+            TimedAgent.OVERDUE.incrementAndGet();
+            Logger.warn(
+                this, "%s cancelled in %s, it's over its budget of %[ms]s",
+                this.origin.getClass().getSimpleName(), talk.name(), this.msec
+            );
+        }
+    }
+
+    /**
+     * Close the talk for the agent and free its thread, if the agent
+     * never started.
+     * @param talk Talk
+     * @param fenced Talk as seen by the agent
+     * @throws IOException If fails
+     */
+    private static void close(final Talk talk, final TimedAgent.Fenced fenced)
+        throws IOException {
+        if (!fenced.close()) {
+            TimedAgent.BUSY.remove(talk.name());
+        }
+    }
+
+    /**
+     * Throw the cause of a failure.
+     * @param cause The cause
+     * @throws IOException If it is one
+     */
+    private static void rethrow(final Throwable cause) throws IOException {
+        if (cause instanceof IOException) {
+            throw IOException.class.cast(cause);
+        }
+        if (cause instanceof RuntimeException) {
+            throw RuntimeException.class.cast(cause);
+        }
+        if (cause instanceof Error) {
+            throw Error.class.cast(cause);
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    /**
+     * Talk that can be closed for modifications.
+     */
+    private static final class Fenced implements Talk {
+        /**
+         * Original talk.
+         */
+        private final transient Talk origin;
+        /**
+         * Closed already?
+         */
+        private final transient AtomicBoolean closed = new AtomicBoolean();
+        /**
+         * Agent started?
+         */
+        private final transient AtomicBoolean entered = new AtomicBoolean();
+        /**
+         * Ctor.
+         * @param talk Original talk
+         */
+        Fenced(final Talk talk) {
+            this.origin = talk;
+        }
+        /**
+         * Let the agent in, unless the talk is closed already.
+         * @return TRUE if the agent may start
+         */
+        public boolean enter() {
+            synchronized (this.closed) {
+                this.entered.set(!this.closed.get());
+                return this.entered.get();
+            }
+        }
+        /**
+         * Close it, waiting for a modification in progress, if any.
+         * @return TRUE if the agent started before
+         */
+        public boolean close() {
+            synchronized (this.closed) {
+                this.closed.set(true);
+                return this.entered.get();
+            }
+        }
+        @Override
+        public Long number() throws IOException {
+            return this.origin.number();
+        }
+        @Override
+        public String name() throws IOException {
+            return this.origin.name();
+        }
+        @Override
+        public Date updated() throws IOException {
+            return this.origin.updated();
+        }
+        @Override
+        public XML read() throws IOException {
+            return this.origin.read();
+        }
+        @Override
+        public void modify(final Iterable<Directive> dirs)
+            throws IOException {
+            synchronized (this.closed) {
+                this.ensure();
+                this.origin.modify(dirs);
+            }
+        }
+        @Override
+        public void active(final boolean yes) throws IOException {
+            synchronized (this.closed) {
+                this.ensure();
+                this.origin.active(yes);
+            }
+        }
+        /**
+         * Make sure it's not closed yet.
+         * @throws IOException If it is closed
+         */
+        private void ensure() throws IOException {
+            if (this.closed.get()) {
+                throw new IOException(
+                    "the agent is out of time, changes rejected"
+                );
+            }
+        }
+    }
+
+}
@@ -104,11 +104,11 @@ public final class ArchivesDaemon extends AbstractAgent {
             new FileOutputStream(file),
             Logger.stream(Level.WARNING, this)
         );
+        final String hash = xml.xpath("/talk/daemon/@id").get(0);
+        final URI uri = this.upload(file, hash);
         new Shell.Empty(new Shell.Safe(shell)).exec(
             String.format("sudo rm -rf %1$s || rm -rf %s", SSH.escape(dir))
         );
-        final String hash = xml.xpath("/talk/daemon/@id").get(0);
-        final URI uri = this.upload(file, hash);
         final String title = ArchivesDaemon.title(xml, file);
         Logger.info(
             this, "daemon of %s archived into %s: %s",
@@ -31,7 +31,6 @@ package com.rultor.agents.daemons;
 
 import com.google.common.base.Joiner;
 import com.jcabi.aspects.Immutable;
-import com.jcabi.aspects.RetryOnFailure;
 import com.jcabi.log.Logger;
 import com.jcabi.manifests.Manifests;
 import com.jcabi.ssh.SSH;
@@ -39,14 +38,16 @@ import com.jcabi.ssh.Shell;
 import com.jcabi.xml.XML;
 import com.rultor.Time;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.Deadline;
 import com.rultor.agents.shells.TalkShells;
+import com.rultor.spi.Config;
 import com.rultor.spi.Profile;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -60,6 +61,18 @@ import org.xembly.Directives;
 /**
  * Starts daemon.
  *
+ * <p>When the daemon can't be started, because the shell is not
+ * reachable, for example, the failure is recorded in the talk, in
+ * {@code attempts} and {@code after}, and the start is retried on one of
+ * the next passes, with exponential backoff. The thread is never put to
+ * sleep, so other talks are not held up by one broken server. When it
+ * runs out of attempts, the daemon is marked as ended with code 128.</p>
+ *
+ * <p>When the agent runs out of its {@link Deadline}, it stops before
+ * the next upload and never launches the script, so an abandoned
+ * attempt doesn't start a build that the next attempt would start
+ * again.</p>
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 1.0
@@ -70,6 +83,11 @@ import org.xembly.Directives;
 @EqualsAndHashCode(callSuper = false)
 public final class StartsDaemon extends AbstractAgent {
 
+    /**
+     * Attempts to start a daemon, before it is given up.
+     */
+    private static final int ATTEMPTS = 3;
+
     /**
      * Profile to get assets from.
      */
@@ -89,18 +107,42 @@ public final class StartsDaemon extends AbstractAgent {
 
     @Override
     public Iterable<Directive> process(final XML xml) {
-        final Directives dirs = new Directives()
-            .xpath("/talk/daemon[not(started)]")
-            .strict(1)
-            .add("started").set(new Time().iso()).up();
-        try {
-            final String dir = this.run(xml);
-            dirs.add("dir").set(dir);
-        } catch (final IOException ex) {
-            dirs.add("ended").set(new Time().iso()).up()
-                .add("code").set("128").up()
-                .add("tail").set(ex.getLocalizedMessage());
-            Logger.warn(this, "%[exception]s", ex);
+        final XML daemon = xml.nodes("/talk/daemon").get(0);
+        final Directives dirs = new Directives();
+        if (StartsDaemon.due(daemon)) {
+            dirs.xpath("/talk/daemon[not(started)]").strict(1);
+            try {
+                final String dir = this.run(xml);
+                dirs.add("started").set(new Time().iso()).up()
+                    .add("dir").set(dir).up()
+                    .xpath("attempts|after").remove();
+            } catch (final IOException ex) {
+                final int attempts = StartsDaemon.attempts(daemon) + 1;
+                if (attempts >= StartsDaemon.ATTEMPTS) {
+                    dirs.add("started").set(new Time().iso()).up()
+                        .add("ended").set(new Time().iso()).up()
+                        .add("code").set("128").up()
+                        .add("tail").set(ex.getLocalizedMessage());
+                    Logger.warn(
+                        this, "daemon failed after %d attempts: %[exception]s",
+                        attempts, ex
+                    );
+                } else {
+                    dirs.addIf("attempts").set(Integer.toString(attempts))
+                        .up().addIf("after").set(
+                            new Time(
+                                System.currentTimeMillis()
+                                + TimeUnit.MINUTES.toMillis(
+                                    1L << (attempts - 1)
+                                )
+                            ).iso()
+                        );
+                    Logger.warn(
+                        this, "daemon failed to start, attempt #%d: %s",
+                        attempts, ex.getLocalizedMessage()
+                    );
+                }
+            }
         }
         return dirs;
     }
@@ -111,7 +153,6 @@ public final class StartsDaemon extends AbstractAgent {
      * @return Directory where it started
      * @throws IOException If fails
      */
-    @RetryOnFailure
     public String run(final XML xml) throws IOException {
         final XML daemon = xml.nodes("/talk/daemon").get(0);
         final Shell shell = new TalkShells(xml).get();
@@ -152,6 +193,7 @@ public final class StartsDaemon extends AbstractAgent {
             Logger.stream(Level.INFO, this),
             Logger.stream(Level.WARNING, this)
         );
+        Deadline.check();
         new Shell.Empty(new Shell.Safe(shell)).exec(
             Joiner.on(" && ").join(
                 String.format("cd %s", SSH.escape(dir)),
@@ -165,6 +207,39 @@ public final class StartsDaemon extends AbstractAgent {
         return dir;
     }
 
+    /**
+     * Is it time to (re)try to start the daemon?
+     * @param daemon XML of the daemon
+     * @return TRUE if it's due
+     */
+    private static boolean due(final XML daemon) {
+        final boolean due;
+        if (daemon.nodes("after").isEmpty()) {
+            due = true;
+        } else {
+            due = new Time(daemon.xpath("after/text()").get(0)).msec()
+                <= System.currentTimeMillis();
+        }
+        return due;
+    }
+
+    /**
+     * How many attempts were made already.
+     * @param daemon XML of the daemon
+     * @return Number of failed attempts
+     */
+    private static int attempts(final XML daemon) {
+        final int attempts;
+        if (daemon.nodes("attempts").isEmpty()) {
+            attempts = 0;
+        } else {
+            attempts = Integer.parseInt(
+                daemon.xpath("attempts/text()").get(0)
+            );
+        }
+        return attempts;
+    }
+
     /**
      * Upload assets.
      * @param shell Shell
@@ -178,6 +253,7 @@ public final class StartsDaemon extends AbstractAgent {
         try {
             for (final Map.Entry<String, InputStream> asset
                 : this.profile.assets().entrySet()) {
+                Deadline.check();
                 shell.exec(
                     String.format(
                         "cat > %s",
@@ -209,10 +285,7 @@ public final class StartsDaemon extends AbstractAgent {
      * @throws IOException If fails
      */
     private void gpg(final Shell shell, final String dir) throws IOException {
-        final Collection<XML> entries = this.profile.read().nodes(
-            "/p/entry[@key='decrypt']/entry"
-        );
-        if (!entries.isEmpty()) {
+        if (!Config.of(this.profile).decrypt().isEmpty()) {
             final String[] names = {"pubring.gpg", "secring.gpg"};
             for (final String name : names) {
                 shell.exec(
@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Coordinates;
+import com.jcabi.log.Logger;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.xembly.Directives;
+
+/**
+ * Activation of a talk for a Github issue.
+ *
+ * <p>Shared by {@link StartsTalks}, which finds mentions by polling
+ * notifications, and by the web hook, which gets them pushed by Github.
+ * The hook marks every verified delivery with
+ * {@link #pushed(Coordinates)}, per repository, so that polling can back
+ * off to a slow reconciliation pace while all repositories that mention
+ * me deliver hooks.</p>
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "talks")
+public final class Activation {
+
+    /**
+     * When the last hook delivery was received, in msec, by repository.
+     */
+    private static final Cache<String, Long> PUSHED = CacheBuilder
+        .newBuilder()
+        .expireAfterWrite(1L, TimeUnit.DAYS)
+        .maximumSize((long) Tv.TEN * Tv.THOUSAND)
+        .build();
+
+    /**
+     * Talk that is already activated and waits for processing;
+     * it can't be deactivated until Understands clears the flag.
+     */
+    private static final String PENDING = "/talk[@later='true' and wire]";
+
+    /**
+     * Talks.
+     */
+    private final transient Talks talks;
+
+    /**
+     * Ctor.
+     * @param tlks Talks
+     */
+    public Activation(final Talks tlks) {
+        this.talks = tlks;
+    }
+
+    /**
+     * Activate talk, creating it if necessary.
+     *
+     * <p>A new talk is created already active and wired, in one write.
+     * If another thread or server creates it first, which {@link Talks}
+     * reports by {@link Talks.ExistsException}, the existing talk is
+     * activated instead.
+     *
+     * @param coords Repository coordinates
+     * @param number Issue number
+     * @param href HTML URL of the issue
+     * @return Name of the talk activated
+     * @throws IOException If fails
+     */
+    public String activate(final Coordinates coords, final int number,
+        final String href) throws IOException {
+        final String name = Activation.name(coords, number);
+        final Directives dirs = new Directives()
+            .xpath("/talk").attr("later", Boolean.toString(true))
+            .xpath("/talk[not(wire)]")
+            .add("wire").add("href").set(href).up()
+            .add("github-repo").set(coords.toString())
+            .up()
+            .add("github-issue").set(Integer.toString(number));
+        boolean created = false;
+        if (!this.talks.exists(name)) {
+            try {
+                this.talks.create(coords.toString(), name, dirs);
+                created = true;
+                Logger.info(
+                    this, "talk %s#%d created as %s",
+                    coords, number, name
+                );
+            } catch (final Talks.ExistsException ex) {
+                Logger.info(
+                    this, "talk %s#%d was just created by someone else",
+                    coords, number
+                );
+            }
+        }
+        if (!created) {
+            final Talk talk = this.talks.get(name);
+            if (talk.read().nodes(Activation.PENDING).isEmpty()) {
+                talk.modify(dirs);
+                talk.active(true);
+                Logger.info(
+                    this, "talk %s#%d activated as %s",
+                    coords, number, name
+                );
+            } else {
+                Logger.info(
+                    this, "talk %s#%d is already active as %s",
+                    coords, number, name
+                );
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Does the talk for this issue exist already?
+     * @param coords Repository coordinates
+     * @param number Issue number
+     * @return TRUE if it exists
+     * @throws IOException If fails
+     */
+    public boolean exists(final Coordinates coords, final int number)
+        throws IOException {
+        return this.talks.exists(Activation.name(coords, number));
+    }
+
+    /**
+     * Register a verified hook delivery.
+     * @param coords Repository it came from
+     */
+    public static void pushed(final Coordinates coords) {
+        Activation.PUSHED.put(
+            Activation.key(coords), System.currentTimeMillis()
+        );
+    }
+
+    /**
+     * Was there a hook delivery recently, from any repository?
+     * @param minutes How many minutes back to look
+     * @return TRUE if Github pushed something within that time
+     */
+    public static boolean pushedWithin(final long minutes) {
+        boolean pushed = false;
+        for (final Long time : Activation.PUSHED.asMap().values()) {
+            if (Activation.recent(time, minutes)) {
+                pushed = true;
+                break;
+            }
+        }
+        return pushed;
+    }
+
+    /**
+     * Was there a hook delivery recently from this repository?
+     * @param coords Repository coordinates
+     * @param minutes How many minutes back to look
+     * @return TRUE if Github pushed something within that time
+     */
+    public static boolean pushedWithin(final Coordinates coords,
+        final long minutes) {
+        final Long time = Activation.PUSHED.getIfPresent(
+            Activation.key(coords)
+        );
+        return time != null && Activation.recent(time, minutes);
+    }
+
+    /**
+     * Is the time recent enough?
+     * @param time Time, in msec
+     * @param minutes How many minutes back to look
+     * @return TRUE if it is
+     */
+    private static boolean recent(final long time, final long minutes) {
+        return System.currentTimeMillis() - time
+            < TimeUnit.MINUTES.toMillis(minutes);
+    }
+
+    /**
+     * Key of the repository.
+     * @param coords Repository coordinates
+     * @return Key
+     */
+    private static String key(final Coordinates coords) {
+        return coords.toString().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Name of the talk.
+     * @param coords Repository coordinates
+     * @param number Issue number
+     * @return Name
+     */
+    private static String name(final Coordinates coords, final int number) {
+        return String.format("%s#%d", coords, number);
+    }
+
+}
@@ -37,7 +37,6 @@ import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Tv;
 import com.jcabi.github.Comment;
 import com.jcabi.github.Issue;
-import com.jcabi.github.Smarts;
 import com.jcabi.log.Logger;
 import java.io.IOException;
 import java.util.Collection;
@@ -90,28 +89,48 @@ public final class Answer {
     public void post(final boolean success, final String msg,
         final Object... args) throws IOException {
         final Issue issue = this.comment.issue();
-        final List<Comment.Smart> comments = Lists.newArrayList(
-            new Smarts<Comment.Smart>(issue.comments().iterate())
-        );
-        Collections.reverse(comments);
-        final String self = issue.repo().github().users().self().login();
-        int mine = 0;
-        for (final Comment.Smart cmt : comments) {
-            if (!cmt.author().login().equals(self)) {
-                break;
-            }
-            ++mine;
+        final String self = new Metadata(issue.repo().github()).self();
+        final long since;
+        if (this.comment.json().containsKey("created_at")) {
+            since = this.comment.createdAt().getTime();
+        } else {
+            since = 0L;
+        }
+        Answer.Tail mine = Answer.mine(new RecentComments(issue, since), self);
+        if (mine.whole() && since > 0L) {
+            mine = Answer.mine(new RecentComments(issue, 0L), self);
         }
-        if (mine < Answer.MAX) {
+        if (mine.count() < Answer.MAX) {
             issue.comments().post(this.msg(success, Logger.format(msg, args)));
         } else {
             Logger.error(
                 this, "too many (%d) comments from %s already in %s#%d",
-                mine, self, issue.repo().coordinates(), issue.number()
+                mine.count(), self, issue.repo().coordinates(), issue.number()
             );
         }
     }
 
+    /**
+     * Find my comments at the end of the list.
+     * @param comments Comments
+     * @param self My login
+     * @return Tail of my comments
+     * @throws IOException If fails
+     */
+    private static Answer.Tail mine(final Iterable<Comment.Smart> comments,
+        final String self) throws IOException {
+        final List<Comment.Smart> list = Lists.newArrayList(comments);
+        Collections.reverse(list);
+        int mine = 0;
+        for (final Comment.Smart cmt : list) {
+            if (!cmt.author().login().equals(self)) {
+                break;
+            }
+            ++mine;
+        }
+        return new Answer.Tail(mine, mine == list.size());
+    }
+
     /**
      * Make a message to post.
      * @param success Is it a report about success?
@@ -161,4 +180,45 @@ public final class Answer {
         return Xembler.escape(msg.toString());
     }
 
+    /**
+     * My comments at the end of the list.
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode(of = { "total", "all" })
+    private static final class Tail {
+        /**
+         * How many of them.
+         */
+        private final transient int total;
+        /**
+         * Are all comments in the list mine?
+         */
+        private final transient boolean all;
+        /**
+         * Ctor.
+         * @param cnt How many
+         * @param whole All comments are mine
+         */
+        Tail(final int cnt, final boolean whole) {
+            this.total = cnt;
+            this.all = whole;
+        }
+        /**
+         * How many comments are mine.
+         * @return Count
+         */
+        public int count() {
+            return this.total;
+        }
+        /**
+         * Are all comments in the list mine, so that older ones may be
+         * mine too?
+         * @return TRUE if all of them
+         */
+        public boolean whole() {
+            return this.all;
+        }
+    }
+
 }
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.google.common.collect.EvictingQueue;
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Circuit breaker of Github.
+ *
+ * <p>It watches the outcome of recent calls that go through
+ * {@link BreakerWire} and opens when at least half of them either failed
+ * or took longer than ten seconds. While it is open, calls fail
+ * immediately, instead of retrying for minutes, and once a minute
+ * a probe is sent in background. The breaker closes when a probe
+ * succeeds.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class Breaker {
+
+    /**
+     * Breaker of the Github account rultor works under.
+     */
+    public static final Breaker GITHUB = new Breaker();
+
+    /**
+     * Calls in the window.
+     */
+    private static final int WINDOW = 20;
+
+    /**
+     * Calls in the window required to open.
+     */
+    private static final int MIN = 10;
+
+    /**
+     * Call slower than this is as bad as a failure, in milliseconds.
+     */
+    private static final long SLOW = TimeUnit.SECONDS.toMillis(
+        (long) Tv.TEN
+    );
+
+    /**
+     * Pause between probes, in milliseconds.
+     */
+    private static final long PAUSE = TimeUnit.MINUTES.toMillis(1L);
+
+    /**
+     * Recent calls, TRUE for bad ones.
+     */
+    private final transient Queue<Boolean> calls =
+        EvictingQueue.create(Breaker.WINDOW);
+
+    /**
+     * When it was opened, in milliseconds since epoch, zero if closed.
+     */
+    private final transient AtomicLong opened = new AtomicLong(0L);
+
+    /**
+     * When the last probe was started, in milliseconds since epoch.
+     */
+    private final transient AtomicLong probed = new AtomicLong(0L);
+
+    /**
+     * Is a probe in progress?
+     */
+    private final transient AtomicBoolean probing = new AtomicBoolean();
+
+    /**
+     * Calls rejected so far.
+     */
+    private final transient AtomicLong rejected = new AtomicLong(0L);
+
+    /**
+     * Times it was opened so far.
+     */
+    private final transient AtomicLong trips = new AtomicLong(0L);
+
+    /**
+     * Is it open now?
+     * @return TRUE if calls must fail fast
+     */
+    public boolean isOpen() {
+        return this.opened.get() > 0L;
+    }
+
+    /**
+     * Record the outcome of a call.
+     * @param msec How long it took, in milliseconds
+     * @param failed TRUE if it failed
+     */
+    public void record(final long msec, final boolean failed) {
+        synchronized (this.calls) {
+            this.calls.add(failed || msec > Breaker.SLOW);
+            if (!this.isOpen() && this.calls.size() >= Breaker.MIN
+                && this.bad() * 2 >= this.calls.size()) {
+                final long now = System.currentTimeMillis();
+                this.opened.set(now);
+                this.probed.set(now);
+                this.trips.incrementAndGet();
+                this.calls.clear();
+                Logger.warn(this, "Github circuit opened");
+            }
+        }
+    }
+
+    /**
+     * Reject a call, since it is open.
+     */
+    public void reject() {
+        this.rejected.incrementAndGet();
+    }
+
+    /**
+     * Is it time to send a probe?
+     *
+     * <p>Returns TRUE to one caller only, which must report back
+     * to {@link #probed(boolean)}.
+     *
+     * @return TRUE if the caller must send a probe
+     */
+    public boolean due() {
+        return this.isOpen()
+            && System.currentTimeMillis() - this.probed.get() > Breaker.PAUSE
+            && this.probing.compareAndSet(false, true);
+    }
+
+    /**
+     * Report the outcome of a probe.
+     * @param success TRUE if Github answered
+     */
+    public void probed(final boolean success) {
+        this.probed.set(System.currentTimeMillis());
+        if (success) {
+            synchronized (this.calls) {
+                this.calls.clear();
+                Logger.info(
+                    this, "Github circuit closed after %[ms]s",
+                    System.currentTimeMillis() - this.opened.getAndSet(0L)
+                );
+            }
+        }
+        this.probing.set(false);
+    }
+
+    @Override
+    public String toString() {
+        final long since = this.opened.get();
+        final String state;
+        if (since > 0L) {
+            state = Logger.format(
+                "circuit is open for %[ms]s",
+                System.currentTimeMillis() - since
+            );
+        } else {
+            synchronized (this.calls) {
+                state = String.format(
+                    "circuit is closed, %d of %d recent calls went bad",
+                    this.bad(), this.calls.size()
+                );
+            }
+        }
+        return String.format(
+            "%s, %d calls rejected, opened %d times",
+            state, this.rejected.get(), this.trips.get()
+        );
+    }
+
+    /**
+     * Bad calls in the window, must be called under lock.
+     * @return Total
+     */
+    private int bad() {
+        int total = 0;
+        for (final Boolean call : this.calls) {
+            if (call) {
+                ++total;
+            }
+        }
+        return total;
+    }
+
+}
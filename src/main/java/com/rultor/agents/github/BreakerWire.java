@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.log.Logger;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Wire that goes through {@link Breaker#GITHUB}.
+ *
+ * <p>It must wrap {@link com.jcabi.http.wire.RetryWire}, in order
+ * to see the outcome of all retries and to stop them while
+ * the breaker is open. Probes ask for {@code /rate_limit}, which
+ * doesn't count against the quota.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "origin")
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class BreakerWire implements Wire {
+
+    /**
+     * Thread for probes.
+     */
+    private static final ExecutorService PROBES =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "breaker");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }
+        );
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public BreakerWire(final Wire wire) {
+        this.origin = wire;
+    }
+
+    // @checkstyle ParameterNumberCheck (7 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content) throws IOException {
+        final Breaker breaker = Breaker.GITHUB;
+        if (breaker.isOpen()) {
+            if (breaker.due()) {
+                this.probe(req, home, headers);
+            }
+            breaker.reject();
+            throw new IOException(
+                String.format("Github is not available, %s", breaker)
+            );
+        }
+        final long start = System.currentTimeMillis();
+        final Response response;
+        try {
+            response = this.origin.send(req, home, method, headers, content);
+        } catch (final IOException ex) {
+            breaker.record(System.currentTimeMillis() - start, true);
+            throw ex;
+        }
+        breaker.record(
+            System.currentTimeMillis() - start,
+            response.status() >= HttpURLConnection.HTTP_INTERNAL_ERROR
+        );
+        return response;
+    }
+
+    /**
+     * Send a probe in background.
+     * @param req Request
+     * @param home Home URI of the call that was rejected
+     * @param headers Headers
+     */
+    private void probe(final Request req, final String home,
+        final Collection<Map.Entry<String, String>> headers) {
+        final String uri = URI.create(home).resolve("/rate_limit").toString();
+        BreakerWire.PROBES.submit(
+            new Callable<Void>() {
+                @Override
+                public Void call() {
+                    boolean success = false;
+                    try {
+                        success = BreakerWire.this.origin.send(
+                            req, uri, Request.GET, headers,
+                            new ByteArrayInputStream(new byte[0])
+                        ).status() < HttpURLConnection.HTTP_INTERNAL_ERROR;
+                    } catch (final IOException ex) {
+                        Logger.info(
+                            BreakerWire.class, "probe failed: %s",
+                            ex.getLocalizedMessage()
+                        );
+                    } finally {
+                        Breaker.GITHUB.probed(success);
+                    }
+                    return null;
+                }
+            }
+        );
+    }
+
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.http.Response;
+import com.jcabi.log.Logger;
+import com.rultor.Header;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Github rate limit budget.
+ *
+ * <p>It is updated from the {@code X-RateLimit-*} headers of every
+ * response that goes through {@link BudgetWire}, and tells callers
+ * whether they can afford a call. Github counts calls of every resource
+ * ({@code core}, {@code search}, etc.) separately and names it in
+ * the {@code X-RateLimit-Resource} header, so a separate quota is kept
+ * for each resource; a response without that header counts against
+ * {@code core}.
+ *
+ * <p>Commands and reports are always allowed. Calls of lower priority
+ * must leave a share of quota untouched: the less important they are,
+ * the bigger the share. Starring a repo or following a user is shed
+ * first, at {@link #LOWEST}, while tweets are deferred later, at
+ * {@link #LOW}, see {@link com.rultor.agents.twitter.PostsTweet}.
+ *
+ * <p>A header that is missing or is not a number is ignored and the
+ * last known value is kept.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class Budget {
+
+    /**
+     * Budget of the Github account rultor works under.
+     */
+    public static final Budget GITHUB = new Budget();
+
+    /**
+     * Share of quota that low priority calls must leave untouched.
+     */
+    public static final double LOW = 0.2d;
+
+    /**
+     * Share of quota that the lowest priority calls must leave untouched.
+     */
+    public static final double LOWEST = 0.5d;
+
+    /**
+     * Resource of REST API calls.
+     */
+    public static final String CORE = "core";
+
+    /**
+     * Quotas, by resource.
+     */
+    private final transient ConcurrentMap<String, Budget.Quota> quotas =
+        new ConcurrentSkipListMap<>();
+
+    /**
+     * Update it from the response headers.
+     * @param response Response from Github
+     */
+    public void update(final Response response) {
+        String resource = new Header(
+            response, "X-RateLimit-Resource"
+        ).value();
+        if (resource.isEmpty()) {
+            resource = Budget.CORE;
+        }
+        this.quota(resource).update(response);
+    }
+
+    /**
+     * Can a call of REST API of this priority be made now?
+     * @param reserve Share of quota that must remain, like {@link #LOW}
+     * @return TRUE if the call can be made
+     */
+    public boolean allows(final double reserve) {
+        return this.allows(Budget.CORE, reserve);
+    }
+
+    /**
+     * Can a call of this resource and priority be made now?
+     * @param resource Resource, like {@link #CORE}
+     * @param reserve Share of quota that must remain, like {@link #LOW}
+     * @return TRUE if the call can be made
+     */
+    public boolean allows(final String resource, final double reserve) {
+        return this.quota(resource).allows(reserve);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder text = new StringBuilder(0);
+        for (final Map.Entry<String, Budget.Quota> quota
+            : this.quotas.entrySet()) {
+            if (text.length() > 0) {
+                text.append("; ");
+            }
+            text.append(quota.getKey()).append(": ").append(quota.getValue());
+        }
+        if (text.length() == 0) {
+            text.append("rate limit is not known yet");
+        }
+        return text.toString();
+    }
+
+    /**
+     * Quota of the resource.
+     * @param resource Resource
+     * @return Quota
+     */
+    private Budget.Quota quota(final String resource) {
+        Budget.Quota quota = this.quotas.get(resource);
+        if (quota == null) {
+            this.quotas.putIfAbsent(resource, new Budget.Quota());
+            quota = this.quotas.get(resource);
+        }
+        return quota;
+    }
+
+    /**
+     * Quota of one resource.
+     */
+    private static final class Quota {
+        /**
+         * Calls left, negative if unknown.
+         */
+        private final transient AtomicLong left = new AtomicLong(-1L);
+        /**
+         * Total calls per hour, negative if unknown.
+         */
+        private final transient AtomicLong total = new AtomicLong(-1L);
+        /**
+         * When quota is reset, in milliseconds since epoch.
+         */
+        private final transient AtomicLong reset = new AtomicLong(0L);
+        /**
+         * Calls shed so far.
+         */
+        private final transient AtomicLong shed = new AtomicLong(0L);
+        /**
+         * Update it from the response headers.
+         * @param response Response from Github
+         */
+        public void update(final Response response) {
+            Budget.Quota.store(
+                this.left,
+                new Header(response, "X-RateLimit-Remaining").value(), 1L
+            );
+            Budget.Quota.store(
+                this.total,
+                new Header(response, "X-RateLimit-Limit").value(), 1L
+            );
+            Budget.Quota.store(
+                this.reset,
+                new Header(response, "X-RateLimit-Reset").value(),
+                TimeUnit.SECONDS.toMillis(1L)
+            );
+        }
+        /**
+         * Can a call of this priority be made now?
+         * @param reserve Share of quota that must remain
+         * @return TRUE if the call can be made
+         */
+        public boolean allows(final double reserve) {
+            final long limit = this.total.get();
+            final boolean allowed = limit <= 0L
+                || System.currentTimeMillis() > this.reset.get()
+                || (double) this.left.get() > (double) limit * reserve;
+            if (!allowed) {
+                this.shed.incrementAndGet();
+            }
+            return allowed;
+        }
+        @Override
+        public String toString() {
+            final String text;
+            if (this.total.get() < 0L) {
+                text = "rate limit is not known yet";
+            } else {
+                text = Logger.format(
+                    // @checkstyle LineLength (1 line)
+                    "%d of %d calls left, reset in %[ms]s, %d low priority calls shed",
+                    this.left.get(), this.total.get(),
+                    Math.max(
+                        0L, this.reset.get() - System.currentTimeMillis()
+                    ),
+                    this.shed.get()
+                );
+            }
+            return text;
+        }
+        /**
+         * Store the number, if the text is a number.
+         * @param value Where to store it
+         * @param text Text of the header
+         * @param unit Multiplier
+         */
+        private static void store(final AtomicLong value, final String text,
+            final long unit) {
+            if (text.matches("[0-9]{1,15}")) {
+                value.set(Long.parseLong(text) * unit);
+            }
+        }
+    }
+
+}
@@ -30,19 +30,24 @@
 package com.rultor.agents.github;
 
 import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Bulk;
 import com.jcabi.github.Github;
 import com.jcabi.github.Issue;
 import com.jcabi.github.Release;
 import com.jcabi.github.Releases;
 import com.jcabi.github.Repo;
 import com.jcabi.github.Smarts;
+import com.jcabi.immutable.Array;
 import com.jcabi.log.Logger;
 import com.jcabi.manifests.Manifests;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.Footprint;
 import com.rultor.agents.daemons.Home;
 import java.io.IOException;
 import java.net.URI;
+import java.util.Collections;
 import java.util.Date;
 import java.util.ResourceBundle;
 import lombok.EqualsAndHashCode;
@@ -62,7 +67,7 @@ import org.xembly.Directives;
 @ToString
 @EqualsAndHashCode(callSuper = false, of = "github")
 @SuppressWarnings("PMD.ExcessiveImports")
-public final class CommentsTag extends AbstractAgent {
+public final class CommentsTag extends AbstractAgent implements Footprint {
 
     /**
      * Message bundle.
@@ -70,6 +75,11 @@ public final class CommentsTag extends AbstractAgent {
     private static final ResourceBundle PHRASES =
         ResourceBundle.getBundle("phrases");
 
+    /**
+     * Releases on the first page, as Github lists them.
+     */
+    private static final int PAGE = Tv.THIRTY;
+
     /**
      * Github.
      */
@@ -111,10 +121,18 @@ public final class CommentsTag extends AbstractAgent {
             Logger.info(this, "duplicate tag %s commented", tag);
         } else {
             final Repo repo = issue.repo();
-            final Date prev = CommentsTag.previous(repo);
+            final String prev = CommentsTag.previous(repo);
             final Release.Smart rel = new Release.Smart(
                 rels.create(tag.trim())
             );
+            final String log;
+            if (prev.isEmpty()) {
+                log = new CommitsLog(repo).build(
+                    new Date(0L), rel.publishedAt()
+                );
+            } else {
+                log = new CommitsLog(repo).build(prev, tag.trim());
+            }
             rel.name(issue.title());
             rel.prerelease(true);
             rel.body(
@@ -122,7 +140,7 @@ public final class CommentsTag extends AbstractAgent {
                     // @checkstyle LineLength (1 line)
                     "See #%d, release log:\n\n%s\n\nReleased by Rultor %s, see [build log](%s)",
                     issue.number(),
-                    new CommitsLog(repo).build(prev, rel.publishedAt()),
+                    log,
                     Manifests.read("Rultor-Version"), home
                 )
             );
@@ -131,22 +149,46 @@ public final class CommentsTag extends AbstractAgent {
         return new Directives();
     }
 
+    @Override
+    public Iterable<String> reads() {
+        return new Array<>("wire", "request");
+    }
+
+    @Override
+    public Iterable<String> writes() {
+        return Collections.<String>emptyList();
+    }
+
+    @Override
+    public Iterable<String> services() {
+        return new Array<>("github");
+    }
+
     /**
-     * Get previous release time.
+     * Get tag of the previous release.
+     *
+     * <p>Releases are listed newest first, so only the first page is
+     * fetched, in one call, to find the latest published one. When
+     * there are only drafts on it, no more pages are fetched and
+     * the log is built by date.</p>
+     *
      * @param repo Repo in which to find the releases.
-     * @return Previous release time or start of epoch.
+     * @return Tag of the latest published release or empty string.
      * @throws IOException In case of problem communicating with repo.
      */
-    private static Date previous(final Repo repo) throws IOException {
-        Date prev = new Date(0L);
+    private static String previous(final Repo repo) throws IOException {
+        String prev = "";
         final Iterable<Release.Smart> releases =
-            new Smarts<>(repo.releases().iterate());
+            new Smarts<>(new Bulk<>(repo.releases().iterate()));
+        int seen = 0;
         for (final Release.Smart rel : releases) {
-            if (rel.json().isNull("published_at")) {
-                continue;
+            if (!rel.json().isNull("published_at")) {
+                prev = rel.tag();
+                break;
             }
-            if (prev.before(rel.publishedAt())) {
-                prev = rel.publishedAt();
+            ++seen;
+            if (seen >= CommentsTag.PAGE) {
+                break;
             }
         }
         return prev;
@@ -30,13 +30,15 @@
 package com.rultor.agents.github;
 
 import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Tv;
+import com.jcabi.github.Bulk;
 import com.jcabi.github.Repo;
 import com.jcabi.github.RepoCommit;
-import com.jcabi.github.Smarts;
 import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -46,11 +48,18 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 import javax.json.JsonObject;
 
 /**
  * Log of commits.
  *
+ * <p>Between two tags the log is built from one call to the compare
+ * endpoint and cached, since it never changes. Without a previous tag
+ * commits are listed by date and the listing stops right after the
+ * ones shown, so the cost doesn't grow with the age of the project;
+ * then the rest are not counted.</p>
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 1.51
@@ -64,6 +73,15 @@ final class CommitsLog {
      */
     private static final int MAX = 20;
 
+    /**
+     * Logs, by repo and pair of tags.
+     */
+    private static final Cache<String, String> LOGS = CacheBuilder
+        .newBuilder()
+        .expireAfterWrite(1L, TimeUnit.DAYS)
+        .maximumSize((long) Tv.THOUSAND)
+        .build();
+
     /**
      * Repo.
      */
@@ -77,6 +95,40 @@ final class CommitsLog {
         this.repo = rpo;
     }
 
+    /**
+     * Release body text, between two tags.
+     * @param base Previous tag
+     * @param head Current tag
+     * @return Release body text.
+     * @throws IOException In case of problem communicating with git.
+     */
+    public String build(final String base, final String head)
+        throws IOException {
+        final String key = String.format(
+            "%s:%s...%s", this.repo.coordinates(), base, head
+        );
+        String log = CommitsLog.LOGS.getIfPresent(key);
+        if (log == null) {
+            final JsonObject json = this.repo.commits()
+                .compare(base, head).json();
+            final List<JsonObject> commits = Lists.reverse(
+                json.getJsonArray("commits").getValuesAs(JsonObject.class)
+            );
+            final Collection<String> lines = new LinkedList<>();
+            for (final JsonObject commit : commits) {
+                if (lines.size() >= CommitsLog.MAX) {
+                    break;
+                }
+                lines.add(CommitsLog.asText(commit.getString("sha"), commit));
+            }
+            log = CommitsLog.join(
+                lines, json.getInt("total_commits", commits.size())
+            );
+            CommitsLog.LOGS.put(key, log);
+        }
+        return log;
+    }
+
     /**
      * Release body text.
      * @param prev Previous release date.
@@ -96,41 +148,44 @@ final class CommitsLog {
                 .put("since", format.format(prev))
                 .put("until", format.format(current))
                 .build();
-        final List<RepoCommit.Smart> commits = Lists.newArrayList(
-            new Smarts<RepoCommit.Smart>(
-                this.repo.commits().iterate(params)
-            )
-        );
-        int count = 0;
-        for (final RepoCommit.Smart commit : commits) {
-            if (count >= CommitsLog.MAX) {
-                lines.add(
-                    String.format(
-                        " * and %d more...",
-                        commits.size() - CommitsLog.MAX
-                    )
-                );
+        for (final RepoCommit commit
+            : new Bulk<>(this.repo.commits().iterate(params))) {
+            if (lines.size() >= CommitsLog.MAX) {
+                lines.add(" * and more...");
                 break;
             }
-            lines.add(CommitsLog.asText(commit));
-            ++count;
+            lines.add(CommitsLog.asText(commit.sha(), commit.json()));
+        }
+        return Joiner.on('\n').join(lines);
+    }
+
+    /**
+     * Join lines, adding a note about the rest.
+     * @param lines Lines shown
+     * @param total Total commits
+     * @return Text
+     */
+    private static String join(final Collection<String> lines,
+        final int total) {
+        if (total > lines.size()) {
+            lines.add(
+                String.format(" * and %d more...", total - lines.size())
+            );
         }
         return Joiner.on('\n').join(lines);
     }
 
     /**
      * Convert commit to text.
-     * @param commit The commit
+     * @param sha SHA of the commit
+     * @param json JSON of the commit
      * @return Text
-     * @throws IOException If fails
      * @link https://developer.github.com/v3/repos/commits/#list-commits-on-a-repository
      * @checkstyle MultipleStringLiteralsCheck (50 lines)
      */
-    private static String asText(final RepoCommit.Smart commit)
-        throws IOException {
+    private static String asText(final String sha, final JsonObject json) {
         final StringBuilder line = new StringBuilder(Tv.HUNDRED);
-        final JsonObject json = commit.json();
-        line.append(" * ").append(commit.sha());
+        line.append(" * ").append(sha);
         if (!json.isNull("author")) {
             final JsonObject author = json.getJsonObject("author");
             if (!author.isNull("login")) {
@@ -141,7 +196,7 @@ final class CommitsLog {
         }
         if (!json.getJsonObject("commit").isNull("message")) {
             line.append(": ").append(
-                commit.message()
+                json.getJsonObject("commit").getString("message")
                     .replaceAll("[\\p{Cntrl}\\p{Space}]+", " ")
                     .replaceAll("(?<=^.{30}).+$", "...")
             );
@@ -0,0 +1,390 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Github;
+import com.jcabi.github.Issue;
+import com.jcabi.github.Pull;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.HttpURLConnection;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+
+/**
+ * Gateway to Github, which reads an issue in one GraphQL query.
+ *
+ * <p>The issue, its author and state, the latest comments and, for a pull
+ * request, its head and base are fetched together and kept for half
+ * a minute, which is shorter than a tick. They are exposed through
+ * the usual {@link Issue}, {@link com.jcabi.github.Comment} and
+ * {@link Pull} interfaces, in the same JSON the REST API would return.
+ * Everything else, including all writes, goes to REST. If GraphQL is not
+ * available (a mock Github, for example), the issue comes from REST
+ * entirely.</p>
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "github")
+public final class Gateway {
+
+    /**
+     * GraphQL query.
+     */
+    private static final String QUERY = Gateway.query();
+
+    /**
+     * Snapshots, by issue, empty if GraphQL failed.
+     */
+    private static final Cache<String, String> SNAPSHOTS = CacheBuilder
+        .newBuilder()
+        .expireAfterWrite((long) Tv.THIRTY, TimeUnit.SECONDS)
+        .maximumSize((long) Tv.THOUSAND)
+        .build();
+
+    /**
+     * Github.
+     */
+    private final transient Github github;
+
+    /**
+     * Ctor.
+     * @param ghub Github client
+     */
+    public Gateway(final Github ghub) {
+        this.github = ghub;
+    }
+
+    /**
+     * Get an issue.
+     * @param coords Coordinates of the repository
+     * @param number Number of the issue
+     * @return Issue
+     */
+    public Issue issue(final Coordinates coords, final int number) {
+        final String key = String.format("%s#%d", coords, number);
+        String snapshot = Gateway.SNAPSHOTS.getIfPresent(key);
+        if (snapshot == null) {
+            snapshot = this.fetch(coords, number);
+            Gateway.SNAPSHOTS.put(key, snapshot);
+        }
+        final Issue origin = this.github.repos().get(coords)
+            .issues().get(number);
+        final Issue issue;
+        if (snapshot.isEmpty()) {
+            issue = origin;
+        } else {
+            issue = new GqIssue(origin, snapshot);
+        }
+        return issue;
+    }
+
+    /**
+     * Pull request of an issue.
+     * @param issue The issue
+     * @return Pull request
+     * @throws IOException If fails
+     */
+    public static Pull pull(final Issue issue) throws IOException {
+        final Pull pull;
+        if (issue instanceof GqIssue) {
+            pull = GqIssue.class.cast(issue).pull();
+        } else {
+            pull = issue.repo().pulls().get(issue.number());
+        }
+        return pull;
+    }
+
+    /**
+     * Parse snapshot.
+     * @param snapshot JSON snapshot
+     * @return JSON
+     */
+    static JsonObject parse(final String snapshot) {
+        return Json.createReader(new StringReader(snapshot)).readObject();
+    }
+
+    /**
+     * Fetch a snapshot of the issue.
+     * @param coords Coordinates of the repository
+     * @param number Number of the issue
+     * @return Snapshot in JSON, or empty if GraphQL is not available
+     */
+    private String fetch(final Coordinates coords, final int number) {
+        String snapshot = "";
+        try {
+            snapshot = this.query(coords, number);
+        } catch (final IOException ex) {
+            Logger.warn(
+                this, "GraphQL failed for %s#%d: %s",
+                coords, number, ex.getLocalizedMessage()
+            );
+        }
+        return snapshot;
+    }
+
+    /**
+     * Query GraphQL for a snapshot of the issue.
+     * @param coords Coordinates of the repository
+     * @param number Number of the issue
+     * @return Snapshot in JSON, or empty if GraphQL is not available
+     * @throws IOException If fails
+     */
+    private String query(final Coordinates coords, final int number)
+        throws IOException {
+        final Response rsp = this.github.entry()
+            .uri().path("/graphql").back()
+            .method(Request.POST)
+            .body().set(
+                Json.createObjectBuilder()
+                    .add("query", Gateway.QUERY)
+                    .add(
+                        "variables",
+                        Json.createObjectBuilder()
+                            .add("owner", coords.user())
+                            .add("name", coords.repo())
+                            .add("number", number)
+                    )
+                    .build()
+            ).back()
+            .fetch();
+        String snapshot = "";
+        if (rsp.status() == HttpURLConnection.HTTP_OK) {
+            try {
+                final JsonObject node = Gateway.node(
+                    Gateway.parse(rsp.body())
+                );
+                if (node != null) {
+                    snapshot = Gateway.snapshot(node, number).toString();
+                }
+            } catch (final JsonException | ClassCastException ex) {
+                Logger.warn(
+                    this, "broken GraphQL response for %s#%d: %s",
+                    coords, number, ex.getLocalizedMessage()
+                );
+            }
+        }
+        if (snapshot.isEmpty()) {
+            Logger.info(
+                this, "no GraphQL for %s#%d, HTTP %d, using REST",
+                coords, number, rsp.status()
+            );
+        }
+        return snapshot;
+    }
+
+    /**
+     * Find issue node in GraphQL response.
+     * @param json GraphQL response
+     * @return Node or NULL if absent
+     */
+    private static JsonObject node(final JsonObject json) {
+        JsonObject node = null;
+        final JsonObject data = Gateway.child(json, "data");
+        if (data != null) {
+            final JsonObject repo = Gateway.child(data, "repository");
+            if (repo != null) {
+                node = Gateway.child(repo, "issueOrPullRequest");
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Child object.
+     * @param json Parent
+     * @param name Name of the child
+     * @return Child or NULL if absent or null
+     */
+    private static JsonObject child(final JsonObject json,
+        final String name) {
+        JsonObject child = null;
+        if (json.containsKey(name) && !json.isNull(name)) {
+            child = json.getJsonObject(name);
+        }
+        return child;
+    }
+
+    /**
+     * Turn GraphQL node into a snapshot, in REST format.
+     * @param node GraphQL node of an issue or pull request
+     * @param number Number of the issue
+     * @return Snapshot
+     */
+    private static JsonObject snapshot(final JsonObject node,
+        final int number) {
+        final boolean pull = "PullRequest".equals(
+            node.getString("__typename")
+        );
+        final JsonObjectBuilder issue = Json.createObjectBuilder()
+            .add("number", number)
+            .add("title", node.getString("title"))
+            .add("body", node.getString("body", ""))
+            .add("state", Gateway.state(node))
+            .add("html_url", node.getString("url"))
+            .add("user", Gateway.user(node));
+        if (pull) {
+            issue.add(
+                "pull_request",
+                Json.createObjectBuilder().add(
+                    "html_url", node.getString("url")
+                )
+            );
+        }
+        final JsonObject comments = node.getJsonObject("comments");
+        final JsonArrayBuilder list = Json.createArrayBuilder();
+        for (final JsonValue value : comments.getJsonArray("nodes")) {
+            final JsonObject comment = JsonObject.class.cast(value);
+            list.add(
+                Json.createObjectBuilder()
+                    .add("id", comment.getInt("databaseId"))
+                    .add("body", comment.getString("body"))
+                    .add("created_at", comment.getString("createdAt"))
+                    .add("user", Gateway.user(comment))
+            );
+        }
+        final JsonObjectBuilder snapshot = Json.createObjectBuilder()
+            .add("issue", issue)
+            .add("comments", list)
+            .add(
+                "complete",
+                comments.getInt("totalCount")
+                    <= comments.getJsonArray("nodes").size()
+            );
+        if (pull) {
+            snapshot.add(
+                "pull",
+                Json.createObjectBuilder()
+                    .add("number", number)
+                    .add("title", node.getString("title"))
+                    .add("state", Gateway.state(node))
+                    .add("base", Gateway.ref(node, "base"))
+                    .add("head", Gateway.ref(node, "head"))
+            );
+        }
+        return snapshot.build();
+    }
+
+    /**
+     * State of an issue, in REST format.
+     * @param node GraphQL node
+     * @return State, either open or closed
+     */
+    private static String state(final JsonObject node) {
+        final String state;
+        if ("OPEN".equals(node.getString("state"))) {
+            state = Issue.OPEN_STATE;
+        } else {
+            state = Issue.CLOSED_STATE;
+        }
+        return state;
+    }
+
+    /**
+     * Author of a node, in REST format.
+     * @param node GraphQL node
+     * @return User
+     */
+    private static JsonObjectBuilder user(final JsonObject node) {
+        final JsonObject author = Gateway.child(node, "author");
+        final String login;
+        if (author == null) {
+            login = "ghost";
+        } else {
+            login = author.getString("login");
+        }
+        return Json.createObjectBuilder().add("login", login);
+    }
+
+    /**
+     * Head or base of a pull request, in REST format.
+     * @param node GraphQL node
+     * @param side Either head or base
+     * @return Pull request reference
+     */
+    private static JsonObjectBuilder ref(final JsonObject node,
+        final String side) {
+        final JsonObjectBuilder ref = Json.createObjectBuilder()
+            .add("ref", node.getString(String.format("%sRefName", side)))
+            .add("sha", node.getString(String.format("%sRefOid", side)));
+        final JsonObject repo = Gateway.child(
+            node, String.format("%sRepository", side)
+        );
+        if (repo == null) {
+            ref.addNull("repo");
+        } else {
+            ref.add(
+                "repo",
+                Json.createObjectBuilder().add(
+                    "full_name", repo.getString("nameWithOwner")
+                )
+            );
+        }
+        return ref;
+    }
+
+    /**
+     * Load GraphQL query.
+     * @return Query
+     */
+    private static String query() {
+        try {
+            return IOUtils.toString(
+                Gateway.class.getResourceAsStream("snapshot.graphql"),
+                CharEncoding.UTF_8
+            );
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.github.Comment;
+import com.jcabi.github.Comments;
+import com.jcabi.github.Issue;
+import java.io.IOException;
+import javax.json.JsonObject;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Comment of {@link GqIssue}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "json")
+@EqualsAndHashCode(of = "json")
+final class GqComment implements Comment {
+
+    /**
+     * Issue.
+     */
+    private final transient Issue home;
+
+    /**
+     * Original comments.
+     */
+    private final transient Comments origin;
+
+    /**
+     * JSON of the comment.
+     */
+    private final transient String json;
+
+    /**
+     * Ctor.
+     * @param issue The issue
+     * @param comments Original comments
+     * @param text JSON of the comment
+     */
+    GqComment(final Issue issue, final Comments comments,
+        final String text) {
+        this.home = issue;
+        this.origin = comments;
+        this.json = text;
+    }
+
+    @Override
+    public Issue issue() {
+        return this.home;
+    }
+
+    @Override
+    public int number() {
+        return this.json().getInt("id");
+    }
+
+    @Override
+    public void remove() throws IOException {
+        this.origin.get(this.number()).remove();
+    }
+
+    @Override
+    public int compareTo(final Comment comment) {
+        return this.number() - comment.number();
+    }
+
+    @Override
+    public void patch(final JsonObject patch) throws IOException {
+        this.origin.get(this.number()).patch(patch);
+    }
+
+    @Override
+    public JsonObject json() {
+        return Gateway.parse(this.json);
+    }
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.github.Comment;
+import com.jcabi.github.Comments;
+import com.jcabi.github.Issue;
+import java.io.IOException;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Comments of {@link GqIssue}.
+ *
+ * <p>They are iterated from the snapshot, if all of them are there.
+ * Otherwise, and for everything else, the original comments are
+ * used.</p>
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "origin")
+@EqualsAndHashCode(of = "origin")
+final class GqComments implements Comments {
+
+    /**
+     * Issue.
+     */
+    private final transient Issue home;
+
+    /**
+     * Original comments.
+     */
+    private final transient Comments origin;
+
+    /**
+     * Snapshot in JSON.
+     */
+    private final transient String snapshot;
+
+    /**
+     * Ctor.
+     * @param issue The issue
+     * @param comments Original comments
+     * @param json Snapshot in JSON
+     */
+    GqComments(final Issue issue, final Comments comments,
+        final String json) {
+        this.home = issue;
+        this.origin = comments;
+        this.snapshot = json;
+    }
+
+    @Override
+    public Issue issue() {
+        return this.home;
+    }
+
+    @Override
+    public Comment get(final int number) {
+        return this.origin.get(number);
+    }
+
+    @Override
+    public Iterable<Comment> iterate() {
+        final JsonObject json = Gateway.parse(this.snapshot);
+        final Iterable<Comment> comments;
+        if (json.getBoolean("complete")) {
+            comments = Iterables.transform(
+                json.getJsonArray("comments"),
+                new Function<JsonValue, Comment>() {
+                    @Override
+                    public Comment apply(final JsonValue input) {
+                        return new GqComment(
+                            GqComments.this.home,
+                            GqComments.this.origin,
+                            input.toString()
+                        );
+                    }
+                }
+            );
+        } else {
+            comments = this.origin.iterate();
+        }
+        return comments;
+    }
+
+    @Override
+    public Comment post(final String text) throws IOException {
+        return this.origin.post(text);
+    }
+
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.github.Comments;
+import com.jcabi.github.Event;
+import com.jcabi.github.Issue;
+import com.jcabi.github.IssueLabels;
+import com.jcabi.github.Pull;
+import com.jcabi.github.Repo;
+import java.io.IOException;
+import javax.json.JsonObject;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Issue read by {@link Gateway} in one GraphQL query.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "origin")
+@EqualsAndHashCode(of = "origin")
+final class GqIssue implements Issue {
+
+    /**
+     * Original issue.
+     */
+    private final transient Issue origin;
+
+    /**
+     * Snapshot in JSON.
+     */
+    private final transient String snapshot;
+
+    /**
+     * Ctor.
+     * @param issue Original issue
+     * @param json Snapshot in JSON
+     */
+    GqIssue(final Issue issue, final String json) {
+        this.origin = issue;
+        this.snapshot = json;
+    }
+
+    /**
+     * Pull request of this issue.
+     * @return Pull request
+     */
+    public Pull pull() {
+        final Pull pull = this.origin.repo().pulls().get(this.number());
+        final JsonObject json = Gateway.parse(this.snapshot);
+        final Pull result;
+        if (json.containsKey("pull")) {
+            result = new GqPull(pull, json.getJsonObject("pull").toString());
+        } else {
+            result = pull;
+        }
+        return result;
+    }
+
+    @Override
+    public Repo repo() {
+        return this.origin.repo();
+    }
+
+    @Override
+    public int number() {
+        return this.origin.number();
+    }
+
+    @Override
+    public Comments comments() {
+        return new GqComments(this, this.origin.comments(), this.snapshot);
+    }
+
+    @Override
+    public IssueLabels labels() {
+        return this.origin.labels();
+    }
+
+    @Override
+    public Iterable<Event> events() throws IOException {
+        return this.origin.events();
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public JsonObject json() {
+        return Gateway.parse(this.snapshot).getJsonObject("issue");
+    }
+
+    @Override
+    public void patch(final JsonObject json) throws IOException {
+        this.origin.patch(json);
+    }
+
+    @Override
+    public int compareTo(final Issue issue) {
+        return this.origin.compareTo(issue);
+    }
+
+}
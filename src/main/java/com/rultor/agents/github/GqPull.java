@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.github.Commit;
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.MergeState;
+import com.jcabi.github.Pull;
+import com.jcabi.github.PullComments;
+import com.jcabi.github.PullRef;
+import com.jcabi.github.Repo;
+import java.io.IOException;
+import javax.json.JsonObject;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Pull request of {@link GqIssue}.
+ *
+ * <p>Its JSON, head and base come from the snapshot, everything
+ * else from the original pull request.</p>
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "origin")
+@EqualsAndHashCode(of = "origin")
+final class GqPull implements Pull {
+
+    /**
+     * Original pull request.
+     */
+    private final transient Pull origin;
+
+    /**
+     * JSON of the pull request.
+     */
+    private final transient String json;
+
+    /**
+     * Ctor.
+     * @param pull Original pull request
+     * @param text JSON of the pull request
+     */
+    GqPull(final Pull pull, final String text) {
+        this.origin = pull;
+        this.json = text;
+    }
+
+    @Override
+    public Repo repo() {
+        return this.origin.repo();
+    }
+
+    @Override
+    public int number() {
+        return this.origin.number();
+    }
+
+    @Override
+    public PullRef base() {
+        return new GqPull.Ref(
+            this.origin.repo(),
+            this.json().getJsonObject("base").toString()
+        );
+    }
+
+    @Override
+    public PullRef head() {
+        return new GqPull.Ref(
+            this.origin.repo(),
+            this.json().getJsonObject("head").toString()
+        );
+    }
+
+    @Override
+    public Iterable<Commit> commits() throws IOException {
+        return this.origin.commits();
+    }
+
+    @Override
+    public Iterable<JsonObject> files() throws IOException {
+        return this.origin.files();
+    }
+
+    @Override
+    public void merge(final String msg) throws IOException {
+        this.origin.merge(msg);
+    }
+
+    @Override
+    public MergeState merge(final String msg, final String sha)
+        throws IOException {
+        return this.origin.merge(msg, sha);
+    }
+
+    @Override
+    public PullComments comments() throws IOException {
+        return this.origin.comments();
+    }
+
+    @Override
+    public JsonObject json() {
+        return Gateway.parse(this.json);
+    }
+
+    @Override
+    public void patch(final JsonObject patch) throws IOException {
+        this.origin.patch(patch);
+    }
+
+    @Override
+    public int compareTo(final Pull pull) {
+        return this.origin.compareTo(pull);
+    }
+
+    /**
+     * Head or base of the pull request.
+     */
+    @Immutable
+    @ToString(of = "json")
+    @EqualsAndHashCode(of = "json")
+    private static final class Ref implements PullRef {
+        /**
+         * Repository of the pull request.
+         */
+        private final transient Repo home;
+        /**
+         * JSON of the reference.
+         */
+        private final transient String json;
+        /**
+         * Ctor.
+         * @param repo Repository of the pull request
+         * @param text JSON of the reference
+         */
+        Ref(final Repo repo, final String text) {
+            this.home = repo;
+            this.json = text;
+        }
+        @Override
+        public Repo repo() {
+            return this.home.github().repos().get(
+                new Coordinates.Simple(
+                    this.json().getJsonObject("repo").getString("full_name")
+                )
+            );
+        }
+        @Override
+        public String ref() {
+            return this.json().getString("ref");
+        }
+        @Override
+        public String sha() {
+            return this.json().getString("sha");
+        }
+        @Override
+        public JsonObject json() {
+            return Gateway.parse(this.json);
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.log.Logger;
+import com.rultor.spi.SuperAgent;
+import com.rultor.spi.Talks;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Super agent that doesn't fail while Github is not available.
+ *
+ * <p>When the super agent fails and the {@link Breaker} is open, the failure
+ * is logged and the super agent is skipped until the next tick, so that
+ * agents that don't need Github keep working.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString
+@EqualsAndHashCode(of = "origin")
+public final class GuardedSuperAgent implements SuperAgent {
+
+    /**
+     * Breaker.
+     */
+    private final transient Breaker breaker;
+
+    /**
+     * Original super agent.
+     */
+    private final transient SuperAgent origin;
+
+    /**
+     * Ctor.
+     * @param agent Original super agent
+     */
+    public GuardedSuperAgent(final SuperAgent agent) {
+        this(Breaker.GITHUB, agent);
+    }
+
+    /**
+     * Ctor.
+     * @param brk Breaker
+     * @param agent Original super agent
+     */
+    public GuardedSuperAgent(final Breaker brk, final SuperAgent agent) {
+        this.breaker = brk;
+        this.origin = agent;
+    }
+
+    @Override
+    public void execute(final Talks talks) throws IOException {
+        try {
+            this.origin.execute(talks);
+        } catch (final IOException ex) {
+            if (!this.breaker.isOpen()) {
+                throw ex;
+            }
+            Logger.warn(
+                this, "%s skipped, Github is not available: %s",
+                this.origin.getClass().getSimpleName(),
+                ex.getLocalizedMessage()
+            );
+        }
+    }
+
+}
@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ledger of side effects already made in Github.
+ *
+ * <p>It remembers which repos were starred and which users were
+ * followed, so that the calls are made once, not on every tick or
+ * command. Membership is checked in a Bloom filter. A false positive
+ * (one in a thousand) only means a star or follow is skipped.</p>
+ *
+ * <p>The filter is loaded from its file on first use, not when the
+ * class is loaded. Changes are saved in batches, at most once a minute
+ * and on {@link #flush()}, to a temporary file which is then atomically
+ * renamed, so a crash never leaves a broken file behind. The file
+ * lives on a local disk and is lost when the dyno restarts; then the
+ * ledger starts empty and the calls are made once again, which
+ * Github doesn't mind, since both star and follow are idempotent.</p>
+ *
+ * <p>Once a day the ledger is forgotten and the calls are made again,
+ * which reconciles it with Github, where a star may have been removed
+ * or a follow cancelled manually.</p>
+ *
+ * <p>The class is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class Ledger {
+
+    /**
+     * Repos already starred.
+     */
+    public static final Ledger STARS = new Ledger(
+        new File(System.getProperty("java.io.tmpdir"), "rultor-stars.bloom")
+    );
+
+    /**
+     * Users already followed.
+     */
+    public static final Ledger FOLLOWS = new Ledger(
+        new File(System.getProperty("java.io.tmpdir"), "rultor-follows.bloom")
+    );
+
+    /**
+     * How many entries we expect during a day.
+     */
+    private static final int EXPECTED = Tv.HUNDRED * Tv.THOUSAND;
+
+    /**
+     * Acceptable probability of false positives.
+     */
+    private static final double FPP = 0.001d;
+
+    /**
+     * How long entries are trusted, in msec.
+     */
+    private static final long TTL = TimeUnit.DAYS.toMillis(1L);
+
+    /**
+     * How often changes are saved, in msec.
+     */
+    private static final long PERIOD = TimeUnit.MINUTES.toMillis(1L);
+
+    /**
+     * File to save it to.
+     */
+    private final transient File file;
+
+    /**
+     * Bloom filter, NULL until loaded.
+     */
+    private transient BloomFilter<CharSequence> filter;
+
+    /**
+     * When the filter was started, in msec.
+     */
+    private transient long start;
+
+    /**
+     * When the filter was saved last time, in msec.
+     */
+    private transient long saved;
+
+    /**
+     * Are there changes not saved yet?
+     */
+    private transient boolean dirty;
+
+    /**
+     * Ctor.
+     * @param path File to save it to
+     */
+    public Ledger(final File path) {
+        this.file = path;
+    }
+
+    /**
+     * Was this side effect made already?
+     * @param key Key, like repo coordinates or user login
+     * @return TRUE if it was
+     */
+    public synchronized boolean contains(final String key) {
+        return this.loaded().mightContain(key);
+    }
+
+    /**
+     * Record that this side effect is made.
+     * @param key Key, like repo coordinates or user login
+     */
+    public synchronized void add(final String key) {
+        if (this.loaded().put(key)) {
+            this.dirty = true;
+            if (System.currentTimeMillis() - this.saved > Ledger.PERIOD) {
+                this.flush();
+            }
+        }
+    }
+
+    /**
+     * Save all changes to the file, if there are any.
+     */
+    public synchronized void flush() {
+        if (this.dirty && this.save()) {
+            this.dirty = false;
+        }
+        this.saved = System.currentTimeMillis();
+    }
+
+    @Override
+    public String toString() {
+        return this.file.getName();
+    }
+
+    /**
+     * Get the filter, loading it or starting it over when necessary.
+     * @return Filter
+     */
+    private BloomFilter<CharSequence> loaded() {
+        final long now = System.currentTimeMillis();
+        if (this.filter == null) {
+            this.filter = Ledger.empty();
+            this.start = now;
+            if (this.file.exists()
+                && this.file.lastModified() > now - Ledger.TTL) {
+                this.load();
+            }
+        } else if (now - this.start > Ledger.TTL) {
+            this.filter = Ledger.empty();
+            this.start = now;
+            this.dirty = false;
+            Logger.info(this, "%s forgotten for reconciliation", this.file);
+        }
+        return this.filter;
+    }
+
+    /**
+     * Load the filter from the file.
+     */
+    private void load() {
+        try {
+            final InputStream input = new FileInputStream(this.file);
+            try {
+                this.filter = BloomFilter.readFrom(
+                    input, Funnels.stringFunnel(Charsets.UTF_8)
+                );
+                this.start = this.file.lastModified();
+            } finally {
+                input.close();
+            }
+        } catch (final IOException ex) {
+            Logger.warn(
+                this, "failed to load %s: %s",
+                this.file, ex.getLocalizedMessage()
+            );
+        }
+    }
+
+    /**
+     * Save the filter to a temporary file and rename it.
+     * @return TRUE if saved
+     */
+    private boolean save() {
+        boolean done = false;
+        try {
+            final File temp = File.createTempFile(
+                this.file.getName(), ".tmp", this.file.getAbsoluteFile()
+                    .getParentFile()
+            );
+            try {
+                final OutputStream output = new FileOutputStream(temp);
+                try {
+                    this.filter.writeTo(output);
+                } finally {
+                    output.close();
+                }
+                if (!temp.setLastModified(this.start)) {
+                    Logger.warn(this, "can't touch %s", temp);
+                }
+                Files.move(
+                    temp.toPath(), this.file.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING
+                );
+                done = true;
+            } finally {
+                Files.deleteIfExists(temp.toPath());
+            }
+        } catch (final IOException ex) {
+            Logger.warn(
+                this, "failed to save %s: %s",
+                this.file, ex.getLocalizedMessage()
+            );
+        }
+        return done;
+    }
+
+    /**
+     * Make an empty filter.
+     * @return Filter
+     */
+    private static BloomFilter<CharSequence> empty() {
+        return BloomFilter.create(
+            Funnels.stringFunnel(Charsets.UTF_8), Ledger.EXPECTED, Ledger.FPP
+        );
+    }
+
+}
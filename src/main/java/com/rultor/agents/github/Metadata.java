@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Github;
+import com.jcabi.github.Language;
+import com.jcabi.github.Repo;
+import com.jcabi.immutable.Array;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Metadata of Github, which rarely changes.
+ *
+ * <p>My own login is resolved once per Github client and repository
+ * metadata is kept for an hour. Both are shared by all agents and
+ * the web front, instead of being requested on every tick.</p>
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "github")
+public final class Metadata {
+
+    /**
+     * My logins, by Github client.
+     */
+    private static final Cache<Github, String> LOGINS = CacheBuilder
+        .newBuilder()
+        .weakKeys()
+        .build();
+
+    /**
+     * Repositories, by coordinates.
+     */
+    private static final Cache<String, Metadata.Info> REPOS = CacheBuilder
+        .newBuilder()
+        .expireAfterWrite(1L, TimeUnit.HOURS)
+        .maximumSize((long) Tv.THOUSAND)
+        .build();
+
+    /**
+     * Github.
+     */
+    private final transient Github github;
+
+    /**
+     * Ctor.
+     * @param ghub Github client
+     */
+    public Metadata(final Github ghub) {
+        this.github = ghub;
+    }
+
+    /**
+     * My own login.
+     * @return Login
+     * @throws IOException If fails
+     */
+    public String self() throws IOException {
+        String login = Metadata.LOGINS.getIfPresent(this.github);
+        if (login == null) {
+            login = this.github.users().self().login();
+            Metadata.LOGINS.put(this.github, login);
+        }
+        return login;
+    }
+
+    /**
+     * Metadata of a repository.
+     * @param coords Coordinates of the repository
+     * @return Metadata
+     * @throws IOException If fails
+     */
+    public Metadata.Info repo(final Coordinates coords) throws IOException {
+        final String key = coords.toString();
+        Metadata.Info info = Metadata.REPOS.getIfPresent(key);
+        if (info == null) {
+            info = new Metadata.Info(
+                new Repo.Smart(this.github.repos().get(coords))
+            );
+            Metadata.REPOS.put(key, info);
+        }
+        return info;
+    }
+
+    /**
+     * Metadata of a repository.
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode(of = { "priv", "text", "langs" })
+    public static final class Info {
+        /**
+         * Is it private?
+         */
+        private final transient boolean priv;
+        /**
+         * Description.
+         */
+        private final transient String text;
+        /**
+         * Names of languages.
+         */
+        private final transient Array<String> langs;
+        /**
+         * Ctor.
+         * @param repo Repo
+         * @throws IOException If fails
+         */
+        Info(final Repo.Smart repo) throws IOException {
+            this.priv = repo.isPrivate();
+            this.text = repo.description();
+            final Collection<String> names = new LinkedList<>();
+            for (final Language lang : repo.languages()) {
+                names.add(lang.name());
+            }
+            this.langs = new Array<>(names);
+        }
+        /**
+         * Is it private?
+         * @return TRUE if private
+         */
+        public boolean isPrivate() {
+            return this.priv;
+        }
+        /**
+         * Description.
+         * @return Text, maybe empty
+         */
+        public String description() {
+            return this.text;
+        }
+        /**
+         * Names of languages.
+         * @return Names
+         */
+        public Iterable<String> languages() {
+            return this.langs;
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.github.Comment;
+import com.jcabi.github.Github;
+import com.jcabi.github.Issue;
+import com.jcabi.xml.XML;
+import com.rultor.agents.outbox.Courier;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Posts an answer from the outbox to the Github issue of the talk.
+ *
+ * <p>The message must have the {@code comment} argument with the number
+ * of the comment to answer and the {@code success} argument.</p>
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "github")
+public final class PostsComment implements Courier {
+
+    /**
+     * Github.
+     */
+    private final transient Github github;
+
+    /**
+     * Ctor.
+     * @param ghub Github client
+     */
+    public PostsComment(final Github ghub) {
+        this.github = ghub;
+    }
+
+    @Override
+    public void deliver(final XML talk, final XML message)
+        throws IOException {
+        final Issue.Smart issue = new TalkIssues(this.github, talk).get();
+        new Answer(
+            PostsComment.origin(
+                issue,
+                Integer.parseInt(
+                    message.xpath("args/arg[@name='comment']/text()").get(0)
+                )
+            )
+        ).post(
+            Boolean.parseBoolean(
+                message.xpath("args/arg[@name='success']/text()").get(0)
+            ),
+            message.xpath("text/text()").get(0)
+        );
+    }
+
+    /**
+     * Get a comment we're answering to.
+     * @param issue The issue
+     * @param number Its number
+     * @return Comment
+     */
+    private static Comment.Smart origin(final Issue.Smart issue,
+        final int number) {
+        final Comment comment;
+        if (number == 1) {
+            comment = new FirstComment(issue);
+        } else {
+            comment = issue.comments().get(number);
+        }
+        return new Comment.Smart(comment);
+    }
+
+}
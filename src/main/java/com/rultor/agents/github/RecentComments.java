@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.github.Bulk;
+import com.jcabi.github.Comment;
+import com.jcabi.github.Github;
+import com.jcabi.github.Issue;
+import com.jcabi.github.RtPagination;
+import com.jcabi.github.Smarts;
+import java.util.Date;
+import java.util.Iterator;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Comments of an issue, created or updated since a given moment.
+ *
+ * <p>Github is asked only for comments with {@code updated_at} equal to
+ * or later than the moment, and they are fetched in bulk, with their
+ * JSON, page by page. If the issue doesn't come from Github API (a mock,
+ * for example), or the moment is not known, all comments are iterated.
+ * Either way, callers must skip what they've seen already, by number.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = { "issue", "since" })
+final class RecentComments implements Iterable<Comment.Smart> {
+
+    /**
+     * Issue.
+     */
+    private final transient Issue issue;
+
+    /**
+     * The moment, in milliseconds since epoch, zero if unknown.
+     */
+    private final transient long since;
+
+    /**
+     * Ctor.
+     * @param iss Issue
+     * @param time The moment, zero if unknown
+     */
+    RecentComments(final Issue iss, final long time) {
+        this.issue = iss;
+        this.since = time;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<Comment.Smart> iterator() {
+        Iterable<Comment> comments = this.issue.comments().iterate();
+        if (this.since > 0L && comments instanceof RtPagination) {
+            final RtPagination<Comment> pages =
+                (RtPagination<Comment>) comments;
+            comments = new RtPagination<>(
+                pages.request().uri().queryParam(
+                    "since", new Github.Time(this.since).toString()
+                ).back(),
+                pages.mapping()
+            );
+        }
+        return new Smarts<Comment.Smart>(new Bulk<>(comments)).iterator();
+    }
+
+}
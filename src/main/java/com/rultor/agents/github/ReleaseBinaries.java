@@ -31,10 +31,13 @@ package com.rultor.agents.github;
 
 import com.jcabi.aspects.Immutable;
 import com.jcabi.github.Github;
+import com.jcabi.immutable.Array;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.Footprint;
 import com.rultor.spi.Profile;
 import java.io.IOException;
+import java.util.Collections;
 import lombok.ToString;
 import org.xembly.Directive;
 import org.xembly.Directives;
@@ -50,7 +53,7 @@ import org.xembly.Directives;
  */
 @Immutable
 @ToString
-public final class ReleaseBinaries extends AbstractAgent {
+public final class ReleaseBinaries extends AbstractAgent implements Footprint {
     /**
      * Ctor.
      * @param ghub Github client
@@ -68,4 +71,19 @@ public final class ReleaseBinaries extends AbstractAgent {
     public Iterable<Directive> process(final XML xml) throws IOException {
         return new Directives();
     }
+
+    @Override
+    public Iterable<String> reads() {
+        return new Array<>("wire", "request");
+    }
+
+    @Override
+    public Iterable<String> writes() {
+        return Collections.<String>emptyList();
+    }
+
+    @Override
+    public Iterable<String> services() {
+        return new Array<>("github");
+    }
 }
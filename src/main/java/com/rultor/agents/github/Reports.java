@@ -30,13 +30,14 @@
 package com.rultor.agents.github;
 
 import com.jcabi.aspects.Immutable;
-import com.jcabi.github.Comment;
-import com.jcabi.github.Github;
-import com.jcabi.github.Issue;
+import com.jcabi.immutable.Array;
+import com.jcabi.immutable.ArrayMap;
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.Footprint;
 import com.rultor.agents.daemons.Home;
+import com.rultor.agents.outbox.Outbox;
 import java.io.IOException;
 import java.net.URI;
 import java.util.List;
@@ -49,14 +50,17 @@ import org.xembly.Directives;
 /**
  * Posts merge results to Github pull request.
  *
+ * <p>The answer is put into the outbox and posted later by
+ * {@link PostsComment}.</p>
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 1.0
  */
 @Immutable
 @ToString
-@EqualsAndHashCode(callSuper = false, of = "github")
-public final class Reports extends AbstractAgent {
+@EqualsAndHashCode(callSuper = false)
+public final class Reports extends AbstractAgent implements Footprint {
 
     /**
      * Message bundle.
@@ -64,27 +68,19 @@ public final class Reports extends AbstractAgent {
     private static final ResourceBundle PHRASES =
         ResourceBundle.getBundle("phrases");
 
-    /**
-     * Github.
-     */
-    private final transient Github github;
-
     /**
      * Ctor.
-     * @param ghub Github client
      */
-    public Reports(final Github ghub) {
+    public Reports() {
         super(
             "/talk/wire[github-repo and github-issue]",
             "/talk/request[@id and success]"
         );
-        this.github = ghub;
     }
 
     @Override
     public Iterable<Directive> process(final XML xml) throws IOException {
         final XML req = xml.nodes("/talk/request").get(0);
-        final Issue.Smart issue = new TalkIssues(this.github, xml).get();
         final boolean success = Boolean.parseBoolean(
             req.xpath("success/text()").get(0)
         );
@@ -105,12 +101,33 @@ public final class Reports extends AbstractAgent {
         if (!success) {
             msg.append(Reports.tail(req));
         }
-        final int number = Integer.parseInt(req.xpath("@id").get(0));
-        new Answer(Reports.origin(issue, number)).post(success, msg.toString());
-        Logger.info(this, "issue #%d reported: %B", issue.number(), success);
-        return new Directives()
-            .xpath("/talk/request[success]")
-            .strict(1).remove();
+        final String number = req.xpath("@id").get(0);
+        Logger.info(
+            this, "issue #%s reported: %B",
+            xml.xpath("/talk/wire/github-issue/text()").get(0), success
+        );
+        return new Outbox("github").put(
+            String.format("report-%s", number),
+            msg.toString(),
+            new ArrayMap<String, String>()
+                .with("comment", number)
+                .with("success", Boolean.toString(success))
+        ).xpath("/talk/request[success]").strict(1).remove();
+    }
+
+    @Override
+    public Iterable<String> reads() {
+        return new Array<>("wire", "request");
+    }
+
+    @Override
+    public Iterable<String> writes() {
+        return new Array<>("request", "outbox");
+    }
+
+    @Override
+    public Iterable<String> services() {
+        return new Array<String>();
     }
 
     /**
@@ -145,21 +162,4 @@ public final class Reports extends AbstractAgent {
         return text;
     }
 
-    /**
-     * Get a comment we're answering to.
-     * @param issue The issue
-     * @param number Its number
-     * @return Comment
-     */
-    private static Comment.Smart origin(final Issue.Smart issue,
-        final int number) {
-        final Comment comment;
-        if (number == 1) {
-            comment = new FirstComment(issue);
-        } else {
-            comment = issue.comments().get(number);
-        }
-        return new Comment.Smart(comment);
-    }
-
 }
@@ -32,18 +32,23 @@ package com.rultor.agents.github;
 import com.jcabi.github.Coordinates;
 import com.jcabi.github.Github;
 import com.jcabi.github.Repo;
+import com.jcabi.immutable.Array;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.agents.Footprint;
 import java.io.IOException;
+import java.util.Collections;
 import org.xembly.Directive;
 import org.xembly.Directives;
 
 /**
  * Stars repos used.
+ *
+ * <p>Every repo is starred once, see {@link Ledger}.</p>
  * @author Krzysztof Krason (Krzysztof.Krason@gmail.com)
  * @version $Id$
  */
-public final class Stars extends AbstractAgent {
+public final class Stars extends AbstractAgent implements Footprint {
     /**
      * Github.
      */
@@ -60,15 +65,33 @@ public final class Stars extends AbstractAgent {
 
     @Override
     public Iterable<Directive> process(final XML xml) throws IOException {
-        final Repo repo = this.github.repos().get(
-            new Coordinates.Simple(
-                xml.nodes("/talk/wire").get(0)
-                    .xpath("github-repo/text()").get(0)
-            )
-        );
-        if (!repo.stars().starred()) {
-            repo.stars().star();
+        final String coords = xml.nodes("/talk/wire").get(0)
+            .xpath("github-repo/text()").get(0);
+        if (!Ledger.STARS.contains(coords)
+            && Budget.GITHUB.allows(Budget.LOWEST)) {
+            final Repo repo = this.github.repos().get(
+                new Coordinates.Simple(coords)
+            );
+            if (!repo.stars().starred()) {
+                repo.stars().star();
+            }
+            Ledger.STARS.add(coords);
         }
         return new Directives();
     }
+
+    @Override
+    public Iterable<String> reads() {
+        return new Array<>("wire");
+    }
+
+    @Override
+    public Iterable<String> writes() {
+        return Collections.<String>emptyList();
+    }
+
+    @Override
+    public Iterable<String> services() {
+        return new Array<>("github");
+    }
 }
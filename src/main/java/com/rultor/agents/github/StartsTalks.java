@@ -29,95 +29,345 @@
  */
 package com.rultor.agents.github;
 
-import com.google.common.base.Predicate;
-import com.google.common.collect.Iterables;
-import com.jcabi.aspects.Immutable;
+import co.stateful.Counter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.jcabi.aspects.Tv;
 import com.jcabi.github.Coordinates;
 import com.jcabi.github.Github;
-import com.jcabi.github.Issue;
 import com.jcabi.github.RtPagination;
 import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.response.JsonResponse;
 import com.jcabi.http.response.RestResponse;
+import com.jcabi.http.response.WebLinkingResponse;
 import com.jcabi.log.Logger;
-import com.rultor.Time;
+import com.rultor.Header;
 import com.rultor.spi.SuperAgent;
-import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.text.ParseException;
 import java.util.Collection;
-import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.json.JsonArray;
 import javax.json.JsonObject;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.time.DateUtils;
-import org.xembly.Directives;
 
 /**
  * Starts talk when I'm mentioned in a Github issue.
  *
+ * <p>Notifications are polled every minute, unless Github delivers
+ * web hooks (see {@link Activation}); then polling only reconciles
+ * whatever the hooks missed, once in ten minutes. As soon as polling
+ * finds a mention in a repository that doesn't deliver hooks, it goes
+ * back to every minute, for an hour. Github may ask to poll even less
+ * often, with {@code X-Poll-Interval} header.</p>
+ *
+ * <p>The time of the latest processed notification is kept in
+ * a durable cursor. Notifications are polled since a few minutes
+ * before it, so the ones that Github shows late, or the ones updated in
+ * the same second, are not lost. Those already processed are recognized
+ * by their IDs and update times, and skipped. While the cursor stays the
+ * same, the request URL stays the same too and Github answers with 304
+ * to the conditional request.</p>
+ *
+ * <p>Mentioned talks are activated by a few threads at once, so
+ * a backlog after an outage drains in one tick. What doesn't make it
+ * in time is counted in {@link #backlog()} and retried next time.
+ * A notification that fails a few times in a row is dropped, so it
+ * doesn't hold the cursor forever.</p>
+ *
+ * <p>The cursor is durable, everything else (when to poll next and
+ * which notifications were seen recently) is kept by the instance,
+ * which lives as long as the server. The class is thread-safe.</p>
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 1.0
  */
-@Immutable
-@ToString
-@EqualsAndHashCode(of = "github")
+@ToString(of = { "github", "cursor" })
+@EqualsAndHashCode(of = { "github", "cursor" })
+@SuppressWarnings("PMD.DoNotUseThreads")
 public final class StartsTalks implements SuperAgent {
 
+    /**
+     * Threads that activate talks.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * Attempts to activate a talk, before the notification is dropped.
+     */
+    private static final int ATTEMPTS = 5;
+
+    /**
+     * Overlap of polls, in msec.
+     */
+    private static final long MARGIN = TimeUnit.MINUTES.toMillis(
+        (long) Tv.THREE
+    );
+
     /**
      * Github.
      */
     private final transient Github github;
 
+    /**
+     * Time of the latest processed notification, in msec.
+     */
+    private final transient Counter cursor;
+
+    /**
+     * When notifications were polled successfully last time, in msec.
+     */
+    private final transient AtomicLong polled = new AtomicLong();
+
+    /**
+     * Not before this time Github wants to be polled again, in msec.
+     */
+    private final transient AtomicLong next = new AtomicLong();
+
+    /**
+     * When a mention from a repository without hooks was seen, in msec.
+     */
+    private final transient AtomicLong unhooked = new AtomicLong();
+
+    /**
+     * Notifications with mentions not processed last time.
+     */
+    private final transient AtomicLong pending = new AtomicLong();
+
+    /**
+     * Notifications processed recently, by their keys.
+     */
+    private final transient Cache<String, Boolean> done = CacheBuilder
+        .newBuilder()
+        .expireAfterWrite(1L, TimeUnit.HOURS)
+        .maximumSize((long) Tv.TEN * Tv.THOUSAND)
+        .build();
+
+    /**
+     * Failed attempts to process notifications, by their keys.
+     */
+    private final transient Cache<String, Integer> failures = CacheBuilder
+        .newBuilder()
+        .expireAfterWrite(1L, TimeUnit.DAYS)
+        .maximumSize((long) Tv.TEN * Tv.THOUSAND)
+        .build();
+
     /**
      * Ctor.
      * @param ghub Github client
+     * @param crs Cursor of notifications
      */
-    public StartsTalks(final Github ghub) {
+    public StartsTalks(final Github ghub, final Counter crs) {
         this.github = ghub;
+        this.cursor = crs;
     }
 
     @Override
     public void execute(final Talks talks) throws IOException {
-        final String since = new Time(
-            DateUtils.addMinutes(new Date(), -Tv.THREE)
-        ).iso();
+        final long now = System.currentTimeMillis();
+        final long last = this.polled.get();
+        if (this.pending.get() == 0L
+            && Activation.pushedWithin(Tv.THIRTY)
+            && now - this.unhooked.get() > TimeUnit.HOURS.toMillis(1L)
+            && now - last < TimeUnit.MINUTES.toMillis(Tv.TEN)) {
+            Logger.debug(
+                this, "hooks are delivered, polled %[ms]s ago",
+                now - last
+            );
+        } else if (now < this.next.get()) {
+            Logger.debug(
+                this, "Github asks to wait %[ms]s more",
+                this.next.get() - now
+            );
+        } else {
+            this.poll(talks, now);
+            this.polled.set(now);
+        }
+    }
+
+    /**
+     * Notifications with mentions that are not processed yet.
+     * @return Total
+     */
+    public long backlog() {
+        return this.pending.get();
+    }
+
+    /**
+     * Poll notifications and activate mentioned talks.
+     * @param talks Talks
+     * @param now Current time, in msec
+     * @throws IOException If fails
+     */
+    private void poll(final Talks talks, final long now) throws IOException {
+        final long seen = this.cursor.incrementAndGet(0L);
+        long start = seen - StartsTalks.MARGIN;
+        if (seen <= 0L) {
+            start = now - StartsTalks.MARGIN;
+        }
         final Request req = this.github.entry()
-            .uri().path("/notifications").back();
-        final Iterable<JsonObject> events = Iterables.filter(
-            new RtPagination<JsonObject>(
-                req.uri().queryParam("participating", "true")
-                    .queryParam("since", since)
-                    .queryParam("all", Boolean.toString(true))
-                    .back(),
-                RtPagination.COPYING
-            ),
-            new Predicate<JsonObject>() {
-                @Override
-                public boolean apply(final JsonObject json) {
-                    return "mention".equals(json.getString("reason"));
+            .uri().path("/notifications")
+            .queryParam("participating", "true")
+            .queryParam("since", new Github.Time(start).toString())
+            .queryParam("all", Boolean.toString(true))
+            .back();
+        final Response first = req.fetch();
+        this.next.set(
+            now + StartsTalks.interval(first)
+                - TimeUnit.SECONDS.toMillis((long) Tv.TEN)
+        );
+        final Collection<JsonObject> mentions = new LinkedList<>();
+        long latest = seen;
+        for (final JsonObject event : StartsTalks.events(first)) {
+            if (this.done.getIfPresent(StartsTalks.key(event))
+                == null && "mention".equals(event.getString("reason"))) {
+                mentions.add(event);
+                final Coordinates repo = StartsTalks.repo(event);
+                if (!Activation.pushedWithin(repo, Tv.THIRTY)) {
+                    this.unhooked.set(now);
                 }
             }
+            latest = Math.max(latest, StartsTalks.time(event));
+        }
+        latest = this.activate(talks, mentions, latest);
+        if (latest > seen) {
+            this.cursor.set(latest);
+            req.uri()
+                .queryParam("last_read_at", new Github.Time(latest).toString())
+                .back()
+                .method(Request.PUT)
+                .body().set("{}").back()
+                .fetch()
+                .as(RestResponse.class)
+                .assertStatus(HttpURLConnection.HTTP_RESET);
+        }
+    }
+
+    /**
+     * All notifications, starting from the first page already fetched.
+     * @param first Response with the first page
+     * @return Notifications
+     * @throws IOException If fails
+     */
+    private static Collection<JsonObject> events(final Response first)
+        throws IOException {
+        final JsonArray page = first.as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_OK)
+            .as(JsonResponse.class).json().readArray();
+        final Collection<JsonObject> events = new LinkedList<>(
+            page.getValuesAs(JsonObject.class)
         );
-        final Collection<String> names = new LinkedList<String>();
-        for (final JsonObject event : events) {
-            names.add(this.activate(talks, event));
+        final WebLinkingResponse links = first.as(WebLinkingResponse.class);
+        if (!page.isEmpty() && links.links().containsKey("next")) {
+            for (final JsonObject event : new RtPagination<JsonObject>(
+                links.follow("next"), RtPagination.COPYING
+            )) {
+                events.add(event);
+            }
         }
-        req.uri()
-            .queryParam("last_read_at", since).back()
-            .method(Request.PUT)
-            .body().set("{}").back()
-            .fetch()
-            .as(RestResponse.class)
-            .assertStatus(HttpURLConnection.HTTP_RESET);
-        Logger.info(
-            this, "%d new notification(s): %[list]s",
-            names.size(), names
+        return events;
+    }
+
+    /**
+     * Activate mentioned talks, concurrently.
+     *
+     * <p>Notifications that were not processed in time, or failed, stay
+     * in the backlog and the cursor stops right before the oldest of
+     * them, so they are polled again next time.</p>
+     *
+     * @param talks Talks
+     * @param events Notifications with mentions
+     * @param latest Time of the latest notification, in msec
+     * @return New position of the cursor, in msec
+     */
+    private long activate(final Talks talks,
+        final Collection<JsonObject> events, final long latest) {
+        final ExecutorService pool = Executors.newFixedThreadPool(
+            StartsTalks.THREADS
         );
+        final Map<JsonObject, Future<String>> futures =
+            new LinkedHashMap<>(events.size());
+        long moved = latest;
+        try {
+            for (final JsonObject event : events) {
+                futures.put(
+                    event,
+                    pool.submit(
+                        new Callable<String>() {
+                            @Override
+                            public String call() throws IOException {
+                                return StartsTalks.activate(talks, event);
+                            }
+                        }
+                    )
+                );
+            }
+            final long deadline = System.currentTimeMillis()
+                + TimeUnit.SECONDS.toMillis((long) Tv.THIRTY);
+            final Collection<String> names = new LinkedList<>();
+            long backlog = 0L;
+            for (final Map.Entry<JsonObject, Future<String>> entry
+                : futures.entrySet()) {
+                final String key = StartsTalks.key(entry.getKey());
+                try {
+                    names.add(
+                        entry.getValue().get(
+                            Math.max(
+                                0L, deadline - System.currentTimeMillis()
+                            ),
+                            TimeUnit.MILLISECONDS
+                        )
+                    );
+                    this.done.put(key, true);
+                    this.failures.invalidate(key);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(ex);
+                } catch (final ExecutionException | TimeoutException ex) {
+                    if (this.failed(key) < StartsTalks.ATTEMPTS) {
+                        Logger.warn(
+                            this, "notification %s postponed: %[exception]s",
+                            key, ex
+                        );
+                        moved = Math.min(
+                            moved, StartsTalks.time(entry.getKey()) - 1L
+                        );
+                        ++backlog;
+                    } else {
+                        Logger.error(
+                            this, "notification %s dropped: %[exception]s",
+                            key, ex
+                        );
+                        this.done.put(key, true);
+                        this.failures.invalidate(key);
+                    }
+                }
+            }
+            this.pending.set(backlog);
+            Logger.info(
+                this, "%d new notification(s), %d in backlog: %[list]s",
+                names.size(), backlog, names
+            );
+        } finally {
+            pool.shutdownNow();
+        }
+        return moved;
     }
 
     /**
@@ -127,42 +377,92 @@ public final class StartsTalks implements SuperAgent {
      * @return Name of the talk activated
      * @throws IOException If fails
      */
-    private String activate(final Talks talks, final JsonObject event)
-        throws IOException {
-        final Coordinates coords = new Coordinates.Simple(
-            event.getJsonObject("repository").getString("full_name")
+    private static String activate(final Talks talks,
+        final JsonObject event) throws IOException {
+        final int number = Integer.parseInt(
+            StringUtils.substringAfterLast(
+                event.getJsonObject("subject").getString("url"),
+                "/"
+            )
         );
-        final Issue issue = this.github.repos().get(coords).issues().get(
-            Integer.parseInt(
-                StringUtils.substringAfterLast(
-                    event.getJsonObject("subject").getString("url"),
-                    "/"
-                )
+        return new Activation(talks).activate(
+            StartsTalks.repo(event),
+            number,
+            String.format(
+                "%s/issues/%d",
+                event.getJsonObject("repository").getString("html_url"),
+                number
             )
         );
-        final String name = String.format("%s#%d", coords, issue.number());
-        if (!talks.exists(name)) {
-            talks.create(coords.toString(), name);
-        }
-        final Talk talk = talks.get(name);
-        talk.modify(
-            new Directives()
-                .xpath("/talk").attr("later", Boolean.toString(true))
-                .xpath("/talk[not(wire)]")
-                .add("wire").add("href")
-                .set(new Issue.Smart(issue).htmlUrl().toString())
-                .up()
-                .add("github-repo").set(coords.toString())
-                .up()
-                .add("github-issue")
-                .set(Integer.toString(issue.number()))
+    }
+
+    /**
+     * Repository of the notification.
+     * @param event Event
+     * @return Coordinates
+     */
+    private static Coordinates repo(final JsonObject event) {
+        return new Coordinates.Simple(
+            event.getJsonObject("repository").getString("full_name")
         );
-        talk.active(true);
-        Logger.info(
-            this, "talk %s#%d activated as %s",
-            coords, issue.number(), name
+    }
+
+    /**
+     * Count one more failure of the notification.
+     * @param key Key of the notification
+     * @return Failures so far, including this one
+     */
+    private int failed(final String key) {
+        final Integer before = this.failures.getIfPresent(key);
+        int total = 1;
+        if (before != null) {
+            total += before;
+        }
+        this.failures.put(key, total);
+        return total;
+    }
+
+    /**
+     * Unique key of the notification, its ID and the time it was updated.
+     * @param event Event
+     * @return Key
+     */
+    private static String key(final JsonObject event) {
+        return String.format(
+            "%s@%s",
+            event.getString(
+                "id", event.getJsonObject("subject").getString("url", "")
+            ),
+            event.getString("updated_at")
         );
-        return talk.name();
+    }
+
+    /**
+     * Time the notification was updated.
+     * @param event Event
+     * @return Time in msec
+     */
+    private static long time(final JsonObject event) {
+        try {
+            return new Github.Time(event.getString("updated_at"))
+                .date().getTime();
+        } catch (final ParseException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Poll interval requested by Github.
+     * @param response Response
+     * @return Interval, in msec
+     */
+    private static long interval(final Response response) {
+        final String header = new Header(response, "X-Poll-Interval").value();
+        long sec = (long) Tv.SIXTY;
+        if (header.matches("[0-9]+")) {
+            sec = Long.parseLong(header);
+        }
+        return TimeUnit.SECONDS.toMillis(sec);
     }
 
 }
@@ -76,15 +76,24 @@ public final class TalkIssues {
      */
     public Issue.Smart get() {
         final XML wire = this.xml.nodes("/talk/wire").get(0);
-        final Coordinates coords = new Coordinates.Simple(
-            wire.xpath("github-repo/text()").get(0)
-        );
-        final Repo repo = this.github.repos().get(coords);
         return new Issue.Smart(
-            repo.issues().get(
-                Integer.parseInt(
-                    wire.xpath("github-issue/text()").get(0)
-                )
+            new Gateway(this.github).issue(
+                new Coordinates.Simple(
+                    wire.xpath("github-repo/text()").get(0)
+                ),
+                Integer.parseInt(wire.xpath("github-issue/text()").get(0))
+            )
+        );
+    }
+
+    /**
+     * Find and get repository of the issue.
+     * @return Repo
+     */
+    public Repo repo() {
+        return this.github.repos().get(
+            new Coordinates.Simple(
+                this.xml.xpath("/talk/wire/github-repo/text()").get(0)
             )
         );
     }
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.rultor.agents.Deadline;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Wire that respects the {@link Deadline} of the agent.
+ *
+ * <p>When the current thread has no deadline, the request goes to
+ * the original wire. Otherwise the wire refuses to send it when
+ * the agent is out of time, and sends it itself, with connect and read
+ * timeouts equal to the time left, since the original wire
+ * of {@link com.jcabi.http.request.JdkRequest} has no timeouts and may
+ * wait for a silent server forever.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "origin")
+public final class TimedWire implements Wire {
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public TimedWire(final Wire wire) {
+        this.origin = wire;
+    }
+
+    // @checkstyle ParameterNumberCheck (7 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content) throws IOException {
+        final Response response;
+        if (Deadline.end() == Long.MAX_VALUE) {
+            response = this.origin.send(req, home, method, headers, content);
+        } else {
+            Deadline.check();
+            response = TimedWire.fetch(req, home, method, headers, content);
+        }
+        return response;
+    }
+
+    /**
+     * Send the request with timeouts.
+     * @param req Request
+     * @param home URI to fetch
+     * @param method HTTP method
+     * @param headers Headers
+     * @param content Body
+     * @return Response
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static Response fetch(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content) throws IOException {
+        final HttpURLConnection conn = HttpURLConnection.class.cast(
+            new URL(home).openConnection()
+        );
+        try {
+            conn.setConnectTimeout(Deadline.timeout());
+            conn.setReadTimeout(Deadline.timeout());
+            conn.setRequestMethod(method);
+            conn.setUseCaches(false);
+            conn.setInstanceFollowRedirects(false);
+            for (final Map.Entry<String, String> header : headers) {
+                conn.addRequestProperty(header.getKey(), header.getValue());
+            }
+            if ("POST".equals(method) || "PUT".equals(method)
+                || "PATCH".equals(method)) {
+                conn.setDoOutput(true);
+                try (final OutputStream output = conn.getOutputStream()) {
+                    IOUtils.copy(content, output);
+                }
+            }
+            final int code = conn.getResponseCode();
+            return new TimedWire.Reply(
+                req, code, conn.getResponseMessage(),
+                TimedWire.headers(conn.getHeaderFields()),
+                TimedWire.body(conn, code)
+            );
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    /**
+     * Headers of the response, without the status line.
+     * @param fields Header fields of the connection
+     * @return Headers
+     */
+    private static Map<String, List<String>> headers(
+        final Map<String, List<String>> fields) {
+        final Map<String, List<String>> map =
+            new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (final Map.Entry<String, List<String>> field : fields.entrySet()) {
+            if (field.getKey() != null) {
+                map.put(field.getKey(), field.getValue());
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Body of the response.
+     * @param conn Connection
+     * @param code HTTP status
+     * @return Body
+     * @throws IOException If fails
+     */
+    private static byte[] body(final HttpURLConnection conn, final int code)
+        throws IOException {
+        final InputStream input;
+        if (code >= HttpURLConnection.HTTP_BAD_REQUEST) {
+            input = conn.getErrorStream();
+        } else {
+            input = conn.getInputStream();
+        }
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (input != null) {
+            try {
+                IOUtils.copy(input, body);
+            } finally {
+                input.close();
+            }
+        }
+        return body.toByteArray();
+    }
+
+    /**
+     * Response received by this wire.
+     */
+    @ToString(of = { "code", "phrase" })
+    private static final class Reply implements Response {
+        /**
+         * Request.
+         */
+        private final transient Request req;
+        /**
+         * HTTP status.
+         */
+        private final transient int code;
+        /**
+         * Reason phrase.
+         */
+        private final transient String phrase;
+        /**
+         * Headers.
+         */
+        private final transient Map<String, List<String>> hdrs;
+        /**
+         * Body.
+         */
+        private final transient byte[] content;
+        /**
+         * Ctor.
+         * @param request Request
+         * @param status HTTP status
+         * @param reason Reason phrase
+         * @param headers Headers
+         * @param body Body
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Reply(final Request request, final int status, final String reason,
+            final Map<String, List<String>> headers, final byte[] body) {
+            this.req = request;
+            this.code = status;
+            this.phrase = reason;
+            this.hdrs = headers;
+            this.content = Arrays.copyOf(body, body.length);
+        }
+        @Override
+        public Request back() {
+            return this.req;
+        }
+        @Override
+        public int status() {
+            return this.code;
+        }
+        @Override
+        public String reason() {
+            return this.phrase;
+        }
+        @Override
+        public Map<String, List<String>> headers() {
+            return this.hdrs;
+        }
+        @Override
+        public String body() {
+            return new String(this.content, StandardCharsets.UTF_8);
+        }
+        @Override
+        public byte[] binary() {
+            return Arrays.copyOf(this.content, this.content.length);
+        }
+        @Override
+        public <T extends Response> T as(final Class<T> type) {
+            try {
+                return type.getDeclaredConstructor(Response.class)
+                    .newInstance(this);
+            } catch (final InstantiationException
+                | IllegalAccessException | NoSuchMethodException
+                | InvocationTargetException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+}
@@ -30,25 +30,29 @@
 package com.rultor.agents.github;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.jcabi.aspects.Immutable;
-import com.jcabi.github.Bulk;
 import com.jcabi.github.Comment;
 import com.jcabi.github.Github;
 import com.jcabi.github.Issue;
 import com.jcabi.github.Smarts;
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
 import com.rultor.agents.AbstractAgent;
 import com.rultor.agents.daemons.Home;
 import com.rultor.spi.Profile;
 import java.io.IOException;
+import java.text.ParseException;
 import java.util.Collections;
+import java.util.List;
 import java.util.ResourceBundle;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.xembly.Directive;
 import org.xembly.Directives;
+import org.xembly.Xembler;
 
 /**
  * Understands request.
@@ -100,34 +104,55 @@ public final class Understands extends AbstractAgent {
         this.question = qtn;
     }
 
-    // @checkstyle ExecutableStatementCountCheck (50 lines)
+    // @checkstyle ExecutableStatementCountCheck (80 lines)
     @Override
     public Iterable<Directive> process(final XML xml) throws IOException {
         final Issue.Smart issue = new TalkIssues(this.github, xml).get();
-        final Iterable<Comment.Smart> comments = new Smarts<>(
-            Iterables.concat(
-                Collections.singleton(new FirstComment(issue)),
-                new Bulk<>(issue.comments().iterate())
+        final Iterable<Comment.Smart> comments = Lists.newArrayList(
+            new Smarts<Comment.Smart>(
+                Iterables.concat(
+                    Collections.singleton(new FirstComment(issue)),
+                    new RecentComments(issue, Understands.since(xml))
+                )
             )
         );
         final int seen = Understands.seen(xml);
         int next = seen;
+        long time = 0L;
         int fresh = 0;
         int total = 0;
-        Req req = Req.EMPTY;
+        int found = 0;
+        boolean busy = !xml.nodes("/talk/request").isEmpty();
+        boolean again = false;
+        final Directives dirs = new Directives();
         for (final Comment.Smart comment : comments) {
             ++total;
             if (comment.number() <= seen) {
                 continue;
             }
             ++fresh;
-            req = this.parse(comment, xml);
+            final Req req = this.parse(comment, xml);
             if (req.equals(Req.LATER)) {
+                Logger.info(
+                    this, "temporary pause in %s#%d, at message #%d",
+                    issue.repo().coordinates(), issue.number(),
+                    comment.number()
+                );
+                again = true;
                 break;
             }
             next = comment.number();
-            if (!req.equals(Req.EMPTY)) {
-                break;
+            if (comment.json().containsKey("created_at")) {
+                time = comment.createdAt().getTime();
+            }
+            if (req.equals(Req.EMPTY)) {
+                continue;
+            }
+            again = true;
+            if (!req.equals(Req.DONE)) {
+                Understands.register(dirs, next, req.dirs(), busy);
+                busy = true;
+                ++found;
             }
         }
         if (next < seen) {
@@ -138,35 +163,76 @@ public final class Understands extends AbstractAgent {
                 )
             );
         }
-        final Directives dirs = new Directives();
-        if (req.equals(Req.EMPTY)) {
+        if (!again) {
             Logger.info(
                 this, "nothing new in %s#%d, fresh/total: %d/%d",
                 issue.repo().coordinates(), issue.number(), fresh, total
             );
-        } else if (req.equals(Req.DONE)) {
-            Logger.info(
-                this, "simple request in %s#%d",
-                issue.repo().coordinates(), issue.number()
-            );
-        } else if (req.equals(Req.LATER)) {
+        } else if (found > 0) {
             Logger.info(
-                this, "temporary pause in %s#%d, at message #%d",
-                issue.repo().coordinates(), issue.number(), next
+                this, "%d request(s) registered in %s#%d",
+                found, issue.repo().coordinates(), issue.number()
             );
-        } else {
-            dirs.xpath("/talk/request").remove()
-                .xpath("/talk[not(request)]").strict(1).add("request")
-                .attr("id", Integer.toString(next))
-                .append(req.dirs());
         }
         if (next > seen) {
             dirs.xpath("/talk/wire")
                 .addIf("github-seen")
                 .set(Integer.toString(next));
         }
-        return dirs.xpath("/talk")
-            .attr("later", Boolean.toString(!req.equals(Req.EMPTY)));
+        if (time > 0L) {
+            dirs.xpath("/talk/wire")
+                .addIf("github-seen-at")
+                .set(new Github.Time(time).toString());
+        }
+        return dirs.xpath("/talk").attr("later", Boolean.toString(again));
+    }
+
+    /**
+     * Register a new request, either as the current one or in the queue.
+     *
+     * <p>When there is no current request, the new one takes its place.
+     * Otherwise it waits in the queue, unless it is a "stop" request,
+     * which replaces the current one and drops the queue, since
+     * the build it stops is the one in progress.
+     *
+     * @param dirs Directives to add to
+     * @param number Number of the comment
+     * @param req Directives of the request
+     * @param busy TRUE if there is a current request already
+     */
+    private static void register(final Directives dirs, final int number,
+        final Iterable<Directive> req, final boolean busy) {
+        if (!busy) {
+            dirs.xpath("/talk");
+        } else if ("stop".equals(Understands.type(req))) {
+            dirs.xpath("/talk/queue").remove()
+                .xpath("/talk/request").remove()
+                .xpath("/talk");
+        } else {
+            dirs.xpath("/talk").addIf("queue");
+        }
+        dirs.add("request")
+            .attr("id", Integer.toString(number))
+            .append(req);
+    }
+
+    /**
+     * Type of the request.
+     * @param req Directives of the request
+     * @return Type, empty if it's not known
+     */
+    private static String type(final Iterable<Directive> req) {
+        final List<String> types = new XMLDocument(
+            new Xembler(new Directives().add("request").append(req))
+                .xmlQuietly()
+        ).xpath("/request/type/text()");
+        final String type;
+        if (types.isEmpty()) {
+            type = "";
+        } else {
+            type = types.get(0);
+        }
+        return type;
     }
 
     /**
@@ -196,6 +262,28 @@ public final class Understands extends AbstractAgent {
         return req;
     }
 
+    /**
+     * When the last seen message was created.
+     * @param xml XML
+     * @return Milliseconds since epoch, zero if unknown
+     */
+    private static long since(final XML xml) {
+        long since = 0L;
+        final List<String> texts =
+            xml.xpath("/talk/wire/github-seen-at/text()");
+        if (!texts.isEmpty()) {
+            try {
+                since = new Github.Time(texts.get(0)).date().getTime();
+            } catch (final ParseException ex) {
+                Logger.warn(
+                    Understands.class, "broken github-seen-at: %s",
+                    texts.get(0)
+                );
+            }
+        }
+        return since;
+    }
+
     /**
      * Last seen message.
      * @param xml XML
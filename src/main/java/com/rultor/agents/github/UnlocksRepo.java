@@ -32,7 +32,7 @@ package com.rultor.agents.github;
 import co.stateful.Locks;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.github.Github;
-import com.jcabi.github.Issue;
+import com.jcabi.github.Repo;
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import com.rultor.spi.SuperAgent;
@@ -60,6 +60,7 @@ public final class UnlocksRepo implements SuperAgent {
      */
     private static final String XPATH = StringUtils.join(
         "/talk[not(request) and not(daemon) and not(shell)",
+        " and not(queue/request)",
         " and wire/github-repo and wire/github-issue]"
     );
 
@@ -98,11 +99,11 @@ public final class UnlocksRepo implements SuperAgent {
     private void unlock(final Talk talk) throws IOException {
         final XML xml = talk.read();
         if (!xml.nodes(UnlocksRepo.XPATH).isEmpty()) {
-            final Issue issue = new TalkIssues(this.github, talk.read()).get();
-            if (new RepoLock(this.locks, issue.repo()).unlock(talk)) {
+            final Repo repo = new TalkIssues(this.github, xml).repo();
+            if (new RepoLock(this.locks, repo).unlock(talk)) {
                 Logger.info(
                     this, "%s unlocked by %s",
-                    issue.repo().coordinates(), talk.name()
+                    repo.coordinates(), talk.name()
                 );
             }
         }
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github.qtn;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.immutable.ArrayMap;
+import com.jcabi.immutable.ArraySet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Text of a comment, split into words and parameters in one pass.
+ *
+ * <p>Words are runs of letters, lower-cased. Parameters look like
+ * {@code tag is `1.0`}, {@code tag: `1.0`} or {@code tag=`1.0`}; words
+ * of their names and values are words of the text too. The same text
+ * is parsed only once, so {@link QnDispatch} at every level and
+ * {@link QnParametrized} share the result.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = { "words", "params" })
+public final class Command {
+
+    /**
+     * Parameter or word.
+     */
+    private static final Pattern PTN = Pattern.compile(
+        "([a-zA-Z_]+)\\s*(?::|=|is)\\s*`([^`]+)`|[a-zA-Z]+",
+        Pattern.DOTALL | Pattern.MULTILINE
+    );
+
+    /**
+     * Run of letters.
+     */
+    private static final Pattern LETTERS = Pattern.compile("[a-zA-Z]+");
+
+    /**
+     * Parsed texts.
+     */
+    private static final Cache<String, Command> PARSED =
+        CacheBuilder.newBuilder()
+            .expireAfterAccess(1L, TimeUnit.MINUTES)
+            .maximumSize((long) Tv.HUNDRED)
+            .build();
+
+    /**
+     * Distinct words, lower-cased.
+     */
+    private final transient ArraySet<String> words;
+
+    /**
+     * Parameters, in order of appearance.
+     */
+    private final transient ArrayMap<String, String> params;
+
+    /**
+     * Ctor.
+     * @param text Text of the comment
+     */
+    Command(final String text) {
+        final Collection<String> found = new HashSet<>(0);
+        final Map<String, String> map = new LinkedHashMap<>(0);
+        final Matcher matcher = Command.PTN.matcher(text);
+        while (matcher.find()) {
+            if (matcher.group(1) == null) {
+                found.add(matcher.group().toLowerCase(Locale.ENGLISH));
+            } else {
+                if (!map.containsKey(matcher.group(1))) {
+                    map.put(matcher.group(1), matcher.group(2));
+                }
+                final Matcher letters = Command.LETTERS.matcher(
+                    matcher.group()
+                );
+                while (letters.find()) {
+                    found.add(letters.group().toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+        this.words = new ArraySet<>(found);
+        this.params = new ArrayMap<>(map);
+    }
+
+    /**
+     * Parse the text, or take it parsed already.
+     * @param text Text of the comment
+     * @return Command
+     */
+    public static Command of(final String text) {
+        try {
+            return Command.PARSED.get(
+                text,
+                new Callable<Command>() {
+                    @Override
+                    public Command call() {
+                        return new Command(text);
+                    }
+                }
+            );
+        } catch (final ExecutionException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Does any word of the text contain any of these?
+     *
+     * <p>Every known word is looked up by every piece of every word
+     * of the text that has the same length, so the text is never
+     * scanned again, no matter how many words are known.
+     *
+     * @param known Words to look for, lower-cased letters only
+     * @return Words found
+     */
+    public ArraySet<String> find(final ArraySet<String> known) {
+        final Collection<Integer> lengths = new HashSet<>(0);
+        for (final String word : known) {
+            lengths.add(word.length());
+        }
+        final Collection<String> found = new HashSet<>(0);
+        for (final String word : this.words) {
+            for (final int len : lengths) {
+                for (int pos = 0; pos + len <= word.length(); ++pos) {
+                    final String piece = word.substring(pos, pos + len);
+                    if (known.contains(piece)) {
+                        found.add(piece);
+                    }
+                }
+            }
+        }
+        return new ArraySet<>(found);
+    }
+
+    /**
+     * Parameters.
+     * @return Names and values, as they were written
+     */
+    public Map<String, String> params() {
+        return this.params;
+    }
+
+}
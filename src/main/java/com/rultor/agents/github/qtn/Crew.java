@@ -29,18 +29,28 @@
  */
 package com.rultor.agents.github.qtn;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
 import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
 import com.jcabi.github.Repo;
 import com.jcabi.github.User;
 import com.jcabi.log.Logger;
-import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 /**
  * Github crew.
  *
+ * <p>Collaborators of a repository are cached for a few minutes and
+ * shared by all questions that check them, so that a command costs
+ * at most one listing of collaborators, instead of one per question.
+ * When the cache expires, the listing goes through the caching wire
+ * again and is revalidated with conditional requests.</p>
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 1.40.7
@@ -50,6 +60,15 @@ import lombok.ToString;
 @EqualsAndHashCode(of = "repo")
 final class Crew {
 
+    /**
+     * Collaborators of repositories, by coordinates.
+     */
+    private static final Cache<String, Set<String>> CACHE = CacheBuilder
+        .newBuilder()
+        .expireAfterWrite((long) Tv.FIVE, TimeUnit.MINUTES)
+        .maximumSize((long) Tv.THOUSAND)
+        .build();
+
     /**
      * Github.
      */
@@ -65,23 +84,39 @@ final class Crew {
 
     /**
      * Get all collaborators.
-     * @return List of their login names
+     * @return Set of their login names
      */
     @SuppressWarnings("PMD.AvoidCatchingThrowable")
-    public Collection<String> names() {
-        final Collection<String> names = new LinkedList<>();
-        try {
-            for (final User user : this.repo.collaborators().iterate()) {
-                names.add(user.login());
+    public Set<String> names() {
+        final String key = this.repo.coordinates().toString();
+        Set<String> names = Crew.CACHE.getIfPresent(key);
+        if (names == null) {
+            final ImmutableSet.Builder<String> all = ImmutableSet.builder();
+            try {
+                for (final User user : this.repo.collaborators().iterate()) {
+                    all.add(user.login());
+                }
+                names = all.build();
+                Crew.CACHE.put(key, names);
+                // @checkstyle IllegalCatchCheck (1 line)
+            } catch (final Throwable ex) {
+                Logger.warn(
+                    this, "failed to fetch collaborator: %s",
+                    ex.getLocalizedMessage()
+                );
+                names = all.build();
             }
-            // @checkstyle IllegalCatchCheck (1 line)
-        } catch (final Throwable ex) {
-            Logger.warn(
-                this, "failed to fetch collaborator: %s",
-                ex.getLocalizedMessage()
-            );
         }
         return names;
     }
 
+    /**
+     * Is this user a collaborator?
+     * @param login Login name of the user
+     * @return TRUE if it's a collaborator
+     */
+    public boolean contains(final String login) {
+        return this.names().contains(login);
+    }
+
 }
@@ -35,15 +35,16 @@ import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.github.Comment;
 import com.jcabi.github.Repo;
-import com.jcabi.xml.XML;
 import com.rultor.agents.github.Answer;
+import com.rultor.agents.github.Metadata;
 import com.rultor.agents.github.Question;
 import com.rultor.agents.github.Req;
+import com.rultor.spi.Config;
 import com.rultor.spi.Profile;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.ResourceBundle;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -58,7 +59,7 @@ import org.apache.commons.lang3.StringUtils;
  */
 @Immutable
 @ToString
-@EqualsAndHashCode(of = { "profile", "xpath", "origin" })
+@EqualsAndHashCode(of = { "profile", "section", "origin" })
 public final class QnAskedBy implements Question {
 
     /**
@@ -73,9 +74,9 @@ public final class QnAskedBy implements Question {
     private final transient Profile profile;
 
     /**
-     * XPath.
+     * Section of the profile, like "merge".
      */
-    private final transient String xpath;
+    private final transient String section;
 
     /**
      * Original question.
@@ -85,13 +86,13 @@ public final class QnAskedBy implements Question {
     /**
      * Ctor.
      * @param prof Profile
-     * @param path XPath in profile with a list of logins
+     * @param name Section of the profile with a list of commanders
      * @param qtn Original question
      */
-    public QnAskedBy(final Profile prof, final String path,
+    public QnAskedBy(final Profile prof, final String name,
         final Question qtn) {
         this.profile = prof;
-        this.xpath = path;
+        this.section = name;
         this.origin = qtn;
     }
 
@@ -111,7 +112,7 @@ public final class QnAskedBy implements Question {
                     QnAskedBy.PHRASES.getString("QnAskedBy.denied"),
                     this.commandersAsDelimitedList(
                         logins,
-                        comment.issue().repo().github().users().self().login()
+                        new Metadata(comment.issue().repo().github()).self()
                     )
                 )
             );
@@ -157,10 +158,12 @@ public final class QnAskedBy implements Question {
      * @throws IOException If fails
      */
     private Collection<String> commanders(final Repo repo) throws IOException {
-        final Collection<String> logins = new LinkedList<String>();
-        final XML xml = this.profile.read();
-        logins.addAll(new Crew(repo).names());
-        logins.addAll(xml.xpath(this.xpath));
+        final Collection<String> logins = new LinkedHashSet<String>(
+            new Crew(repo).names()
+        );
+        logins.addAll(
+            Config.of(this.profile).section(this.section).commanders()
+        );
         return logins;
     }
 
@@ -37,6 +37,7 @@ import com.jcabi.github.Issue;
 import com.rultor.agents.github.Answer;
 import com.rultor.agents.github.Question;
 import com.rultor.agents.github.Req;
+import com.rultor.spi.Config;
 import com.rultor.spi.Profile;
 import java.io.IOException;
 import java.net.URI;
@@ -55,7 +56,7 @@ import lombok.ToString;
  */
 @Immutable
 @ToString
-@EqualsAndHashCode(of = { "profile", "xpath", "origin" })
+@EqualsAndHashCode(of = { "profile", "origin" })
 public final class QnByArchitect implements Question {
 
     /**
@@ -69,11 +70,6 @@ public final class QnByArchitect implements Question {
      */
     private final transient Profile profile;
 
-    /**
-     * XPath.
-     */
-    private final transient String xpath;
-
     /**
      * Original question.
      */
@@ -82,13 +78,10 @@ public final class QnByArchitect implements Question {
     /**
      * Ctor.
      * @param prof Profile
-     * @param path XPath in profile with a list of logins
      * @param qtn Original question
      */
-    public QnByArchitect(final Profile prof, final String path,
-        final Question qtn) {
+    public QnByArchitect(final Profile prof, final Question qtn) {
         this.profile = prof;
-        this.xpath = path;
         this.origin = qtn;
     }
 
@@ -98,7 +91,7 @@ public final class QnByArchitect implements Question {
         final Req req;
         final Issue.Smart issue = new Issue.Smart(comment.issue());
         final List<String> logins = Lists.transform(
-            this.profile.read().xpath(this.xpath),
+            Config.of(this.profile).architects(),
             new Function<String, String>() {
                 @Override
                 public String apply(final String input) {
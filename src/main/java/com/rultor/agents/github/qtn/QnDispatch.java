@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github.qtn;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.github.Comment;
+import com.jcabi.immutable.Array;
+import com.jcabi.immutable.ArraySet;
+import com.jcabi.log.Logger;
+import com.rultor.agents.github.Question;
+import com.rultor.agents.github.Req;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Locale;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Dispatcher of commands by their verbs.
+ *
+ * <p>The comment is parsed into a {@link Command} once, and the words
+ * of all verbs are looked up in it together. Verbs found are tried in
+ * the order they were given: only the question of a verb found is
+ * consulted, together with its guards. When that question returns
+ * {@link Req#EMPTY} the next verb found is tried, exactly like
+ * {@link Question.FirstOf} over a list of {@link QnIfContains} would
+ * do. A comment without any known verb is rejected without touching
+ * any question, and so without any calls to Github.
+ *
+ * <p>Words of verbs must be letters only, since the {@link Command}
+ * has only runs of letters. A word is found anywhere inside a word
+ * of the comment, just like {@link QnIfContains} finds it.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "verbs")
+public final class QnDispatch implements Question {
+
+    /**
+     * Verbs, in order of priority.
+     */
+    private final transient Array<QnDispatch.Verb> verbs;
+
+    /**
+     * Words of all verbs.
+     */
+    private final transient ArraySet<String> known;
+
+    /**
+     * Ctor.
+     * @param list Verbs, in order of priority
+     */
+    public QnDispatch(final QnDispatch.Verb... list) {
+        this.verbs = new Array<>(list);
+        final Collection<String> all = new LinkedList<>();
+        for (final QnDispatch.Verb verb : list) {
+            all.addAll(verb.words);
+        }
+        this.known = new ArraySet<>(all);
+    }
+
+    @Override
+    public Req understand(final Comment.Smart comment,
+        final URI home) throws IOException {
+        final ArraySet<String> found = Command.of(comment.body())
+            .find(this.known);
+        Req req = Req.EMPTY;
+        for (final QnDispatch.Verb verb : this.verbs) {
+            if (verb.matches(found)) {
+                req = verb.question().understand(comment, home);
+                if (!req.equals(Req.EMPTY)) {
+                    break;
+                }
+            }
+        }
+        if (found.isEmpty()) {
+            Logger.info(
+                this, "no known command in comment #%d in %s#%d",
+                comment.number(), comment.issue().repo().coordinates(),
+                comment.issue().number()
+            );
+        }
+        return req;
+    }
+
+    /**
+     * All words this dispatcher understands.
+     * @return Words, lower-cased
+     */
+    public Iterable<String> words() {
+        return this.known;
+    }
+
+    /**
+     * Verb and its question.
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode(of = { "words", "origin" })
+    public static final class Verb {
+        /**
+         * Words to look for, any of them.
+         */
+        private final transient Array<String> words;
+        /**
+         * Question to ask when the verb is found.
+         */
+        private final transient Question origin;
+        /**
+         * Ctor.
+         * @param word Word to look for
+         * @param qtn Question to ask
+         */
+        public Verb(final String word, final Question qtn) {
+            this(new Array<>(word), qtn);
+        }
+        /**
+         * Ctor.
+         * @param list Words to look for, any of them
+         * @param qtn Question to ask
+         */
+        public Verb(final Iterable<String> list, final Question qtn) {
+            final Collection<String> lower = new LinkedList<>();
+            for (final String word : list) {
+                if (!word.matches("[a-zA-Z]+")) {
+                    throw new IllegalArgumentException(
+                        String.format("verb \"%s\" is not a word", word)
+                    );
+                }
+                lower.add(word.toLowerCase(Locale.ENGLISH));
+            }
+            this.words = new Array<>(lower);
+            this.origin = qtn;
+        }
+        /**
+         * Is it among the words found?
+         * @param found Words found in the comment
+         * @return TRUE if any of its words is there
+         */
+        public boolean matches(final Collection<String> found) {
+            boolean match = false;
+            for (final String word : this.words) {
+                if (found.contains(word)) {
+                    match = true;
+                    break;
+                }
+            }
+            return match;
+        }
+        /**
+         * The question.
+         * @return Question
+         */
+        public Question question() {
+            return this.origin;
+        }
+    }
+
+}
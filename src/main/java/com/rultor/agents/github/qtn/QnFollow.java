@@ -33,6 +33,8 @@ import com.jcabi.aspects.Immutable;
 import com.jcabi.github.Comment;
 import com.jcabi.http.Request;
 import com.jcabi.http.response.RestResponse;
+import com.rultor.agents.github.Budget;
+import com.rultor.agents.github.Ledger;
 import com.rultor.agents.github.Question;
 import com.rultor.agents.github.Req;
 import java.io.IOException;
@@ -69,14 +71,19 @@ public final class QnFollow implements Question {
     @Override
     public Req understand(final Comment.Smart comment,
         final URI home) throws IOException {
-        comment.issue().repo().github().entry().uri()
-            .path("/user/following")
-            .path(comment.author().login())
-            .back()
-            .method(Request.PUT)
-            .fetch()
-            .as(RestResponse.class)
-            .assertStatus(HttpURLConnection.HTTP_NO_CONTENT);
+        final String login = comment.author().login();
+        if (!Ledger.FOLLOWS.contains(login)
+            && Budget.GITHUB.allows(Budget.LOWEST)) {
+            comment.issue().repo().github().entry().uri()
+                .path("/user/following")
+                .path(login)
+                .back()
+                .method(Request.PUT)
+                .fetch()
+                .as(RestResponse.class)
+                .assertStatus(HttpURLConnection.HTTP_NO_CONTENT);
+            Ledger.FOLLOWS.add(login);
+        }
         return this.origin.understand(comment, home);
     }
 
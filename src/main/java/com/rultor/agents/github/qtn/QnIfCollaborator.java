@@ -33,11 +33,11 @@ import com.jcabi.aspects.Immutable;
 import com.jcabi.github.Comment;
 import com.jcabi.github.Repo;
 import com.rultor.agents.github.Answer;
+import com.rultor.agents.github.Metadata;
 import com.rultor.agents.github.Question;
 import com.rultor.agents.github.Req;
 import java.io.IOException;
 import java.net.URI;
-import java.util.Collection;
 import java.util.ResourceBundle;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -78,9 +78,9 @@ public final class QnIfCollaborator implements Question {
         final URI home) throws IOException {
         final Req req;
         final Repo repo = comment.issue().repo();
-        final String self = repo.github().users().self().login();
-        final Collection<String> crew = new Crew(repo).names();
-        if (crew.isEmpty() || crew.contains(self)) {
+        final String self = new Metadata(repo.github()).self();
+        final Crew crew = new Crew(repo);
+        if (crew.names().isEmpty() || crew.contains(self)) {
             req = this.origin.understand(comment, home);
         } else {
             new Answer(comment).post(
@@ -35,9 +35,9 @@ import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.github.Comment;
 import com.jcabi.github.Contents;
-import com.jcabi.github.Issue;
 import com.jcabi.github.Pull;
 import com.rultor.agents.github.Answer;
+import com.rultor.agents.github.Gateway;
 import com.rultor.agents.github.Question;
 import com.rultor.agents.github.Req;
 import java.io.IOException;
@@ -92,8 +92,7 @@ public final class QnIfUnlocked implements Question {
     public Req understand(final Comment.Smart comment,
         final URI home) throws IOException {
         final Req req;
-        final Issue issue = comment.issue();
-        final Pull pull = issue.repo().pulls().get(issue.number());
+        final Pull pull = Gateway.pull(comment.issue());
         final JsonObject base = pull.json().getJsonObject("base");
         final String branch = base.getString("ref");
         final Collection<String> guards = QnIfUnlocked.guards(pull, branch);
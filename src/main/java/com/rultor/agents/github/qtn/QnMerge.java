@@ -37,6 +37,7 @@ import com.jcabi.github.Pull;
 import com.jcabi.github.PullRef;
 import com.jcabi.log.Logger;
 import com.rultor.agents.github.Answer;
+import com.rultor.agents.github.Gateway;
 import com.rultor.agents.github.Question;
 import com.rultor.agents.github.Req;
 import java.io.IOException;
@@ -81,10 +82,7 @@ public final class QnMerge implements Question {
                 this, "merge request found in %s#%d, comment #%d",
                 issue.repo().coordinates(), issue.number(), comment.number()
             );
-            req = QnMerge.pack(
-                comment,
-                issue.repo().pulls().get(issue.number())
-            );
+            req = QnMerge.pack(comment, Gateway.pull(comment.issue()));
         } else {
             new Answer(comment).post(
                 false,
@@ -31,6 +31,7 @@ package com.rultor.agents.github.qtn;
 
 import com.jcabi.aspects.Immutable;
 import com.jcabi.github.Comment;
+import com.rultor.agents.github.Metadata;
 import com.rultor.agents.github.Question;
 import com.rultor.agents.github.Req;
 import java.io.IOException;
@@ -67,8 +68,9 @@ public final class QnNotSelf implements Question {
     public Req understand(final Comment.Smart comment,
         final URI home) throws IOException {
         final Req req;
-        final String self = comment.issue().repo()
-            .github().users().self().login();
+        final String self = new Metadata(
+            comment.issue().repo().github()
+        ).self();
         if (self.equals(comment.author().login())) {
             req = Req.EMPTY;
         } else {
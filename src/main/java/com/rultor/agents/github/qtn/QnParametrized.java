@@ -29,7 +29,6 @@
  */
 package com.rultor.agents.github.qtn;
 
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.github.Comment;
@@ -38,8 +37,6 @@ import com.rultor.agents.github.Req;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.xembly.Directive;
@@ -48,6 +45,9 @@ import org.xembly.Directives;
 /**
  * Parametrized question.
  *
+ * <p>Parameters are taken from the {@link Command} of the comment, which
+ * is parsed once and shared with {@link QnDispatch}.
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 1.3.6
@@ -57,14 +57,6 @@ import org.xembly.Directives;
 @EqualsAndHashCode(of = "origin")
 public final class QnParametrized implements Question {
 
-    /**
-     * Pattern to find.
-     */
-    private static final Pattern PTN = Pattern.compile(
-        "([a-zA-Z_]+)\\s*(?::|=|is)\\s*`([^`]+)`",
-        Pattern.DOTALL | Pattern.MULTILINE
-    );
-
     /**
      * Original question.
      */
@@ -81,7 +73,7 @@ public final class QnParametrized implements Question {
     @Override
     public Req understand(final Comment.Smart comment, final URI home)
         throws IOException {
-        final Map<String, String> map = QnParametrized.params(comment);
+        final Map<String, String> map = Command.of(comment.body()).params();
         Req req = this.origin.understand(comment, home);
         if (!Iterables.isEmpty(req.dirs())) {
             final Directives dirs = new Directives().append(req.dirs());
@@ -106,21 +98,4 @@ public final class QnParametrized implements Question {
         return req;
     }
 
-    /**
-     * Fetch params from comment.
-     * @param comment The comment
-     * @return Map of params
-     * @throws IOException If fails
-     */
-    private static Map<String, String> params(final Comment.Smart comment)
-        throws IOException {
-        final ImmutableMap.Builder<String, String> map =
-            new ImmutableMap.Builder<>();
-        final Matcher matcher = QnParametrized.PTN.matcher(comment.body());
-        while (matcher.find()) {
-            map.put(matcher.group(1), matcher.group(2));
-        }
-        return map.build();
-    }
-
 }
@@ -0,0 +1,308 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github.qtn;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Comment;
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.rultor.agents.github.Answer;
+import com.rultor.agents.github.Question;
+import com.rultor.agents.github.Req;
+import com.rultor.spi.Profile;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Question that is understood only within rate limits.
+ *
+ * <p>Every repository and every author in it have a token bucket,
+ * which holds as many commands as they are allowed to send per hour
+ * and is refilled at the same pace. Limits are configured in
+ * {@code .rultor.yml}:</p>
+ *
+ * <pre> limits:
+ *   repo: 30
+ *   author: 10</pre>
+ *
+ * <p>A command that doesn't fit is ignored. Only the first of them
+ * gets a reply, until the bucket has tokens again, so a loop of
+ * comments doesn't turn into a loop of replies.</p>
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = { "profile", "origin" })
+public final class QnRateLimited implements Question {
+
+    /**
+     * Message bundle.
+     */
+    private static final ResourceBundle PHRASES =
+        ResourceBundle.getBundle("phrases");
+
+    /**
+     * Commands per hour in a repository, by default.
+     */
+    private static final int REPO = 30;
+
+    /**
+     * Commands per hour from an author in a repository, by default.
+     */
+    private static final int AUTHOR = 10;
+
+    /**
+     * Buckets, by repository or author, and limit.
+     */
+    private static final Cache<String, QnRateLimited.Bucket> BUCKETS =
+        CacheBuilder.newBuilder()
+            .expireAfterAccess(1L, TimeUnit.HOURS)
+            .maximumSize((long) Tv.TEN * Tv.THOUSAND)
+            .build();
+
+    /**
+     * Profile.
+     */
+    private final transient Profile profile;
+
+    /**
+     * Original question.
+     */
+    private final transient Question origin;
+
+    /**
+     * Ctor.
+     * @param prof Profile
+     * @param qtn Original question
+     */
+    public QnRateLimited(final Profile prof, final Question qtn) {
+        this.profile = prof;
+        this.origin = qtn;
+    }
+
+    @Override
+    public Req understand(final Comment.Smart comment,
+        final URI home) throws IOException {
+        final String repo = comment.issue().repo().coordinates().toString();
+        final String author = comment.author().login();
+        final XML xml = this.profile.read();
+        final QnRateLimited.Bucket[] buckets = {
+            QnRateLimited.bucket(
+                repo, QnRateLimited.limit(xml, "repo", QnRateLimited.REPO)
+            ),
+            QnRateLimited.bucket(
+                String.format("%s@%s", author, repo),
+                QnRateLimited.limit(xml, "author", QnRateLimited.AUTHOR)
+            ),
+        };
+        final Req req;
+        if (QnRateLimited.take(buckets)) {
+            req = this.origin.understand(comment, home);
+        } else {
+            final long wait = Math.max(
+                buckets[0].await(), buckets[1].await()
+            );
+            if (buckets[0].warn() | buckets[1].warn()) {
+                new Answer(comment).post(
+                    false,
+                    QnRateLimited.PHRASES.getString("QnRateLimited.throttled"),
+                    Logger.format("%[ms]s", wait)
+                );
+            }
+            Logger.info(
+                this, "command #%d from @%s in %s throttled for %[ms]s",
+                comment.number(), author, repo, wait
+            );
+            req = Req.EMPTY;
+        }
+        return req;
+    }
+
+    /**
+     * Take a token from all buckets, if all of them have it.
+     * @param buckets Buckets
+     * @return TRUE if taken
+     */
+    private static boolean take(final QnRateLimited.Bucket... buckets) {
+        synchronized (QnRateLimited.BUCKETS) {
+            boolean full = true;
+            for (final QnRateLimited.Bucket bucket : buckets) {
+                full &= bucket.await() == 0L;
+            }
+            if (full) {
+                for (final QnRateLimited.Bucket bucket : buckets) {
+                    bucket.take();
+                }
+            }
+            return full;
+        }
+    }
+
+    /**
+     * Get the bucket.
+     * @param name Name of repository or author
+     * @param limit Commands per hour
+     * @return Bucket
+     */
+    private static QnRateLimited.Bucket bucket(final String name,
+        final int limit) {
+        try {
+            return QnRateLimited.BUCKETS.get(
+                String.format("%s:%d", name, limit),
+                new Callable<QnRateLimited.Bucket>() {
+                    @Override
+                    public QnRateLimited.Bucket call() {
+                        return new QnRateLimited.Bucket(limit);
+                    }
+                }
+            );
+        } catch (final ExecutionException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Limit from the profile.
+     * @param xml Profile
+     * @param key Name of the limit
+     * @param def Default
+     * @return Commands per hour
+     */
+    private static int limit(final XML xml, final String key,
+        final int def) {
+        final List<String> items = xml.xpath(
+            String.format(
+                "/p/entry[@key='limits']/entry[@key='%s']/text()", key
+            )
+        );
+        int limit = def;
+        if (!items.isEmpty() && items.get(0).trim().matches("[0-9]+")) {
+            limit = Math.max(1, Integer.parseInt(items.get(0).trim()));
+        }
+        return limit;
+    }
+
+    /**
+     * Token bucket, refilled at a constant pace.
+     *
+     * <p>The class is thread-safe.
+     */
+    private static final class Bucket {
+        /**
+         * Tokens per hour, which is also the capacity.
+         */
+        private final transient int capacity;
+        /**
+         * Tokens left.
+         */
+        private transient double tokens;
+        /**
+         * When tokens were counted, in msec.
+         */
+        private transient long counted;
+        /**
+         * Throttled reply was sent already.
+         */
+        private transient boolean warned;
+        /**
+         * Ctor.
+         * @param limit Tokens per hour
+         */
+        Bucket(final int limit) {
+            this.capacity = limit;
+            this.tokens = (double) limit;
+            this.counted = System.currentTimeMillis();
+        }
+        /**
+         * How long to wait for a token.
+         * @return Milliseconds, zero if a token is there
+         */
+        public synchronized long await() {
+            this.refill();
+            long wait = 0L;
+            if (this.tokens < 1.0d) {
+                wait = (long) ((1.0d - this.tokens) * this.pace());
+            }
+            return wait;
+        }
+        /**
+         * Take one token.
+         */
+        public synchronized void take() {
+            this.refill();
+            this.tokens -= 1.0d;
+            this.warned = false;
+        }
+        /**
+         * Should a throttled reply be sent now?
+         * @return TRUE if it's empty and nobody was told yet
+         */
+        public synchronized boolean warn() {
+            final boolean first = this.await() > 0L && !this.warned;
+            if (first) {
+                this.warned = true;
+            }
+            return first;
+        }
+        /**
+         * Add tokens for the time passed.
+         */
+        private void refill() {
+            final long now = System.currentTimeMillis();
+            this.tokens = Math.min(
+                (double) this.capacity,
+                this.tokens + (double) (now - this.counted) / this.pace()
+            );
+            this.counted = now;
+        }
+        /**
+         * Milliseconds per token.
+         * @return Pace
+         */
+        private double pace() {
+            return (double) TimeUnit.HOURS.toMillis(1L)
+                / (double) this.capacity;
+        }
+    }
+
+}
@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.outbox;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.immutable.ArrayMap;
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.rultor.Time;
+import com.rultor.spi.SuperAgent;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.xembly.Directives;
+
+/**
+ * Delivers messages from outboxes of all active talks.
+ *
+ * <p>Every destination has its own couple of threads, so a slow
+ * Twitter doesn't hold up comments in Github. Delivery of all messages
+ * is limited in time; a message that failed or didn't make it stays in
+ * the outbox and is retried later, with exponential backoff, until
+ * it runs out of attempts.</p>
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "couriers")
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class DeliversOutbox implements SuperAgent {
+
+    /**
+     * Threads per destination.
+     */
+    private static final int THREADS = 4;
+
+    /**
+     * Attempts to deliver a message, before it is dropped.
+     */
+    private static final int ATTEMPTS = 8;
+
+    /**
+     * Couriers, by destination.
+     */
+    private final transient ArrayMap<String, Courier> couriers;
+
+    /**
+     * Ctor.
+     * @param map Couriers, by destination
+     */
+    public DeliversOutbox(final Map<String, Courier> map) {
+        this.couriers = new ArrayMap<>(map);
+    }
+
+    @Override
+    public void execute(final Talks talks) throws IOException {
+        final Map<String, ExecutorService> pools = new HashMap<>(0);
+        for (final String dest : this.couriers.keySet()) {
+            pools.put(
+                dest, Executors.newFixedThreadPool(DeliversOutbox.THREADS)
+            );
+        }
+        final Collection<DeliversOutbox.Delivery> all = new LinkedList<>();
+        try {
+            for (final Talk talk : talks.active()) {
+                all.addAll(this.submit(talk, pools));
+            }
+            final long deadline = System.currentTimeMillis()
+                + TimeUnit.SECONDS.toMillis((long) Tv.THIRTY);
+            for (final DeliversOutbox.Delivery delivery : all) {
+                delivery.await(deadline);
+            }
+        } finally {
+            for (final ExecutorService pool : pools.values()) {
+                pool.shutdownNow();
+            }
+        }
+        if (!all.isEmpty()) {
+            Logger.info(this, "%d message(s) processed", all.size());
+        }
+    }
+
+    /**
+     * Submit due messages of the talk.
+     * @param talk The talk
+     * @param pools Thread pools, by destination
+     * @return Deliveries
+     * @throws IOException If fails
+     */
+    private Collection<DeliversOutbox.Delivery> submit(final Talk talk,
+        final Map<String, ExecutorService> pools) throws IOException {
+        final XML xml = talk.read();
+        final long now = System.currentTimeMillis();
+        final Collection<DeliversOutbox.Delivery> list = new LinkedList<>();
+        for (final XML msg : xml.nodes("/talk/outbox/message")) {
+            final String dest = msg.xpath("@to").get(0);
+            final String id = msg.xpath("@id").get(0);
+            if (!this.couriers.containsKey(dest)) {
+                Logger.error(
+                    this, "no courier for %s, message %s dropped",
+                    dest, id
+                );
+                talk.modify(DeliversOutbox.remove(id));
+            } else if (new Time(msg.xpath("after/text()").get(0)).msec()
+                <= now) {
+                final Courier courier = this.couriers.get(dest);
+                list.add(
+                    new DeliversOutbox.Delivery(
+                        talk, msg,
+                        pools.get(dest).submit(
+                            new Callable<Void>() {
+                                @Override
+                                public Void call() throws IOException {
+                                    courier.deliver(xml, msg);
+                                    return null;
+                                }
+                            }
+                        )
+                    )
+                );
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Remove the message.
+     * @param id ID of the message
+     * @return Directives
+     */
+    private static Directives remove(final String id) {
+        return new Directives().xpath(
+            String.format("/talk/outbox/message[@id='%s']", id)
+        ).remove();
+    }
+
+    /**
+     * Delivery of one message.
+     */
+    private static final class Delivery {
+        /**
+         * Talk.
+         */
+        private final transient Talk talk;
+        /**
+         * Message.
+         */
+        private final transient XML msg;
+        /**
+         * Future result.
+         */
+        private final transient Future<Void> future;
+        /**
+         * Ctor.
+         * @param tlk Talk
+         * @param message Message
+         * @param ftr Future
+         */
+        Delivery(final Talk tlk, final XML message, final Future<Void> ftr) {
+            this.talk = tlk;
+            this.msg = message;
+            this.future = ftr;
+        }
+        /**
+         * Wait for the result and record it in the talk.
+         * @param deadline When to stop waiting, in msec
+         * @throws IOException If fails
+         */
+        public void await(final long deadline) throws IOException {
+            final String id = this.msg.xpath("@id").get(0);
+            final int attempts = Integer.parseInt(
+                this.msg.xpath("attempts/text()").get(0)
+            ) + 1;
+            String error = "";
+            try {
+                this.future.get(
+                    Math.max(0L, deadline - System.currentTimeMillis()),
+                    TimeUnit.MILLISECONDS
+                );
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                error = ex.toString();
+            } catch (final ExecutionException ex) {
+                error = ex.getCause().toString();
+            } catch (final TimeoutException ex) {
+                this.future.cancel(true);
+                error = "timeout";
+            }
+            if (error.isEmpty()) {
+                this.talk.modify(DeliversOutbox.remove(id));
+                Logger.info(this, "message %s delivered", id);
+            } else if (attempts >= DeliversOutbox.ATTEMPTS) {
+                this.talk.modify(DeliversOutbox.remove(id));
+                Logger.error(
+                    this, "message %s dropped after %d attempts: %s",
+                    id, attempts, error
+                );
+            } else {
+                this.talk.modify(
+                    new Directives()
+                        .xpath(
+                            String.format(
+                                "/talk/outbox/message[@id='%s']", id
+                            )
+                        )
+                        .xpath("attempts").set(Integer.toString(attempts))
+                        .up().xpath("after").set(
+                            new Time(
+                                System.currentTimeMillis()
+                                + TimeUnit.MINUTES.toMillis(1L << attempts)
+                            ).iso()
+                        )
+                );
+                Logger.warn(
+                    this, "message %s failed, attempt #%d: %s",
+                    id, attempts, error
+                );
+            }
+        }
+    }
+
+}
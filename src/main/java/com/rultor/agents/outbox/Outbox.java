@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.outbox;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.immutable.ArrayMap;
+import com.rultor.Time;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+
+/**
+ * Outbox of a talk.
+ *
+ * <p>Agents put messages here instead of sending them right away,
+ * and {@link DeliversOutbox} delivers them later. The ID of a message
+ * is its deduplication key: a message is not added when the outbox
+ * already has one with the same ID.</p>
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "dest")
+public final class Outbox {
+
+    /**
+     * Destination of messages.
+     */
+    private final transient String dest;
+
+    /**
+     * Ctor.
+     * @param to Destination of messages, like "github" or "twitter"
+     */
+    public Outbox(final String to) {
+        this.dest = to;
+    }
+
+    /**
+     * Put a message into the outbox.
+     * @param id Unique ID of the message
+     * @param text Text to deliver
+     * @return Directives
+     */
+    public Directives put(final String id, final String text) {
+        return this.put(id, text, new ArrayMap<String, String>());
+    }
+
+    /**
+     * Put a message into the outbox.
+     * @param id Unique ID of the message
+     * @param text Text to deliver
+     * @param args Arguments for the courier
+     * @return Directives
+     */
+    public Directives put(final String id, final String text,
+        final Map<String, String> args) {
+        final Directives dirs = new Directives()
+            .xpath("/talk").addIf("outbox")
+            .xpath(
+                String.format(
+                    "/talk/outbox[not(message[@id='%s'])]", id
+                )
+            )
+            .add("message")
+            .attr("id", id)
+            .attr("to", this.dest)
+            .add("text").set(Xembler.escape(text)).up()
+            .add("attempts").set("0").up()
+            .add("after").set(new Time().iso()).up()
+            .add("args");
+        for (final Map.Entry<String, String> arg : args.entrySet()) {
+            dirs.add("arg")
+                .attr("name", arg.getKey())
+                .set(arg.getValue())
+                .up();
+        }
+        return dirs;
+    }
+
+}
@@ -32,11 +32,12 @@ package com.rultor.agents.req;
 import com.google.common.base.Joiner;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.ssh.SSH;
-import com.jcabi.xml.XML;
+import com.rultor.spi.Config;
 import com.rultor.spi.Profile;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.Map;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -98,8 +99,7 @@ final class Decrypt {
      * @throws IOException If fails
      */
     public Iterable<String> commands() throws IOException {
-        final Collection<XML> assets =
-            this.profile.read().nodes("/p/entry[@key='decrypt']/entry");
+        final Map<String, String> assets = Config.of(this.profile).decrypt();
         final Collection<String> commands = new LinkedList<String>();
         if (!assets.isEmpty()) {
             commands.add("gpgconf --reload gpg-agent");
@@ -112,8 +112,8 @@ final class Decrypt {
             );
             commands.add("gpg --version");
         }
-        for (final XML asset : assets) {
-            final String key = asset.xpath("@key").get(0);
+        for (final Map.Entry<String, String> asset : assets.entrySet()) {
+            final String key = asset.getKey();
             final String enc = String.format("%s.enc", key);
             commands.add(
                 Joiner.on(' ').join(
@@ -121,7 +121,7 @@ final class Decrypt {
                     "\"--secret-keyring=$(pwd)/.gpg/secring.gpg\"",
                     String.format(
                         "--decrypt %s > %s",
-                        SSH.escape(asset.xpath("./text()").get(0)),
+                        SSH.escape(asset.getValue()),
                         SSH.escape(enc)
                     )
                 )
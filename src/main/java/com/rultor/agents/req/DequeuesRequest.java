@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.req;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.rultor.agents.AbstractAgent;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Takes the next request from the queue, when the current one is gone.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(callSuper = false)
+public final class DequeuesRequest extends AbstractAgent {
+
+    /**
+     * Ctor.
+     */
+    public DequeuesRequest() {
+        super("/talk[not(request) and queue/request]");
+    }
+
+    @Override
+    public Iterable<Directive> process(final XML xml) {
+        final XML req = xml.nodes("/talk/queue/request").get(0);
+        final Directives dirs = new Directives().xpath("/talk")
+            .add("request")
+            .attr("id", req.xpath("@id").get(0))
+            .add("type").set(req.xpath("type/text()").get(0)).up()
+            .add("args");
+        for (final XML arg : req.nodes("args/arg")) {
+            dirs.add("arg")
+                .attr("name", arg.xpath("@name").get(0))
+                .set(StringUtils.join(arg.xpath("text()"), ""))
+                .up();
+        }
+        Logger.info(
+            this, "request #%s taken from the queue of %s, %d left",
+            req.xpath("@id").get(0), xml.xpath("/talk/@name").get(0),
+            xml.nodes("/talk/queue/request").size() - 1
+        );
+        return dirs.xpath("/talk/queue/request[1]").strict(1).remove()
+            .xpath("/talk/queue[not(request)]").remove();
+    }
+
+}
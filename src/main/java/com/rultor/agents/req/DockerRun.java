@@ -37,14 +37,15 @@ import com.google.common.collect.Lists;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.ssh.SSH;
 import com.jcabi.xml.XML;
-import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Config;
 import com.rultor.spi.Profile;
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
@@ -63,6 +64,12 @@ import org.apache.commons.lang3.StringUtils;
 @SuppressWarnings("PMD.TooManyMethods")
 final class DockerRun {
 
+    /**
+     * XPath of a top level section.
+     */
+    private static final Pattern SECTION =
+        Pattern.compile("/p/entry\\[@key='([^']+)'\\]");
+
     /**
      * Profile.
      */
@@ -89,26 +96,23 @@ final class DockerRun {
      * @throws IOException If fails
      */
     public String script() throws IOException {
+        final Config config = Config.of(this.profile);
         final Iterable<String> uninstall;
-        if (this.profile.read().nodes("/p/entry[@key='uninstall']").isEmpty()) {
-            uninstall = Collections.emptyList();
-        } else {
+        if (config.cleanup()) {
             uninstall = Iterables.concat(
                 Lists.newArrayList("function", "clean_up()", "{"),
-                DockerRun.scripts(
-                    this.profile.read(), "/p/entry[@key='uninstall']"
-                ),
+                DockerRun.scripts(config.uninstall()),
                 Lists.newArrayList("}", ";"),
                 Lists.newArrayList("trap", "clean_up", "EXIT", ";")
             );
+        } else {
+            uninstall = Collections.emptyList();
         }
         return DockerRun.enlist(
             Iterables.concat(
                 uninstall,
-                DockerRun.scripts(
-                    this.profile.read(), "/p/entry[@key='install']"
-                ),
-                DockerRun.scripts(this.node(), "entry[@key='script']")
+                DockerRun.scripts(config.install()),
+                DockerRun.scripts(this.section().script())
             )
         );
     }
@@ -122,8 +126,8 @@ final class DockerRun {
     public String envs(final Map<String, String> extra) throws IOException {
         return DockerRun.enlist(
             Iterables.concat(
-                DockerRun.envs(this.profile.read(), "/p/entry[@key='env']"),
-                DockerRun.envs(this.node(), "entry[@key='env']"),
+                DockerRun.envs(Config.of(this.profile).env()),
+                DockerRun.envs(this.section().env()),
                 Collections2.transform(
                     extra.entrySet(),
                     new Function<Map.Entry<String, String>, String>() {
@@ -141,19 +145,24 @@ final class DockerRun {
     }
 
     /**
-     * Get xpath.
-     * @return XML
+     * Get section of the profile.
+     * @return Section
      * @throws IOException If fails
      */
-    private XML node() throws IOException {
-        final XML node;
-        final Collection<XML> nodes = this.profile.read().nodes(this.xpath);
-        if (nodes.isEmpty()) {
-            node = new XMLDocument("<x/>");
+    private Config.Section section() throws IOException {
+        final Matcher matcher = DockerRun.SECTION.matcher(this.xpath);
+        final Config.Section section;
+        if (matcher.matches()) {
+            section = Config.of(this.profile).section(matcher.group(1));
         } else {
-            node = nodes.iterator().next();
+            final Collection<XML> nodes = this.profile.read().nodes(this.xpath);
+            if (nodes.isEmpty()) {
+                section = Config.Section.EMPTY;
+            } else {
+                section = new Config.Section(nodes.iterator().next());
+            }
         }
-        return node;
+        return section;
     }
 
     /**
@@ -179,25 +188,13 @@ final class DockerRun {
     }
 
     /**
-     * Get items from XML.
-     * @param xml The XML
-     * @param path The XPath
+     * Make script items.
+     * @param lines Script lines
      * @return Items
      */
-    private static Iterable<String> scripts(final XML xml, final String path) {
-        final Collection<String> items = new LinkedList<String>();
-        if (!xml.nodes(path).isEmpty()) {
-            final XML node = xml.nodes(path).get(0);
-            if (node.nodes("item").isEmpty()) {
-                items.addAll(DockerRun.lines(node));
-            } else {
-                for (final String cmd : node.xpath("item/text()")) {
-                    items.add(cmd.trim());
-                }
-            }
-        }
+    private static Iterable<String> scripts(final Iterable<String> lines) {
         final Collection<String> scripts = new LinkedList<String>();
-        for (final String item : items) {
+        for (final String item : lines) {
             scripts.add(neutralize(item));
             scripts.add(";");
         }
@@ -237,69 +234,20 @@ final class DockerRun {
     }
 
     /**
-     * Environments from XML by XPath.
-     * @param xml The XML
-     * @param path The XPath
+     * Make env items for Docker.
+     * @param parts Variables, as {@code NAME=value}
      * @return Items
      */
-    private static Iterable<String> envs(final XML xml, final String path) {
-        final Collection<String> envs = new LinkedList<>();
-        if (!xml.nodes(path).isEmpty()) {
-            final XML node = xml.nodes(path).get(0);
-            final Collection<String> parts;
-            if (node.nodes("item").iterator().hasNext()) {
-                parts = node.xpath("item/text()");
-            } else if (node.nodes("entry").iterator().hasNext()) {
-                parts = new LinkedList<>();
-                for (final XML env : node.nodes("./entry")) {
-                    parts.add(
-                        String.format(
-                            "%s=%s", env.xpath("@key").get(0),
-                            env.xpath("text()").get(0)
-                        )
-                    );
+    private static Iterable<String> envs(final Iterable<String> parts) {
+        return Iterables.transform(
+            parts,
+            new Function<String, String>() {
+                @Override
+                public String apply(final String input) {
+                    return String.format("--env=%s", input);
                 }
-            } else {
-                parts = DockerRun.lines(node);
             }
-            envs.addAll(
-                Collections2.transform(
-                    parts,
-                    new Function<String, String>() {
-                        @Override
-                        public String apply(final String input) {
-                            return String.format("--env=%s", input);
-                        }
-                    }
-                )
-            );
-        }
-        return envs;
-    }
-
-    /**
-     * Get lines from a single XML node.
-     * @param node Node to get text() from
-     * @return Lines found
-     */
-    private static Collection<String> lines(final XML node) {
-        final Collection<String> lines = new LinkedList<String>();
-        if (node.node().hasChildNodes()) {
-            lines.addAll(
-                Collections2.transform(
-                    Arrays.asList(
-                        StringUtils.split(node.xpath("text()").get(0), '\n')
-                    ),
-                    new Function<String, String>() {
-                        @Override
-                        public String apply(final String line) {
-                            return line.trim();
-                        }
-                    }
-                )
-            );
-        }
-        return lines;
+        );
     }
 
 }
@@ -40,10 +40,10 @@ import com.jcabi.log.Logger;
 import com.jcabi.ssh.SSH;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
+import com.rultor.spi.Config;
 import com.rultor.spi.Profile;
 import java.io.IOException;
 import java.util.Collections;
-import java.util.Locale;
 import java.util.Map;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -194,10 +194,7 @@ public final class StartsRequest extends AbstractAgent {
      */
     private String asRoot() throws IOException {
         return String.format(
-            "as_root=%b",
-            !this.profile.read().nodes(
-                "/p/entry[@key='docker']/entry[@key='as_root' and .='true']"
-            ).isEmpty()
+            "as_root=%b", Config.of(this.profile).asRoot()
         );
     }
 
@@ -222,41 +219,14 @@ public final class StartsRequest extends AbstractAgent {
             this.profile, String.format("/p/entry[@key='%s']", type)
         );
         vars.put("vars", docker.envs(vars.build()));
-        final Profile.Defaults def = new Profile.Defaults(this.profile);
-        vars.put(
-            "image",
-            def.text(
-                "/p/entry[@key='docker']/entry[@key='image']",
-                "yegor256/rultor"
-            )
-        );
-        vars.put(
-            "directory",
-            def.text("/p/entry[@key='docker']/entry[@key='directory']")
-        );
+        final Config config = Config.of(this.profile);
+        vars.put("image", config.image());
+        vars.put("directory", config.directory());
         vars.put("scripts", docker.script());
-        if (!this.profile.read().nodes("/p/entry[@key='merge']").isEmpty()) {
-            vars.put(
-                "squash",
-                def.text(
-                    "/p/entry[@key='merge']/entry[@key='squash']",
-                    Boolean.FALSE.toString()
-                ).toLowerCase(Locale.ENGLISH)
-            );
-            vars.put(
-                "ff",
-                def.text(
-                    "/p/entry[@key='merge']/entry[@key='fast-forward']",
-                    "default"
-                ).toLowerCase(Locale.ENGLISH)
-            );
-            vars.put(
-                "rebase",
-                def.text(
-                    "/p/entry[@key='merge']/entry[@key='rebase']",
-                    Boolean.FALSE.toString()
-                ).toLowerCase(Locale.ENGLISH)
-            );
+        if (config.merging()) {
+            vars.put("squash", Boolean.toString(config.squash()));
+            vars.put("ff", config.fastForward());
+            vars.put("rebase", Boolean.toString(config.rebase()));
         }
         return vars.build();
     }
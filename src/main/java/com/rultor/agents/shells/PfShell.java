@@ -30,12 +30,14 @@
 package com.rultor.agents.shells;
 
 import com.jcabi.aspects.Immutable;
+import com.rultor.spi.Config;
 import com.rultor.spi.Profile;
 import java.io.IOException;
 import java.io.InputStream;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
 
 /**
  * Shell in profile.
@@ -98,9 +100,7 @@ final class PfShell {
      * @throws IOException If fails
      */
     public String host() throws IOException {
-        return new Profile.Defaults(this.profile).text(
-            "/p/entry[@key='ssh']/entry[@key='host']", this.addr
-        );
+        return Config.of(this.profile).sshHost(this.addr);
     }
 
     /**
@@ -109,12 +109,7 @@ final class PfShell {
      * @throws IOException If fails
      */
     public int port() throws IOException {
-        return Integer.parseInt(
-            new Profile.Defaults(this.profile).text(
-                "/p/entry[@key='ssh']/entry[@key='port']",
-                Integer.toString(this.prt)
-            )
-        );
+        return Config.of(this.profile).sshPort(this.prt);
     }
 
     /**
@@ -123,9 +118,7 @@ final class PfShell {
      * @throws IOException If fails
      */
     public String login() throws IOException {
-        return new Profile.Defaults(this.profile).text(
-            "/p/entry[@key='ssh']/entry[@key='login']", this.user
-        );
+        return Config.of(this.profile).sshLogin(this.user);
     }
 
     /**
@@ -134,9 +127,7 @@ final class PfShell {
      * @throws IOException If fails
      */
     public String key() throws IOException {
-        final String path = new Profile.Defaults(this.profile).text(
-            "/p/entry[@key='ssh']/entry[@key='key']", ""
-        );
+        final String path = Config.of(this.profile).sshKey();
         final String key;
         if (path.isEmpty()) {
             key = this.pvt;
@@ -148,7 +139,7 @@ final class PfShell {
                 );
             }
             try {
-                key = IOUtils.toString(this.profile.assets().get(path));
+                key = IOUtils.toString(asset, CharEncoding.UTF_8);
             } catch (final IOException ex) {
                 throw new Profile.ConfigException(ex);
             }
@@ -30,10 +30,8 @@
 package com.rultor.agents.shells;
 
 import com.jcabi.aspects.Immutable;
-import com.jcabi.ssh.SSH;
 import com.jcabi.ssh.Shell;
 import com.jcabi.xml.XML;
-import java.net.UnknownHostException;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -65,11 +63,10 @@ public final class TalkShells {
     /**
      * Find and get shell.
      * @return Issue
-     * @throws UnknownHostException If fails
      */
-    public Shell get() throws UnknownHostException {
+    public Shell get() {
         final XML shell = this.xml.nodes("/talk/shell").get(0);
-        return new SSH(
+        return new TimedSSH(
             shell.xpath("host/text()").get(0),
             Integer.parseInt(shell.xpath("port/text()").get(0)),
             shell.xpath("login/text()").get(0),
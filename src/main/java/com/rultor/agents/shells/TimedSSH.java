@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.shells;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.log.Logger;
+import com.jcabi.ssh.Shell;
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.rultor.agents.Deadline;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.lang3.CharEncoding;
+
+/**
+ * SSH shell that respects the {@link Deadline} of the agent.
+ *
+ * <p>Unlike {@link com.jcabi.ssh.SSH}, which waits for the server
+ * forever, it connects with a timeout equal to the time left, gives up
+ * on a silent server when the time is over and stops waiting for
+ * the command as soon as the agent is out of time or interrupted.
+ * Without a deadline it works just like {@link com.jcabi.ssh.SSH}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = { "addr", "port", "login" })
+@EqualsAndHashCode(of = { "addr", "port", "login", "key" })
+public final class TimedSSH implements Shell {
+
+    /**
+     * How often to ping the server, in msec.
+     */
+    private static final int ALIVE = (int) TimeUnit.SECONDS.toMillis(10L);
+
+    /**
+     * Host name.
+     */
+    private final transient String addr;
+
+    /**
+     * Port.
+     */
+    private final transient int port;
+
+    /**
+     * User name.
+     */
+    private final transient String login;
+
+    /**
+     * Private SSH key.
+     */
+    private final transient String key;
+
+    /**
+     * Ctor.
+     * @param host Host name
+     * @param prt Port
+     * @param user User name
+     * @param pvt Private SSH key
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public TimedSSH(final String host, final int prt, final String user,
+        final String pvt) {
+        this.addr = host;
+        this.port = prt;
+        this.login = user;
+        this.key = pvt;
+    }
+
+    @Override
+    public int exec(final String command, final InputStream stdin,
+        final OutputStream stdout, final OutputStream stderr)
+        throws IOException {
+        Deadline.check();
+        final Session session = this.session();
+        try {
+            final ChannelExec channel = ChannelExec.class.cast(
+                session.openChannel("exec")
+            );
+            channel.setErrStream(stderr, false);
+            channel.setOutputStream(stdout, false);
+            channel.setInputStream(stdin, false);
+            channel.setCommand(command);
+            channel.connect(Deadline.timeout());
+            Logger.info(this, "$ %s", command);
+            try {
+                return TimedSSH.code(channel);
+            } finally {
+                channel.disconnect();
+            }
+        } catch (final JSchException ex) {
+            throw new IOException(ex);
+        } finally {
+            session.disconnect();
+        }
+    }
+
+    /**
+     * Open a session.
+     * @return Session
+     * @throws IOException If fails
+     */
+    private Session session() throws IOException {
+        try {
+            JSch.setConfig("StrictHostKeyChecking", "no");
+            final JSch jsch = new JSch();
+            jsch.addIdentity(
+                this.login,
+                this.key.replaceAll("\r", "")
+                    .replaceAll("\n\\s+|\n{2,}", "\n")
+                    .trim()
+                    .getBytes(CharEncoding.UTF_8),
+                null, null
+            );
+            final Session session = jsch.getSession(
+                this.login, this.addr, this.port
+            );
+            final int timeout = Deadline.timeout();
+            session.setServerAliveInterval(TimedSSH.ALIVE);
+            if (timeout == 0) {
+                session.setServerAliveCountMax(Integer.MAX_VALUE);
+            } else {
+                session.setServerAliveCountMax(
+                    Math.max(1, timeout / TimedSSH.ALIVE)
+                );
+            }
+            session.connect(timeout);
+            return session;
+        } catch (final JSchException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Wait for the command to finish and get its exit code.
+     * @param channel Channel
+     * @return Exit code
+     * @throws IOException If fails or out of time
+     */
+    private static int code(final ChannelExec channel) throws IOException {
+        while (!channel.isClosed()) {
+            Deadline.check();
+            try {
+                TimeUnit.SECONDS.sleep(1L);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+        }
+        return channel.getExitStatus();
+    }
+
+}
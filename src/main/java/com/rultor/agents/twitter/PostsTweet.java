@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.twitter;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Github;
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.rultor.agents.github.Budget;
+import com.rultor.agents.github.Metadata;
+import com.rultor.agents.outbox.Courier;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Posts a tweet from the outbox.
+ *
+ * <p>The tweet is composed from the metadata of the repo, which
+ * costs a call to Github. When the Github budget is low, the delivery
+ * fails and the outbox retries it later, with a backoff that outlasts
+ * the reset of the quota. Nothing is posted about private repos.</p>
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = { "twitter", "github" })
+public final class PostsTweet implements Courier {
+
+    /**
+     * Twitter.
+     */
+    private final transient Twitter twitter;
+
+    /**
+     * Github.
+     */
+    private final transient Github github;
+
+    /**
+     * Ctor.
+     * @param twt Twitter client
+     * @param ghub Github client
+     */
+    public PostsTweet(final Twitter twt, final Github ghub) {
+        this.twitter = twt;
+        this.github = ghub;
+    }
+
+    @Override
+    public void deliver(final XML talk, final XML message)
+        throws IOException {
+        if (!Budget.GITHUB.allows(Budget.LOW)) {
+            throw new IOException(
+                String.format(
+                    "tweet deferred, Github budget is low: %s", Budget.GITHUB
+                )
+            );
+        }
+        final Coordinates coords = new Coordinates.Simple(
+            message.xpath("args/arg[@name='repo']/text()").get(0)
+        );
+        final Metadata.Info repo = new Metadata(this.github).repo(coords);
+        if (repo.isPrivate()) {
+            Logger.info(this, "no tweet, %s is private", coords);
+        } else {
+            this.twitter.post(
+                PostsTweet.tweet(
+                    coords, repo,
+                    message.xpath("args/arg[@name='tag']/text()").get(0)
+                )
+            );
+        }
+    }
+
+    /**
+     * Create a tweet to post.
+     * @param coords Coordinates of the repo
+     * @param repo Metadata of the repo
+     * @param tag The tag
+     * @return Tweet text
+     */
+    @SuppressWarnings("PMD.InsufficientStringBufferDeclaration")
+    private static String tweet(final Coordinates coords,
+        final Metadata.Info repo, final String tag) {
+        final StringBuilder text = new StringBuilder(2 * Tv.HUNDRED);
+        if (repo.description().isEmpty()) {
+            text.append(coords.repo());
+        } else {
+            text.append(
+                StringUtils.substring(
+                    repo.description(),
+                    0, Tv.HUNDRED
+                )
+            );
+        }
+        text.append(", ").append(tag)
+            .append(" released https://github.com/")
+            .append(coords);
+        for (final String lang : repo.languages()) {
+            text.append(String.format(" #%s", lang));
+        }
+        return text.toString();
+    }
+
+}
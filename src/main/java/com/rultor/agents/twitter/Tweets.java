@@ -30,105 +30,74 @@
 package com.rultor.agents.twitter;
 
 import com.jcabi.aspects.Immutable;
-import com.jcabi.aspects.Tv;
-import com.jcabi.github.Github;
-import com.jcabi.github.Issue;
-import com.jcabi.github.Language;
-import com.jcabi.github.Repo;
+import com.jcabi.immutable.Array;
+import com.jcabi.immutable.ArrayMap;
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import com.rultor.agents.AbstractAgent;
-import com.rultor.agents.github.TalkIssues;
+import com.rultor.agents.Footprint;
+import com.rultor.agents.outbox.Outbox;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.apache.commons.lang3.StringUtils;
 import org.xembly.Directive;
-import org.xembly.Directives;
 
 /**
  * Tweets.
  *
+ * <p>The tweet is put into the outbox and composed and posted later
+ * by {@link PostsTweet}, which needs Github to do so and waits while
+ * the Github budget is low.</p>
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 1.30
  */
 @Immutable
 @ToString
-@EqualsAndHashCode(callSuper = false, of = { "github", "twitter" })
-public final class Tweets extends AbstractAgent {
-
-    /**
-     * Github.
-     */
-    private final transient Github github;
-
-    /**
-     * Twitter.
-     */
-    private final transient Twitter twitter;
+@EqualsAndHashCode(callSuper = false)
+public final class Tweets extends AbstractAgent implements Footprint {
 
     /**
      * Ctor.
-     * @param ghub Github client
-     * @param twt Twitter client
      */
-    public Tweets(final Github ghub, final Twitter twt) {
+    public Tweets() {
         super(
             "/talk/wire[github-repo and github-issue]",
             "/talk/request[@id and type='release' and success='true']"
         );
-        this.github = ghub;
-        this.twitter = twt;
     }
 
     @Override
     public Iterable<Directive> process(final XML xml) throws IOException {
         final XML req = xml.nodes("/talk/request").get(0);
-        final Issue.Smart issue = new TalkIssues(this.github, xml).get();
-        final Repo.Smart repo = new Repo.Smart(issue.repo());
-        if (!repo.isPrivate()) {
-            this.twitter.post(
-                Tweets.tweet(
-                    repo, req.xpath("args/arg[@name='tag']/text()").get(0)
+        final String repo = xml.xpath("/talk/wire/github-repo/text()").get(0);
+        Logger.info(this, "tweet about %s release queued", repo);
+        return new Outbox("twitter").put(
+            String.format("tweet-%s", req.xpath("@id").get(0)),
+            "",
+            new ArrayMap<String, String>()
+                .with("repo", repo)
+                .with(
+                    "tag",
+                    req.xpath("args/arg[@name='tag']/text()").get(0)
                 )
-            );
-            Logger.info(
-                this, "tweet posted about %s release",
-                issue.repo().coordinates()
-            );
-        }
-        return new Directives();
+        );
     }
 
-    /**
-     * Create a tweet to post.
-     * @param repo The repo
-     * @param tag The tag
-     * @return Tweet text
-     * @throws IOException If fails
-     */
-    @SuppressWarnings("PMD.InsufficientStringBufferDeclaration")
-    private static String tweet(final Repo.Smart repo, final String tag)
-        throws IOException {
-        final StringBuilder text = new StringBuilder(2 * Tv.HUNDRED);
-        if (repo.description().isEmpty()) {
-            text.append(repo.coordinates().repo());
-        } else {
-            text.append(
-                StringUtils.substring(
-                    repo.description(),
-                    0, Tv.HUNDRED
-                )
-            );
-        }
-        text.append(", ").append(tag)
-            .append(" released https://github.com/")
-            .append(repo.coordinates());
-        for (final Language lang : repo.languages()) {
-            text.append(String.format(" #%s", lang.name()));
-        }
-        return text.toString();
+    @Override
+    public Iterable<String> reads() {
+        return new Array<>("wire", "request");
+    }
+
+    @Override
+    public Iterable<String> writes() {
+        return new Array<>("outbox");
+    }
+
+    @Override
+    public Iterable<String> services() {
+        return new Array<String>();
     }
 
 }
@@ -42,6 +42,7 @@ import java.util.Date;
 import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.xembly.Directive;
 
 /**
  * Cached talks.
@@ -107,6 +108,13 @@ public final class CdTalks implements Talks {
         this.origin.create(repo, name);
     }
 
+    @Override
+    @Cacheable.FlushBefore
+    public void create(final String repo, final String name,
+        final Iterable<Directive> dirs) throws IOException {
+        this.origin.create(repo, name, dirs);
+    }
+
     @Override
     @Cacheable
     public Iterable<Talk> active() {
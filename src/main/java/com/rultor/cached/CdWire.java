@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.cached;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.rultor.Header;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Wire that revalidates cached GET responses with conditional requests.
+ *
+ * <p>Successful GET responses that carry {@code ETag} or
+ * {@code Last-Modified} are kept in memory. The next GET of the same
+ * URL is sent with {@code If-None-Match} or {@code If-Modified-Since},
+ * and if the server says {@code 304 Not Modified}, the cached response
+ * is returned. Github doesn't count such responses against the rate
+ * limit.
+ *
+ * <p>Use it like this:
+ *
+ * <pre> new RtGithub(
+ *   new RtGithub(token).entry().through(CdWire.class)
+ * );</pre>
+ *
+ * <p>The cache is shared by all instances and is bounded by the total
+ * size of response bodies. The class is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "origin")
+public final class CdWire implements Wire {
+
+    /**
+     * Cached responses, by URL and identity of the requester.
+     */
+    private static final Cache<String, Response> CACHE = CacheBuilder
+        .newBuilder()
+        .maximumWeight((long) Tv.THIRTY * Tv.MILLION)
+        .weigher(
+            new Weigher<String, Response>() {
+                @Override
+                public int weigh(final String key, final Response rsp) {
+                    return key.length() + rsp.binary().length;
+                }
+            }
+        )
+        .build();
+
+    /**
+     * Total number of GET requests seen.
+     */
+    private static final AtomicLong TOTAL = new AtomicLong();
+
+    /**
+     * Number of responses replayed after 304.
+     */
+    private static final AtomicLong REPLAYED = new AtomicLong();
+
+    /**
+     * Original wire.
+     */
+    private final transient Wire origin;
+
+    /**
+     * Public ctor.
+     * @param wire Original wire
+     */
+    public CdWire(final Wire wire) {
+        this.origin = wire;
+    }
+
+    /**
+     * Statistics of all instances, for humans.
+     * @return Text
+     */
+    public static String stats() {
+        final long total = CdWire.TOTAL.get();
+        final long replayed = CdWire.REPLAYED.get();
+        final double rate;
+        if (total == 0L) {
+            rate = 0.0d;
+        } else {
+            rate = (double) replayed * Tv.HUNDRED / (double) total;
+        }
+        return String.format(
+            // @checkstyle LineLength (1 line)
+            "%d GET requests, %d replayed from cache on 304 without counting against the rate limit (%.1f%% hit rate), %d responses cached",
+            total, replayed, rate, CdWire.CACHE.size()
+        );
+    }
+
+    // @checkstyle ParameterNumberCheck (7 lines)
+    @Override
+    public Response send(final Request req, final String home,
+        final String method,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content) throws IOException {
+        final Response response;
+        if ("GET".equals(method)) {
+            response = this.get(req, home, headers, content);
+        } else {
+            response = this.origin.send(req, home, method, headers, content);
+        }
+        return response;
+    }
+
+    /**
+     * Send GET request, conditional if possible.
+     * @param req Request
+     * @param home URI to fetch
+     * @param headers Headers
+     * @param content Content
+     * @return Response
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Response get(final Request req, final String home,
+        final Collection<Map.Entry<String, String>> headers,
+        final InputStream content) throws IOException {
+        CdWire.TOTAL.incrementAndGet();
+        final String key = CdWire.key(home, headers);
+        final Response cached = CdWire.CACHE.getIfPresent(key);
+        final Collection<Map.Entry<String, String>> hdrs =
+            new LinkedList<>(headers);
+        if (cached != null) {
+            final String etag = new Header(cached, "ETag").value();
+            if (!etag.isEmpty()) {
+                hdrs.add(CdWire.entry("If-None-Match", etag));
+            }
+            final String modified = new Header(cached, "Last-Modified").value();
+            if (!modified.isEmpty()) {
+                hdrs.add(CdWire.entry("If-Modified-Since", modified));
+            }
+        }
+        final Response fresh = this.origin.send(
+            req, home, "GET", hdrs, content
+        );
+        final Response response;
+        if (cached != null
+            && fresh.status() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            CdWire.REPLAYED.incrementAndGet();
+            response = cached;
+        } else {
+            if (fresh.status() == HttpURLConnection.HTTP_OK
+                && (!new Header(fresh, "ETag").value().isEmpty()
+                || !new Header(fresh, "Last-Modified").value().isEmpty())) {
+                CdWire.CACHE.put(key, fresh);
+            } else {
+                CdWire.CACHE.invalidate(key);
+            }
+            response = fresh;
+        }
+        return response;
+    }
+
+    /**
+     * Make a cache key: URL, hashed credentials and accepted type.
+     * @param home URL
+     * @param headers Request headers
+     * @return Key
+     */
+    private static String key(final String home,
+        final Collection<Map.Entry<String, String>> headers) {
+        final StringBuilder key = new StringBuilder(home);
+        for (final Map.Entry<String, String> hdr : headers) {
+            final String name = hdr.getKey().toLowerCase(Locale.ENGLISH);
+            if ("authorization".equals(name) || "accept".equals(name)) {
+                key.append('\n').append(name)
+                    .append(':').append(DigestUtils.md5Hex(hdr.getValue()));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Make header entry.
+     * @param name Name
+     * @param value Value
+     * @return Entry
+     */
+    private static Map.Entry<String, String> entry(final String name,
+        final String value) {
+        return new AbstractMap.SimpleImmutableEntry<>(name, value);
+    }
+
+}
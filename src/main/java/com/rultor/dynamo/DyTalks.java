@@ -30,9 +30,13 @@
 package com.rultor.dynamo;
 
 import co.stateful.Counter;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
 import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
 import com.amazonaws.services.dynamodbv2.model.Select;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
@@ -45,12 +49,20 @@ import com.jcabi.dynamo.Conditions;
 import com.jcabi.dynamo.Item;
 import com.jcabi.dynamo.QueryValve;
 import com.jcabi.dynamo.Region;
+import com.jcabi.xml.StrictXML;
+import com.jcabi.xml.XMLDocument;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Date;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.w3c.dom.Node;
+import org.xembly.Directive;
+import org.xembly.Directives;
+import org.xembly.ImpossibleModificationException;
+import org.xembly.Xembler;
 
 /**
  * Talks in Dynamo.
@@ -216,19 +228,61 @@ public final class DyTalks implements Talks {
     @Override
     public void create(final String repo, final String name)
         throws IOException {
+        this.create(repo, name, new Directives());
+    }
+
+    @Override
+    public void create(final String repo, final String name,
+        final Iterable<Directive> dirs) throws IOException {
         final long number = this.counter.incrementAndGet(1L);
-        this.region.table(DyTalks.TBL).put(
-            new Attributes()
-                .with(DyTalks.HASH, name)
-                .with(DyTalks.ATTR_ACTIVE, Boolean.toString(true))
-                .with(DyTalks.ATTR_REPO, repo)
-                .with(DyTalks.ATTR_NUMBER, number)
-                .with(DyTalks.ATTR_UPDATED, System.currentTimeMillis())
-                .with(
-                    DyTalks.ATTR_XML,
-                    String.format("<talk name='%s' number='%d'/>", name, number)
-                )
+        String xml = String.format(
+            "<talk name='%s' number='%d'/>", name, number
         );
+        if (!Iterables.isEmpty(dirs)) {
+            final Node node = Talk.UPGRADE.transform(
+                new XMLDocument(xml)
+            ).node();
+            try {
+                new Xembler(dirs).apply(node);
+            } catch (final ImpossibleModificationException ex) {
+                throw new IllegalStateException(
+                    String.format(
+                        "failed to apply %s to new talk \"%s\"",
+                        dirs.toString(), name
+                    ),
+                    ex
+                );
+            }
+            xml = new StrictXML(new XMLDocument(node), Talk.SCHEMA)
+                .toString();
+        }
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            aws.putItem(
+                new PutItemRequest()
+                    .withTableName(this.region.table(DyTalks.TBL).name())
+                    .withItem(
+                        new Attributes()
+                            .with(DyTalks.HASH, name)
+                            .with(DyTalks.ATTR_ACTIVE, Boolean.toString(true))
+                            .with(DyTalks.ATTR_REPO, repo)
+                            .with(DyTalks.ATTR_NUMBER, number)
+                            .with(
+                                DyTalks.ATTR_UPDATED, System.currentTimeMillis()
+                            )
+                            .with(DyTalks.ATTR_XML, xml)
+                    )
+                    .withExpected(
+                        Collections.singletonMap(
+                            DyTalks.HASH, new ExpectedAttributeValue(false)
+                        )
+                    )
+            );
+        } catch (final ConditionalCheckFailedException ex) {
+            throw new Talks.ExistsException(name, ex);
+        } finally {
+            aws.shutdown();
+        }
     }
 
     @Override
@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.profiles;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Content;
+import com.jcabi.github.Contents;
+import com.jcabi.github.Repo;
+import com.jcabi.log.Logger;
+import com.rultor.spi.Profile;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.json.JsonObject;
+import lombok.ToString;
+import org.apache.commons.codec.binary.Base64InputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.AutoCloseInputStream;
+import org.apache.commons.lang3.CharEncoding;
+
+/**
+ * Assets from Github, stored on disk and addressed by their blob SHA.
+ *
+ * <p>The SHA of an asset is checked not more often than once per
+ * lifetime of a head (a minute by default). The check is a GET of
+ * the file, which goes through {@link com.rultor.cached.CdWire}, so
+ * while the file is unchanged Github answers {@code 304 Not Modified}
+ * and sends no content. A blob is decoded and saved only when its SHA
+ * is not on disk yet; then it is streamed from the file, never copied
+ * into memory.
+ *
+ * <p>Assets are usually secrets (SSH keys, settings.xml, GPG keys), so
+ * the files live in a directory that only the owner of the process
+ * can read. A file not used for an hour, or pushed out by the limit
+ * of their total size, is deleted.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "dir")
+final class Assets {
+
+    /**
+     * Maximum total size of blobs kept on disk, in bytes.
+     */
+    private static final long MAX = Tv.HUNDRED * FileUtils.ONE_MB;
+
+    /**
+     * Private directory with blobs.
+     */
+    private final transient String dir;
+
+    /**
+     * Heads: repo, branch and path to blob SHA.
+     */
+    private final transient Cache<List<Object>, String> heads;
+
+    /**
+     * Blob SHA to its file.
+     */
+    private final transient Cache<String, File> files;
+
+    /**
+     * Ctor.
+     */
+    Assets() {
+        this(1L, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Ctor.
+     * @param ttl How long a head is trusted without checking Github
+     * @param unit Time unit of the lifetime
+     */
+    Assets(final long ttl, final TimeUnit unit) {
+        this(Assets.mkdir(), ttl, unit);
+    }
+
+    /**
+     * Ctor.
+     * @param path Directory to keep blobs in, readable by owner only
+     * @param ttl How long a head is trusted without checking Github
+     * @param unit Time unit of the lifetime
+     */
+    Assets(final File path, final long ttl, final TimeUnit unit) {
+        this.dir = path.getAbsolutePath();
+        this.heads = CacheBuilder.newBuilder()
+            .expireAfterWrite(ttl, unit)
+            .maximumSize((long) Tv.TEN * Tv.THOUSAND)
+            .build();
+        this.files = CacheBuilder.newBuilder()
+            .expireAfterAccess(1L, TimeUnit.HOURS)
+            .maximumWeight(Assets.MAX)
+            .weigher(
+                new Weigher<String, File>() {
+                    @Override
+                    public int weigh(final String sha, final File file) {
+                        return (int) file.length();
+                    }
+                }
+            )
+            .removalListener(
+                new RemovalListener<String, File>() {
+                    @Override
+                    public void onRemoval(
+                        final RemovalNotification<String, File> note) {
+                        if (note.wasEvicted()) {
+                            FileUtils.deleteQuietly(note.getValue());
+                        }
+                    }
+                }
+            )
+            .build();
+    }
+
+    /**
+     * Get a stream of the asset (throws
+     * {@link com.rultor.spi.Profile.ConfigException} if it's absent).
+     *
+     * <p>The file is not opened until the stream is read for the first
+     * time and it is closed when the end of the stream is reached.
+     *
+     * @param repo Repo
+     * @param branch Branch
+     * @param path Path of the file in the repo
+     * @return Stream with content
+     * @throws IOException If fails
+     */
+    public InputStream stream(final Repo repo, final String branch,
+        final String path) throws IOException {
+        final List<Object> head = Arrays.<Object>asList(repo, branch, path);
+        final String sha = this.heads.getIfPresent(head);
+        File file = null;
+        if (sha != null) {
+            file = this.files.getIfPresent(sha);
+        }
+        if (file == null) {
+            file = this.fetch(repo, branch, path, head);
+        }
+        return new Assets.Lazy(file);
+    }
+
+    /**
+     * Check the SHA of the asset on Github and save its blob to disk,
+     * unless a blob with the same SHA is already there.
+     * @param repo Repo
+     * @param branch Branch
+     * @param path Path of the file in the repo
+     * @param head Head of the file
+     * @return File of the blob
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private File fetch(final Repo repo, final String branch,
+        final String path, final List<Object> head) throws IOException {
+        final Contents contents = repo.contents();
+        if (!contents.exists(path, branch)) {
+            throw new Profile.ConfigException(
+                String.format(
+                    "`%s` on `%s` does not exist.",
+                    path, branch
+                )
+            );
+        }
+        final JsonObject json = new Content.Smart(
+            contents.get(path, branch)
+        ).json();
+        final String sha = json.getString("sha");
+        File file = this.files.getIfPresent(sha);
+        if (file == null) {
+            file = this.save(sha, json.getString("content"));
+            this.files.put(sha, file);
+            Logger.info(
+                this, "asset %s#%s saved as %s (%d bytes)",
+                repo.coordinates(), path, sha, file.length()
+            );
+        }
+        this.heads.put(head, sha);
+        return file;
+    }
+
+    /**
+     * Decode the blob into its file, readable by owner only.
+     * @param sha SHA of the blob
+     * @param base Content of the blob in Base64
+     * @return File
+     * @throws IOException If fails
+     */
+    private File save(final String sha, final String base)
+        throws IOException {
+        final Path temp = Files.createTempFile(
+            new File(this.dir).toPath(), sha, ".tmp",
+            PosixFilePermissions.asFileAttribute(
+                PosixFilePermissions.fromString("rw-------")
+            )
+        );
+        final InputStream input = new Base64InputStream(
+            IOUtils.toInputStream(base, CharEncoding.UTF_8)
+        );
+        final OutputStream output = Files.newOutputStream(temp);
+        try {
+            IOUtils.copy(input, output);
+        } finally {
+            output.close();
+            input.close();
+        }
+        final File file = new File(this.dir, sha);
+        Files.move(
+            temp, file.toPath(),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+        return file;
+    }
+
+    /**
+     * Make a new directory, readable by owner only.
+     * @return Directory
+     */
+    private static File mkdir() {
+        try {
+            return Files.createTempDirectory(
+                "rultor-assets",
+                PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rwx------")
+                )
+            ).toFile();
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Stream of a file, opened on first read.
+     */
+    private static final class Lazy extends InputStream {
+        /**
+         * File to read.
+         */
+        private final transient File file;
+        /**
+         * Opened stream or NULL if not opened yet.
+         */
+        private transient InputStream origin;
+        /**
+         * Ctor.
+         * @param src File to read
+         */
+        Lazy(final File src) {
+            super();
+            this.file = src;
+        }
+        @Override
+        public int read() throws IOException {
+            return this.stream().read();
+        }
+        @Override
+        public int read(final byte[] buf, final int off, final int len)
+            throws IOException {
+            return this.stream().read(buf, off, len);
+        }
+        @Override
+        public void close() throws IOException {
+            if (this.origin != null) {
+                this.origin.close();
+            }
+        }
+        /**
+         * Get the stream, opening the file if necessary.
+         * @return Stream
+         * @throws IOException If fails
+         */
+        private InputStream stream() throws IOException {
+            if (this.origin == null) {
+                this.origin = new AutoCloseInputStream(
+                    new FileInputStream(this.file)
+                );
+            }
+            return this.origin;
+        }
+    }
+
+}
@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.profiles;
+
+import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Content;
+import com.jcabi.github.Contents;
+import com.jcabi.github.Repo;
+import com.jcabi.xml.XML;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.json.JsonObject;
+import javax.xml.namespace.NamespaceContext;
+import lombok.ToString;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang3.CharEncoding;
+import org.w3c.dom.Node;
+
+/**
+ * Parsed YAML files from Github, addressed by their blob SHA.
+ *
+ * <p>The SHA of a file in a repo and branch is checked not more
+ * often than once per lifetime of a head (a minute by default, which
+ * is one routine tick); such a check costs two calls to Github,
+ * one to see whether the file exists and one to get its content
+ * and SHA. The XML parsed from a blob is shared by all callers,
+ * until the file gets a new SHA. A DOM is not safe to read from
+ * many threads at once, so the shared XML lets one thread in at a time
+ * and every caller works with its own copy of the nodes it selects.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "parser")
+final class Blobs {
+
+    /**
+     * SHA of a file that is absent.
+     */
+    private static final String ABSENT = "";
+
+    /**
+     * Parser of YAML texts.
+     */
+    private final transient Function<String, XML> parser;
+
+    /**
+     * Heads: repo, branch and path to blob SHA.
+     */
+    private final transient Cache<List<Object>, String> heads;
+
+    /**
+     * Blob SHA to parsed XML.
+     */
+    private final transient Cache<String, XML> docs;
+
+    /**
+     * Ctor.
+     * @param prsr Parser of YAML
+     */
+    Blobs(final Function<String, XML> prsr) {
+        this(prsr, 1L, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Ctor.
+     * @param prsr Parser of YAML
+     * @param ttl How long a head is trusted without checking Github
+     * @param unit Time unit of the lifetime
+     */
+    Blobs(final Function<String, XML> prsr, final long ttl,
+        final TimeUnit unit) {
+        this.parser = prsr;
+        this.heads = CacheBuilder.newBuilder()
+            .expireAfterWrite(ttl, unit)
+            .maximumSize((long) Tv.TEN * Tv.THOUSAND)
+            .build();
+        this.docs = CacheBuilder.newBuilder()
+            .maximumSize((long) Tv.THOUSAND)
+            .build();
+    }
+
+    /**
+     * Get parsed XML of the file.
+     * @param repo Repo
+     * @param branch Branch
+     * @param path Path of the file in the repo
+     * @return XML, empty if the file is absent
+     * @throws IOException If fails
+     */
+    public XML xml(final Repo repo, final String branch, final String path)
+        throws IOException {
+        return this.blob(repo, branch, path).xml;
+    }
+
+    /**
+     * Does the file exist?
+     * @param repo Repo
+     * @param branch Branch
+     * @param path Path of the file in the repo
+     * @return TRUE if it exists
+     * @throws IOException If fails
+     */
+    public boolean exists(final Repo repo, final String branch,
+        final String path) throws IOException {
+        return !Blobs.ABSENT.equals(this.blob(repo, branch, path).sha);
+    }
+
+    /**
+     * SHA of the file's blob.
+     * @param repo Repo
+     * @param branch Branch
+     * @param path Path of the file in the repo
+     * @return SHA, empty if the file is absent
+     * @throws IOException If fails
+     */
+    public String sha(final Repo repo, final String branch,
+        final String path) throws IOException {
+        return this.blob(repo, branch, path).sha;
+    }
+
+    /**
+     * Get the blob of the file, checking its SHA if the head is expired.
+     * @param repo Repo
+     * @param branch Branch
+     * @param path Path of the file in the repo
+     * @return Blob
+     * @throws IOException If fails
+     */
+    private Blobs.Blob blob(final Repo repo, final String branch,
+        final String path) throws IOException {
+        final List<Object> head = Arrays.<Object>asList(repo, branch, path);
+        String sha = this.heads.getIfPresent(head);
+        XML xml = null;
+        if (sha != null) {
+            xml = this.docs.getIfPresent(sha);
+        }
+        if (xml == null) {
+            final Contents contents = repo.contents();
+            if (contents.exists(path, branch)) {
+                final JsonObject json = new Content.Smart(
+                    contents.get(path, branch)
+                ).json();
+                sha = json.getString("sha");
+                xml = this.parsed(
+                    sha,
+                    new String(
+                        Base64.decodeBase64(json.getString("content")),
+                        CharEncoding.UTF_8
+                    )
+                );
+            } else {
+                sha = Blobs.ABSENT;
+                xml = this.parsed(sha, "");
+            }
+            this.heads.put(head, sha);
+        }
+        return new Blobs.Blob(sha, xml);
+    }
+
+    /**
+     * Get XML of the blob, parsing it only if it's not seen yet.
+     * @param sha SHA of the blob
+     * @param yaml Content of the blob
+     * @return XML
+     */
+    private XML parsed(final String sha, final String yaml) {
+        XML xml = this.docs.getIfPresent(sha);
+        if (xml == null) {
+            xml = new Blobs.Shared(this.parser.apply(yaml));
+            this.docs.put(sha, xml);
+        }
+        return xml;
+    }
+
+    /**
+     * XML shared by many threads.
+     *
+     * <p>Every method of {@link com.jcabi.xml.XMLDocument} reads a deep
+     * copy of its DOM, only the copying touches the shared nodes. This
+     * is done by one thread at a time.
+     */
+    private static final class Shared implements XML {
+        /**
+         * Original XML.
+         */
+        private final transient XML origin;
+        /**
+         * Ctor.
+         * @param xml Original XML
+         */
+        Shared(final XML xml) {
+            this.origin = xml;
+        }
+        @Override
+        public List<String> xpath(final String query) {
+            synchronized (this.origin) {
+                return this.origin.xpath(query);
+            }
+        }
+        @Override
+        public List<XML> nodes(final String query) {
+            synchronized (this.origin) {
+                return this.origin.nodes(query);
+            }
+        }
+        @Override
+        public XML registerNs(final String prefix, final Object uri) {
+            synchronized (this.origin) {
+                return this.origin.registerNs(prefix, uri);
+            }
+        }
+        @Override
+        public XML merge(final NamespaceContext context) {
+            synchronized (this.origin) {
+                return this.origin.merge(context);
+            }
+        }
+        @Override
+        public Node node() {
+            synchronized (this.origin) {
+                return this.origin.node();
+            }
+        }
+        @Override
+        public String toString() {
+            synchronized (this.origin) {
+                return this.origin.toString();
+            }
+        }
+    }
+
+    /**
+     * Blob, its SHA and XML.
+     */
+    private static final class Blob {
+        /**
+         * SHA of the blob.
+         */
+        private final transient String sha;
+        /**
+         * Parsed XML.
+         */
+        private final transient XML xml;
+        /**
+         * Ctor.
+         * @param hash SHA of the blob
+         * @param doc Parsed XML
+         */
+        Blob(final String hash, final XML doc) {
+            this.sha = hash;
+            this.xml = doc;
+        }
+    }
+
+}
@@ -34,16 +34,14 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableMap;
 import com.jcabi.aspects.Immutable;
-import com.jcabi.github.Content;
 import com.jcabi.github.Coordinates;
 import com.jcabi.github.Repo;
 import com.jcabi.xml.XML;
+import com.rultor.spi.Config;
 import com.rultor.spi.Profile;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -51,8 +49,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.lang3.CharEncoding;
 
 /**
  * Github Profile.
@@ -68,7 +64,7 @@ import org.apache.commons.lang3.CharEncoding;
  */
 @Immutable
 @ToString
-@EqualsAndHashCode(of = "repo")
+@EqualsAndHashCode(of = { "repo", "branch" })
 final class GithubProfile implements Profile {
 
     /**
@@ -83,6 +79,28 @@ final class GithubProfile implements Profile {
         "([a-zA-Z0-9][a-zA-Z0-9-]*/[a-zA-Z_0-9.-]+)#(.+)"
     );
 
+    /**
+     * Parsed YAML files, shared by all profiles.
+     */
+    private static final Blobs BLOBS = new Blobs(
+        new Function<String, XML>() {
+            @Override
+            public XML apply(final String yml) {
+                return GithubProfile.parse(yml);
+            }
+        }
+    );
+
+    /**
+     * Branch of friend repos to take assets from.
+     */
+    private static final String MASTER = "master";
+
+    /**
+     * Assets, shared by all profiles.
+     */
+    private static final Assets ASSETS = new Assets();
+
     /**
      * Repo.
      */
@@ -98,7 +116,7 @@ final class GithubProfile implements Profile {
      * @param rpo Repo
      */
     GithubProfile(final Repo rpo) {
-        this(rpo, "master");
+        this(rpo, GithubProfile.MASTER);
     }
 
     /**
@@ -117,9 +135,22 @@ final class GithubProfile implements Profile {
         return this.repo.coordinates().toString();
     }
 
+    /**
+     * SHA of the blob of {@code .rultor.yml}, which changes with it.
+     * @return SHA, empty if the file is absent
+     * @throws IOException If fails
+     */
+    String sha() throws IOException {
+        return GithubProfile.BLOBS.sha(
+            this.repo, this.branch, GithubProfile.FILE
+        );
+    }
+
     @Override
     public XML read() throws IOException {
-        return new YamlXML(this.yml()).get();
+        return GithubProfile.BLOBS.xml(
+            this.repo, this.branch, GithubProfile.FILE
+        );
     }
 
     @Override
@@ -152,7 +183,8 @@ final class GithubProfile implements Profile {
         final Repo rpo = this.repo.github().repos().get(
             new Coordinates.Simple(matcher.group(1))
         );
-        if (!rpo.contents().exists(GithubProfile.FILE, this.branch)) {
+        if (!GithubProfile.BLOBS.exists(rpo, GithubProfile.MASTER,
+            GithubProfile.FILE)) {
             throw new Profile.ConfigException(
                 String.format(
                     // @checkstyle LineLength (1 line)
@@ -162,14 +194,9 @@ final class GithubProfile implements Profile {
             );
         }
         final Collection<String> friends = Collections2.transform(
-            new YamlXML(
-                new String(
-                    new Content.Smart(
-                        rpo.contents().get(GithubProfile.FILE)
-                    ).decoded(),
-                    CharEncoding.UTF_8
-                )
-            ).get().xpath("/p/entry[@key='friends']/item/text()"),
+            GithubProfile.BLOBS.xml(
+                rpo, GithubProfile.MASTER, GithubProfile.FILE
+            ).xpath("/p/entry[@key='friends']/item/text()"),
             new Function<String, String>() {
                 @Override
                 public String apply(final String input) {
@@ -189,55 +216,19 @@ final class GithubProfile implements Profile {
                 )
             );
         }
-        return this.buildAssetStream(rpo, matcher.group(2));
-    }
-
-    /**
-     * Build the InputStream for the given filename in the given Repository,
-     * dealing with errors.
-     * @param rpo Repository where the file is.
-     * @param filename Name of the file.
-     * @return An InputStream with the Base64 contents of the file.
-     * @throws IOException If something goes wrong.
-     */
-    private InputStream buildAssetStream(final Repo rpo, final String filename)
-        throws IOException {
-        if (!rpo.contents().exists(filename, this.branch)) {
-            throw new Profile.ConfigException(
-                String.format(
-                    "`%s` on `%s` does not exist.",
-                    filename, this.branch
-                )
-            );
-        }
-        return new ByteArrayInputStream(
-            Base64.decodeBase64(
-                new Content.Smart(
-                    rpo.contents().get(filename)
-                ).content()
-            )
+        return GithubProfile.ASSETS.stream(
+            rpo, GithubProfile.MASTER, matcher.group(2)
         );
     }
 
     /**
-     * Get .rultor.yml file.
-     * @return Its content
-     * @throws IOException If fails
+     * Validate and parse .rultor.yml file.
+     * @param yml Its content
+     * @return XML
      */
-    private String yml() throws IOException {
-        final String yml;
-        if (this.repo.contents()
-            .exists(GithubProfile.FILE, this.branch)) {
-            yml = new String(
-                new Content.Smart(
-                    this.repo.contents().get(GithubProfile.FILE)
-                ).decoded(),
-                CharEncoding.UTF_8
-            );
-        } else {
-            yml = "";
-        }
-        final List<String> msg = this.validate(yml);
+    private static XML parse(final String yml) {
+        final XML xml = new YamlXML(yml).get();
+        final List<String> msg = GithubProfile.validate(xml);
         if (!msg.isEmpty()) {
             throw new Profile.ConfigException(
                 String.format(
@@ -247,20 +238,15 @@ final class GithubProfile implements Profile {
                 )
             );
         }
-        return yml;
+        return xml;
     }
 
     /**
-     * Validate rultor config YAML according to schema.
-     * @param yml Rultor YAML config
+     * Validate rultor config, compiling it into {@link Config}.
+     * @param xml Rultor config in XML
      * @return Validation result message, empty list means validation succeeded.
-     * @todo #570:30min Implement validation using Kwalify library in separate
-     *  class called ValidYaml, move this method to that class and move tests
-     *  from GitHubProfileValidationTest to ValidYamlTest. Remember about
-     *  removing PMD suppress below.
      */
-    @SuppressWarnings("PMD.UnusedFormalParameter")
-    private List<String> validate(final String yml) {
-        return Collections.emptyList();
+    private static List<String> validate(final XML xml) {
+        return Config.compile(xml).errors();
     }
 }
@@ -31,14 +31,19 @@ package com.rultor.profiles;
 
 import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
-import com.jcabi.aspects.Tv;
 import com.jcabi.github.Coordinates;
 import com.jcabi.github.Github;
 import com.jcabi.github.RtGithub;
-import com.jcabi.github.wire.RetryCarefulWire;
+import com.jcabi.immutable.Array;
+import com.jcabi.http.wire.RetryWire;
 import com.jcabi.manifests.Manifests;
 import com.jcabi.xml.XML;
+import com.rultor.agents.github.BreakerWire;
+import com.rultor.agents.github.BudgetWire;
+import com.rultor.agents.github.Metadata;
 import com.rultor.agents.github.TalkIssues;
+import com.rultor.cached.CdWire;
+import com.rultor.spi.Config;
 import com.rultor.spi.Profile;
 import com.rultor.spi.Talk;
 import java.io.IOException;
@@ -58,6 +63,32 @@ import lombok.ToString;
 @EqualsAndHashCode
 public final class Profiles {
 
+    /**
+     * Readers of profiles, shared by all instances.
+     */
+    private static final Readers READERS = new Readers();
+
+    /**
+     * Github.
+     */
+    private final transient Github github;
+
+    /**
+     * Ctor.
+     */
+    public Profiles() {
+        this(Profiles.shared());
+    }
+
+    /**
+     * Ctor.
+     * @param ghub Github client
+     * @since 2.0
+     */
+    public Profiles(final Github ghub) {
+        this.github = ghub;
+    }
+
     /**
      * Fetch a profile from a talk.
      * @param talk The talk
@@ -73,27 +104,61 @@ public final class Profiles {
             if (xml.nodes("/talk/wire").isEmpty()) {
                 profile = Profile.EMPTY;
             } else {
-                profile = Profiles.fetch(xml);
+                profile = this.fetch(xml);
             }
         }
         return profile;
     }
 
+    /**
+     * Readers of the talk, as in its profile.
+     *
+     * <p>Logs of a public repository are visible to everybody, like the
+     * repository itself, so its profile is not read at all; whether the
+     * repository is private is cached by {@link Metadata}. Readers of
+     * private repositories are cached by {@link Readers} and replaced
+     * when {@code .rultor.yml} gets a new SHA, so readers added to it
+     * later count for old talks too.
+     *
+     * @param talk The talk
+     * @return URNs of readers, empty if everybody can read
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    public Array<String> readers(final Talk talk) throws IOException {
+        final Array<String> readers;
+        if (Talk.TEST_NAME.equals(talk.name())) {
+            readers = new Array<>();
+        } else {
+            final XML xml = talk.read();
+            if (xml.nodes("/talk/wire").isEmpty()
+                || !new Metadata(this.github).repo(
+                    new TalkIssues(this.github, xml).repo().coordinates()
+                ).isPrivate()) {
+                readers = new Array<>();
+            } else {
+                final GithubProfile profile = this.fetch(xml);
+                readers = Profiles.READERS.get(profile, profile.sha());
+            }
+        }
+        return readers;
+    }
+
     /**
      * Fetch a profile from an XML.
      * @param xml The XML
      * @return Profile found
      */
-    private static Profile fetch(final XML xml) {
-        final Profile profile;
+    private GithubProfile fetch(final XML xml) {
+        final GithubProfile profile;
         final List<String> type = xml.xpath("//request/type/text()");
         if (type.isEmpty() || !"merge".equals(type.get(0))) {
             profile = new GithubProfile(
-                new TalkIssues(Profiles.github(), xml).get().repo()
+                new TalkIssues(this.github, xml).repo()
             );
         } else {
             profile = new GithubProfile(
-                Profiles.github().repos().get(
+                this.github.repos().get(
                     new Coordinates.Simple(
                         xml.xpath(
                             "//request/args/arg[@name='fork']/text()"
@@ -113,14 +178,14 @@ public final class Profiles {
      * @return Github
      */
     @Cacheable(forever = true)
-    private static Github github() {
+    private static Github shared() {
         return new RtGithub(
             new RtGithub(
                 Manifests.read("Rultor-GithubToken")
-            ).entry().through(
-                RetryCarefulWire.class,
-                Tv.HUNDRED
-            )
+            ).entry().through(RetryWire.class)
+                .through(BreakerWire.class)
+                .through(BudgetWire.class)
+                .through(CdWire.class)
         );
     }
 
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.profiles;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jcabi.aspects.Tv;
+import com.jcabi.immutable.Array;
+import com.rultor.spi.Config;
+import com.rultor.spi.Profile;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.ToString;
+
+/**
+ * Readers of profiles, cached by profile, that is by repo and branch.
+ *
+ * <p>An ACL is kept until it's not used for a few minutes. It's
+ * replaced as soon as the profile is seen with a new SHA of its
+ * {@code .rultor.yml}.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString
+final class Readers {
+
+    /**
+     * Profile to its ACL.
+     */
+    private final transient Cache<Profile, Readers.Acl> acls;
+
+    /**
+     * Ctor.
+     */
+    Readers() {
+        this(Tv.FIVE, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Ctor.
+     * @param ttl How long an unused ACL is kept
+     * @param unit Time unit of the lifetime
+     */
+    Readers(final long ttl, final TimeUnit unit) {
+        this.acls = CacheBuilder.newBuilder()
+            .expireAfterAccess(ttl, unit)
+            .maximumSize((long) Tv.TEN * Tv.THOUSAND)
+            .build();
+    }
+
+    /**
+     * Get readers of the profile.
+     * @param profile Profile
+     * @param sha Current SHA of its blob
+     * @return URNs of readers, empty if everybody can read
+     * @throws IOException If fails
+     */
+    public Array<String> get(final Profile profile, final String sha)
+        throws IOException {
+        Readers.Acl acl = this.acls.getIfPresent(profile);
+        if (acl == null || !acl.sha.equals(sha)) {
+            acl = new Readers.Acl(sha, Config.of(profile).readers());
+            this.acls.put(profile, acl);
+        }
+        return acl.readers;
+    }
+
+    /**
+     * Readers of one blob of a profile.
+     */
+    private static final class Acl {
+        /**
+         * SHA of the blob they were taken from.
+         */
+        private final transient String sha;
+        /**
+         * Readers.
+         */
+        private final transient Array<String> readers;
+        /**
+         * Ctor.
+         * @param hash SHA of the blob
+         * @param list Readers
+         */
+        Acl(final String hash, final Array<String> list) {
+            this.sha = hash;
+            this.readers = list;
+        }
+    }
+
+}
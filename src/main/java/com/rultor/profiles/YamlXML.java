@@ -35,17 +35,22 @@ import com.jcabi.xml.XMLDocument;
 import com.rultor.spi.Profile;
 import java.util.List;
 import java.util.Map;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.xembly.Directive;
-import org.xembly.Directives;
-import org.xembly.Xembler;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.error.YAMLException;
 
 /**
  * YAML into XML.
  *
+ * <p>The object tree loaded by SnakeYAML is appended to a DOM document
+ * directly, without intermediate directives and without printing
+ * and parsing the XML again.
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 1.0
@@ -55,6 +60,17 @@ import org.yaml.snakeyaml.error.YAMLException;
 @EqualsAndHashCode(of = "yaml")
 final class YamlXML {
 
+    /**
+     * DOM factories, one per thread, since they are not thread-safe.
+     */
+    private static final ThreadLocal<DocumentBuilderFactory> FACTORY =
+        new ThreadLocal<DocumentBuilderFactory>() {
+            @Override
+            protected DocumentBuilderFactory initialValue() {
+                return DocumentBuilderFactory.newInstance();
+            }
+        };
+
     /**
      * Yaml.
      */
@@ -73,44 +89,47 @@ final class YamlXML {
      * @return XML
      */
     public XML get() {
-        final Yaml parser = new Yaml();
-        final Directives dirs = new Directives().add("p");
+        final Document doc;
+        try {
+            doc = YamlXML.FACTORY.get().newDocumentBuilder().newDocument();
+        } catch (final ParserConfigurationException ex) {
+            throw new IllegalStateException(ex);
+        }
+        final Element root = doc.createElement("p");
+        doc.appendChild(root);
         if (!this.yaml.isEmpty()) {
             try {
-                dirs.append(YamlXML.dirs(parser.load(this.yaml)));
+                YamlXML.append(root, new Yaml().load(this.yaml));
             } catch (final YAMLException ex) {
                 throw new Profile.ConfigException(ex);
             }
         }
-        return new XMLDocument(new Xembler(dirs).xmlQuietly());
+        return new XMLDocument(doc);
     }
 
     /**
-     * Convert something to dirs.
+     * Append loaded YAML object to the DOM element.
+     * @param parent Element to append to
      * @param obj Object
-     * @return Dirs
      */
-    @SuppressWarnings("unchecked")
-    private static Iterable<Directive> dirs(final Object obj) {
-        final Directives dirs = new Directives();
+    private static void append(final Element parent, final Object obj) {
+        final Document doc = parent.getOwnerDocument();
         if (obj instanceof Map) {
-            for (final Map.Entry<String, Object> ent
-                : ((Map<String, Object>) obj).entrySet()) {
-                dirs.add("entry")
-                    .attr("key", ent.getKey())
-                    .append(YamlXML.dirs(ent.getValue()))
-                    .up();
+            for (final Map.Entry<?, ?> ent : ((Map<?, ?>) obj).entrySet()) {
+                final Element entry = doc.createElement("entry");
+                entry.setAttribute("key", String.valueOf(ent.getKey()));
+                parent.appendChild(entry);
+                YamlXML.append(entry, ent.getValue());
             }
         } else if (obj instanceof List) {
-            for (final Object item : (Iterable<Object>) obj) {
-                dirs.add("item").append(YamlXML.dirs(item)).up();
+            for (final Object item : (Iterable<?>) obj) {
+                final Element node = doc.createElement("item");
+                parent.appendChild(node);
+                YamlXML.append(node, item);
             }
-        } else if (obj == null) {
-            dirs.set("");
-        } else {
-            dirs.set(obj.toString());
+        } else if (obj != null && !obj.toString().isEmpty()) {
+            parent.appendChild(doc.createTextNode(obj.toString()));
         }
-        return dirs;
     }
 
 }
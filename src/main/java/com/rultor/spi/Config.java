@@ -0,0 +1,723 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.immutable.Array;
+import com.jcabi.immutable.ArrayMap;
+import com.jcabi.xml.XML;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Compiled profile configuration.
+ *
+ * <p>The XML of a profile is walked only once, when it is compiled
+ * into an instance of this class; agents read plain fields afterwards
+ * instead of running their own XPath queries. Compiled instances are
+ * memoized by the identity of the XML document, which is the same
+ * object as long as the underlying {@code .rultor.yml} doesn't change.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ */
+@Immutable
+@ToString(of = { "img", "errs" })
+@EqualsAndHashCode
+@SuppressWarnings({ "PMD.TooManyMethods", "PMD.TooManyFields" })
+public final class Config {
+
+    /**
+     * Default Docker image.
+     */
+    public static final String IMAGE = "yegor256/rultor";
+
+    /**
+     * Compiled configs, by XML document.
+     */
+    private static final Cache<XML, Config> COMPILED = CacheBuilder
+        .newBuilder()
+        .weakKeys()
+        .build();
+
+    /**
+     * Allowed values of {@code merge/fast-forward}.
+     */
+    private static final Array<String> FFWD = new Array<>(
+        "default", "no", "only"
+    );
+
+    /**
+     * Docker image.
+     */
+    private final transient String img;
+
+    /**
+     * Docker working directory.
+     */
+    private final transient String dir;
+
+    /**
+     * Run Docker container as root?
+     */
+    private final transient boolean root;
+
+    /**
+     * Global install script lines.
+     */
+    private final transient Array<String> inst;
+
+    /**
+     * Is there a global uninstall section?
+     */
+    private final transient boolean cleanup;
+
+    /**
+     * Global uninstall script lines.
+     */
+    private final transient Array<String> uninst;
+
+    /**
+     * Global environment variables, as {@code NAME=value}.
+     */
+    private final transient Array<String> vars;
+
+    /**
+     * Top level sections, by key.
+     */
+    private final transient ArrayMap<String, Config.Section> sections;
+
+    /**
+     * Is there a merge section?
+     */
+    private final transient boolean merging;
+
+    /**
+     * Squash commits on merge?
+     */
+    private final transient boolean sqsh;
+
+    /**
+     * Rebase on merge?
+     */
+    private final transient boolean rbs;
+
+    /**
+     * Fast forward mode of merge.
+     */
+    private final transient String ffwd;
+
+    /**
+     * Files to decrypt, plain name to encrypted name.
+     */
+    private final transient ArrayMap<String, String> secrets;
+
+    /**
+     * SSH host, empty if not set.
+     */
+    private final transient String host;
+
+    /**
+     * SSH port, zero if not set.
+     */
+    private final transient int port;
+
+    /**
+     * SSH login, empty if not set.
+     */
+    private final transient String login;
+
+    /**
+     * SSH private key location, empty if not set.
+     */
+    private final transient String key;
+
+    /**
+     * Readers.
+     */
+    private final transient Array<String> rdrs;
+
+    /**
+     * Architects.
+     */
+    private final transient Array<String> archs;
+
+    /**
+     * Validation errors.
+     */
+    private final transient Array<String> errs;
+
+    /**
+     * Ctor.
+     * @param xml Profile XML
+     */
+    @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+    public Config(final XML xml) {
+        final Collection<String> errors = new LinkedList<>();
+        for (final String cmd : new String[] {"merge", "deploy", "release"}) {
+            Config.map(xml, cmd, errors);
+        }
+        Config.map(xml, "docker", errors);
+        Config.map(xml, "decrypt", errors);
+        Config.map(xml, "ssh", errors);
+        this.img = Config.text(
+            xml, "/p/entry[@key='docker']/entry[@key='image']", Config.IMAGE
+        );
+        this.dir = Config.text(
+            xml, "/p/entry[@key='docker']/entry[@key='directory']", ""
+        );
+        this.root = Config.bool(
+            xml, "/p/entry[@key='docker']/entry[@key='as_root']", errors
+        );
+        this.inst = Config.lines(xml, "/p/entry[@key='install']");
+        this.cleanup = !xml.nodes("/p/entry[@key='uninstall']").isEmpty();
+        this.uninst = Config.lines(xml, "/p/entry[@key='uninstall']");
+        this.vars = Config.envs(xml, "/p/entry[@key='env']");
+        final ConcurrentHashMap<String, Config.Section> map =
+            new ConcurrentHashMap<>(0);
+        for (final XML entry : xml.nodes("/p/entry")) {
+            map.put(entry.xpath("@key").get(0), new Config.Section(entry));
+        }
+        this.sections = new ArrayMap<>(map);
+        this.merging = !xml.nodes("/p/entry[@key='merge']").isEmpty();
+        this.sqsh = Config.bool(
+            xml, "/p/entry[@key='merge']/entry[@key='squash']", errors
+        );
+        this.rbs = Config.bool(
+            xml, "/p/entry[@key='merge']/entry[@key='rebase']", errors
+        );
+        this.ffwd = Config.text(
+            xml, "/p/entry[@key='merge']/entry[@key='fast-forward']",
+            Config.FFWD.get(0)
+        ).toLowerCase(Locale.ENGLISH);
+        if (!Config.FFWD.contains(this.ffwd)) {
+            errors.add(
+                String.format(
+                    "`merge/fast-forward` must be one of %s, not `%s`",
+                    Config.FFWD, this.ffwd
+                )
+            );
+        }
+        final ConcurrentHashMap<String, String> decrypt =
+            new ConcurrentHashMap<>(0);
+        for (final XML entry : xml.nodes("/p/entry[@key='decrypt']/entry")) {
+            decrypt.put(
+                entry.xpath("@key").get(0),
+                Config.text(entry, "text()", "")
+            );
+        }
+        this.secrets = new ArrayMap<>(decrypt);
+        this.host = Config.text(
+            xml, "/p/entry[@key='ssh']/entry[@key='host']", ""
+        );
+        this.port = Config.number(
+            xml, "/p/entry[@key='ssh']/entry[@key='port']", errors
+        );
+        this.login = Config.text(
+            xml, "/p/entry[@key='ssh']/entry[@key='login']", ""
+        );
+        this.key = Config.text(
+            xml, "/p/entry[@key='ssh']/entry[@key='key']", ""
+        );
+        this.rdrs = new Array<>(
+            xml.xpath("/p/entry[@key='readers']/item/text()")
+        );
+        this.archs = new Array<>(
+            xml.xpath("/p/entry[@key='architect']/item/text()")
+        );
+        this.errs = new Array<>(errors);
+    }
+
+    /**
+     * Compiled config of the profile, memoized by its XML document.
+     * @param profile Profile
+     * @return Config
+     * @throws IOException If fails
+     */
+    public static Config of(final Profile profile) throws IOException {
+        return Config.compile(profile.read());
+    }
+
+    /**
+     * Compiled config of the XML document, memoized.
+     * @param xml Profile XML
+     * @return Config
+     */
+    public static Config compile(final XML xml) {
+        Config config = Config.COMPILED.getIfPresent(xml);
+        if (config == null) {
+            config = new Config(xml);
+            Config.COMPILED.put(xml, config);
+        }
+        return config;
+    }
+
+    /**
+     * Validation errors found during compilation.
+     * @return Error messages, empty if the config is valid
+     */
+    public Array<String> errors() {
+        return this.errs;
+    }
+
+    /**
+     * Docker image.
+     * @return Image name
+     */
+    public String image() {
+        return this.img;
+    }
+
+    /**
+     * Docker working directory.
+     * @return Directory or empty string if not set
+     */
+    public String directory() {
+        return this.dir;
+    }
+
+    /**
+     * Run Docker container as root?
+     * @return TRUE if so
+     */
+    public boolean asRoot() {
+        return this.root;
+    }
+
+    /**
+     * Global install script.
+     * @return Lines
+     */
+    public Array<String> install() {
+        return this.inst;
+    }
+
+    /**
+     * Is there a global uninstall section?
+     * @return TRUE if it's present, even empty
+     */
+    public boolean cleanup() {
+        return this.cleanup;
+    }
+
+    /**
+     * Global uninstall script.
+     * @return Lines
+     */
+    public Array<String> uninstall() {
+        return this.uninst;
+    }
+
+    /**
+     * Global environment variables.
+     * @return List of {@code NAME=value}
+     */
+    public Array<String> env() {
+        return this.vars;
+    }
+
+    /**
+     * Top level section, for example {@code merge} or {@code deploy}.
+     * @param name Name of the section
+     * @return Section, empty if it's absent
+     */
+    public Config.Section section(final String name) {
+        final Config.Section section;
+        if (this.sections.containsKey(name)) {
+            section = this.sections.get(name);
+        } else {
+            section = Config.Section.EMPTY;
+        }
+        return section;
+    }
+
+    /**
+     * Is there a merge section?
+     * @return TRUE if present
+     */
+    public boolean merging() {
+        return this.merging;
+    }
+
+    /**
+     * Squash commits on merge?
+     * @return TRUE if so
+     */
+    public boolean squash() {
+        return this.sqsh;
+    }
+
+    /**
+     * Rebase on merge?
+     * @return TRUE if so
+     */
+    public boolean rebase() {
+        return this.rbs;
+    }
+
+    /**
+     * Fast forward mode of merge.
+     * @return Either "default", "no" or "only"
+     */
+    public String fastForward() {
+        return this.ffwd;
+    }
+
+    /**
+     * Files to decrypt.
+     * @return Map of plain file names to encrypted file names
+     */
+    public ArrayMap<String, String> decrypt() {
+        return this.secrets;
+    }
+
+    /**
+     * SSH host.
+     * @param def Default, if it's not set
+     * @return Host
+     */
+    public String sshHost(final String def) {
+        return Config.or(this.host, def);
+    }
+
+    /**
+     * SSH port.
+     * @param def Default, if it's not set
+     * @return Port
+     */
+    public int sshPort(final int def) {
+        final int num;
+        if (this.port == 0) {
+            num = def;
+        } else {
+            num = this.port;
+        }
+        return num;
+    }
+
+    /**
+     * SSH login.
+     * @param def Default, if it's not set
+     * @return Login
+     */
+    public String sshLogin(final String def) {
+        return Config.or(this.login, def);
+    }
+
+    /**
+     * Location of SSH private key among assets.
+     * @return Name of the asset or empty if not set
+     */
+    public String sshKey() {
+        return this.key;
+    }
+
+    /**
+     * Readers.
+     * @return List of URNs, empty if everybody can read
+     */
+    public Array<String> readers() {
+        return this.rdrs;
+    }
+
+    /**
+     * Architects.
+     * @return List of logins, empty if anybody is an architect
+     */
+    public Array<String> architects() {
+        return this.archs;
+    }
+
+    /**
+     * Value or default, if value is empty.
+     * @param value Value
+     * @param def Default
+     * @return Result
+     */
+    private static String or(final String value, final String def) {
+        final String result;
+        if (value.isEmpty()) {
+            result = def;
+        } else {
+            result = value;
+        }
+        return result;
+    }
+
+    /**
+     * Get text of the node.
+     * @param xml XML
+     * @param path XPath of the node
+     * @param def Default, if it's absent or empty
+     * @return Text
+     */
+    private static String text(final XML xml, final String path,
+        final String def) {
+        final String text;
+        final String xpath = String.format("%s/text()", path);
+        if (xml.nodes(xpath).isEmpty()) {
+            text = def;
+        } else {
+            text = xml.xpath(xpath).get(0);
+        }
+        return text;
+    }
+
+    /**
+     * Get boolean flag, reporting anything but TRUE or FALSE.
+     * @param xml XML
+     * @param path XPath of the node
+     * @param errors Errors found
+     * @return Flag, FALSE if absent
+     */
+    private static boolean bool(final XML xml, final String path,
+        final Collection<String> errors) {
+        final String text = Config.text(xml, path, Boolean.FALSE.toString())
+            .trim().toLowerCase(Locale.ENGLISH);
+        if (!Boolean.TRUE.toString().equals(text)
+            && !Boolean.FALSE.toString().equals(text)) {
+            errors.add(
+                String.format(
+                    "`%s` must be either `true` or `false`, not `%s`",
+                    Config.name(path), text
+                )
+            );
+        }
+        return Boolean.parseBoolean(text);
+    }
+
+    /**
+     * Get positive number, reporting anything else.
+     * @param xml XML
+     * @param path XPath of the node
+     * @param errors Errors found
+     * @return Number, zero if absent
+     */
+    private static int number(final XML xml, final String path,
+        final Collection<String> errors) {
+        final String text = Config.text(xml, path, "0").trim();
+        int num = 0;
+        if (text.matches("[0-9]{1,5}")) {
+            num = Integer.parseInt(text);
+        } else {
+            errors.add(
+                String.format(
+                    "`%s` must be a number, not `%s`",
+                    Config.name(path), text
+                )
+            );
+        }
+        return num;
+    }
+
+    /**
+     * Make sure the top level entry, if present, is a map.
+     * @param xml XML
+     * @param name Name of the entry
+     * @param errors Errors found
+     */
+    private static void map(final XML xml, final String name,
+        final Collection<String> errors) {
+        final String path = String.format("/p/entry[@key='%s']", name);
+        if (!xml.nodes(String.format("%s/item", path)).isEmpty()
+            || !StringUtils.isBlank(Config.text(xml, path, ""))) {
+            errors.add(
+                String.format(
+                    "`%s` must be a map, for example with `script:` inside",
+                    name
+                )
+            );
+        }
+    }
+
+    /**
+     * Human readable name of the entry, like "merge/squash".
+     * @param path XPath of the entry
+     * @return Name
+     */
+    private static String name(final String path) {
+        return path.replaceAll("/p/", "")
+            .replaceAll("entry\\[@key='([^']+)'\\]", "$1");
+    }
+
+    /**
+     * Script lines of the node: items or lines of its text.
+     * @param xml XML
+     * @param path XPath of the node
+     * @return Lines, trimmed
+     */
+    private static Array<String> lines(final XML xml, final String path) {
+        final Collection<String> lines = new LinkedList<>();
+        if (!xml.nodes(path).isEmpty()) {
+            final XML node = xml.nodes(path).get(0);
+            final Collection<String> items;
+            if (node.nodes("item").isEmpty()) {
+                items = Config.split(node);
+            } else {
+                items = node.xpath("item/text()");
+            }
+            for (final String item : items) {
+                lines.add(item.trim());
+            }
+        }
+        return new Array<>(lines);
+    }
+
+    /**
+     * Environment variables of the node: items, entries or lines.
+     * @param xml XML
+     * @param path XPath of the node
+     * @return Variables, as {@code NAME=value}
+     */
+    private static Array<String> envs(final XML xml, final String path) {
+        final Collection<String> parts = new LinkedList<>();
+        if (!xml.nodes(path).isEmpty()) {
+            final XML node = xml.nodes(path).get(0);
+            if (!node.nodes("item").isEmpty()) {
+                parts.addAll(node.xpath("item/text()"));
+            } else if (!node.nodes("entry").isEmpty()) {
+                for (final XML env : node.nodes("entry")) {
+                    parts.add(
+                        String.format(
+                            "%s=%s", env.xpath("@key").get(0),
+                            Config.text(env, ".", "")
+                        )
+                    );
+                }
+            } else {
+                for (final String line : Config.split(node)) {
+                    parts.add(line.trim());
+                }
+            }
+        }
+        return new Array<>(parts);
+    }
+
+    /**
+     * Split text of a single node into lines.
+     * @param node Node to get text() from
+     * @return Lines found, not trimmed
+     */
+    private static Collection<String> split(final XML node) {
+        final Collection<String> lines = new LinkedList<>();
+        final Collection<String> texts = node.xpath("text()");
+        if (!texts.isEmpty()) {
+            for (final String line
+                : StringUtils.split(texts.iterator().next(), '\n')) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Section of a profile, like {@code merge}.
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode
+    public static final class Section {
+        /**
+         * Empty section.
+         */
+        public static final Config.Section EMPTY = new Config.Section(
+            new Array<String>(), new Array<String>(), new Array<String>()
+        );
+        /**
+         * Script lines.
+         */
+        private final transient Array<String> lines;
+        /**
+         * Environment variables, as {@code NAME=value}.
+         */
+        private final transient Array<String> vars;
+        /**
+         * Commanders.
+         */
+        private final transient Array<String> cmdrs;
+        /**
+         * Ctor.
+         * @param node XML node of the section
+         */
+        public Section(final XML node) {
+            this(
+                Config.lines(node, "entry[@key='script']"),
+                Config.envs(node, "entry[@key='env']"),
+                new Array<>(
+                    node.xpath("entry[@key='commanders']/item/text()")
+                )
+            );
+        }
+        /**
+         * Ctor.
+         * @param script Script lines
+         * @param env Environment variables
+         * @param commanders Commanders
+         */
+        private Section(final Array<String> script, final Array<String> env,
+            final Array<String> commanders) {
+            this.lines = script;
+            this.vars = env;
+            this.cmdrs = commanders;
+        }
+        /**
+         * Script lines.
+         * @return Lines, trimmed
+         */
+        public Array<String> script() {
+            return this.lines;
+        }
+        /**
+         * Environment variables.
+         * @return List of {@code NAME=value}
+         */
+        public Array<String> env() {
+            return this.vars;
+        }
+        /**
+         * Commanders.
+         * @return Logins, empty if anybody can command
+         */
+        public Array<String> commanders() {
+            return this.cmdrs;
+        }
+    }
+
+}
@@ -39,13 +39,22 @@ import com.jcabi.xml.StrictXML;
 import com.jcabi.xml.XMLDocument;
 import java.io.File;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.file.FileAlreadyExistsException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.CharEncoding;
+import org.w3c.dom.Node;
+import org.xembly.Directive;
+import org.xembly.Directives;
+import org.xembly.ImpossibleModificationException;
+import org.xembly.Xembler;
 
 /**
  * Talks in a repo.
@@ -95,13 +104,30 @@ public interface Talks {
     void delete(String name);
 
     /**
-     * Create a new one (runtime exception if it exists already).
+     * Create a new one ({@link Talks.ExistsException} if it exists
+     * already).
      * @param repo Name of the repository it is in
      * @param name The name
      * @throws IOException If fails
      */
     void create(String repo, String name) throws IOException;
 
+    /**
+     * Create a new one, with directives already applied to its XML,
+     * in one write ({@link Talks.ExistsException} if it exists already).
+     *
+     * <p>The check and the write are atomic, so of two concurrent
+     * attempts to create the same talk only one succeeds.
+     *
+     * @param repo Name of the repository it is in
+     * @param name The name
+     * @param dirs Directives to apply
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    void create(String repo, String name, Iterable<Directive> dirs)
+        throws IOException;
+
     /**
      * Get only active talks.
      * @return Talks
@@ -122,6 +148,32 @@ public interface Talks {
      */
     Iterable<Talk> siblings(String repo, Date since);
 
+    /**
+     * When a talk with this name exists already.
+     * @since 2.0
+     */
+    final class ExistsException extends IllegalStateException {
+        /**
+         * Serialization marker.
+         */
+        private static final long serialVersionUID = 4310294358113549307L;
+        /**
+         * Ctor.
+         * @param name Name of the talk
+         */
+        public ExistsException(final String name) {
+            super(String.format("talk \"%s\" already exists", name));
+        }
+        /**
+         * Ctor.
+         * @param name Name of the talk
+         * @param cause Cause of it
+         */
+        public ExistsException(final String name, final Throwable cause) {
+            super(String.format("talk \"%s\" already exists", name), cause);
+        }
+    }
+
     /**
      * In directory.
      */
@@ -160,7 +212,20 @@ public interface Talks {
         }
         @Override
         public boolean exists(final String name) {
-            return this.get(name) != null;
+            return Iterables.any(
+                this.active(),
+                new Predicate<Talk>() {
+                    @Override
+                    public boolean apply(final Talk talk) {
+                        try {
+                            return talk.read().xpath("/talk/@name").get(0)
+                                .equals(name);
+                        } catch (final IOException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    }
+                }
+            );
         }
         @Override
         public Talk get(final String name) {
@@ -181,27 +246,60 @@ public interface Talks {
         }
         @Override
         public void delete(final String name) {
-            FileUtils.deleteQuietly(new File(new File(this.path), name));
+            FileUtils.deleteQuietly(this.file(name));
         }
         @Override
         public void create(final String repo, final String name)
             throws IOException {
-            final File file = new File(new File(this.path), name);
+            this.create(repo, name, new Directives());
+        }
+        @Override
+        public void create(final String repo, final String name,
+            final Iterable<Directive> dirs) throws IOException {
+            final Node node = new XMLDocument(
+                String.format(
+                    "<talk name='%s' number='1' later='false'/>", name
+                )
+            ).node();
+            try {
+                new Xembler(dirs).apply(node);
+            } catch (final ImpossibleModificationException ex) {
+                throw new IllegalStateException(ex);
+            }
+            final File file = this.file(name);
+            final File temp = new File(
+                new File(this.path, ".tmp"), UUID.randomUUID().toString()
+            );
             FileUtils.write(
-                file,
-                new StrictXML(
-                    new XMLDocument(
-                        String.format(
-                            "<talk name='%s' number='1' later='false'/>",
-                            name
-                        )
-                    ),
-                    Talk.SCHEMA
-                ).toString(),
+                temp,
+                new StrictXML(new XMLDocument(node), Talk.SCHEMA).toString(),
                 CharEncoding.UTF_8
             );
+            try {
+                java.nio.file.Files.createLink(file.toPath(), temp.toPath());
+            } catch (final FileAlreadyExistsException ex) {
+                throw new Talks.ExistsException(name, ex);
+            } finally {
+                FileUtils.deleteQuietly(temp);
+            }
             Logger.info(this, "talk '%s' created in %s", name, file);
         }
+        /**
+         * File of the talk, flat in the directory, even if the name
+         * contains slashes.
+         * @param name Name of the talk
+         * @return File
+         */
+        private File file(final String name) {
+            try {
+                return new File(
+                    new File(this.path),
+                    URLEncoder.encode(name, CharEncoding.UTF_8)
+                );
+            } catch (final UnsupportedEncodingException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
         @Override
         public Iterable<Talk> active() {
             final Collection<File> files = FileUtils.listFiles(
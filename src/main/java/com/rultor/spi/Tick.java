@@ -56,6 +56,16 @@ public final class Tick {
      */
     private final transient int talks;
 
+    /**
+     * Notifications waiting to be processed.
+     */
+    private final transient long waiting;
+
+    /**
+     * Agents that ran out of time.
+     */
+    private final transient long late;
+
     /**
      * Ctor.
      * @param date When
@@ -64,9 +74,40 @@ public final class Tick {
      */
     public Tick(final long date, final long duration,
         final int total) {
+        this(date, duration, total, 0L);
+    }
+
+    /**
+     * Ctor.
+     * @param date When
+     * @param duration Duration in msec
+     * @param total Total processed or negative if failed
+     * @param backlog Notifications waiting to be processed
+     * @since 2.0
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public Tick(final long date, final long duration,
+        final int total, final long backlog) {
+        this(date, duration, total, backlog, 0L);
+    }
+
+    /**
+     * Ctor.
+     * @param date When
+     * @param duration Duration in msec
+     * @param total Total processed or negative if failed
+     * @param backlog Notifications waiting to be processed
+     * @param overdue Agents that ran out of time
+     * @since 2.0
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public Tick(final long date, final long duration,
+        final int total, final long backlog, final long overdue) {
         this.when = date;
         this.msec = duration;
         this.talks = total;
+        this.waiting = backlog;
+        this.late = overdue;
     }
 
     /**
@@ -93,4 +134,22 @@ public final class Tick {
         return this.talks;
     }
 
+    /**
+     * Notifications waiting to be processed, after the tick.
+     * @return Total
+     * @since 2.0
+     */
+    public long backlog() {
+        return this.waiting;
+    }
+
+    /**
+     * Agents that ran out of their time budgets during the tick.
+     * @return Total
+     * @since 2.0
+     */
+    public long overdue() {
+        return this.late;
+    }
+
 }
@@ -31,7 +31,6 @@ package com.rultor.web;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
-import com.jcabi.xml.XML;
 import com.rultor.profiles.Profiles;
 import com.rultor.spi.Profile;
 import com.rultor.spi.Talk;
@@ -53,12 +52,27 @@ import org.takes.rq.RqWrap;
  */
 final class RqUser extends RqWrap {
 
+    /**
+     * Profiles.
+     */
+    private final transient Profiles profiles;
+
     /**
      * Ctor.
      * @param req Request
      */
     RqUser(final Request req) {
+        this(req, new Profiles());
+    }
+
+    /**
+     * Ctor.
+     * @param req Request
+     * @param pfls Profiles
+     */
+    RqUser(final Request req, final Profiles pfls) {
         super(req);
+        this.profiles = pfls;
     }
 
     /**
@@ -77,16 +91,13 @@ final class RqUser extends RqWrap {
      * @throws IOException If fails
      */
     public boolean canSee(final Talk talk) throws IOException {
-        final XML xml;
+        final Collection<String> readers;
         try {
-            xml = new Profiles().fetch(talk).read();
+            readers = this.profiles.readers(talk);
         } catch (final Profile.ConfigException ex) {
             throw new RsForward(new RsFlash(ex), "/");
         }
         final boolean granted;
-        final Collection<String> readers = xml.xpath(
-            "/p/entry[@key='readers']/item/text()"
-        );
         if (readers.isEmpty()) {
             granted = true;
         } else {
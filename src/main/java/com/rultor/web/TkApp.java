@@ -34,11 +34,17 @@ import com.rultor.Toggles;
 import com.rultor.spi.Pulse;
 import com.rultor.spi.Talks;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import org.takes.Take;
 import org.takes.facets.flash.TkFlash;
 import org.takes.facets.fork.FkRegex;
+import org.takes.facets.fork.Fork;
+import org.takes.facets.fork.TkMethods;
 import org.takes.facets.fork.TkFork;
 import org.takes.facets.forward.TkForward;
+import org.takes.rq.RqMethod;
 import org.takes.tk.TkClasspath;
 import org.takes.tk.TkGzip;
 import org.takes.tk.TkMeasured;
@@ -63,6 +69,11 @@ public final class TkApp extends TkWrap {
      */
     private static final String REV = Manifests.read("Rultor-Revision");
 
+    /**
+     * Secret shared with Github web hooks, empty if not configured.
+     */
+    private static final String HOOK = TkApp.hook();
+
     /**
      * Ctor.
      * @param talks Talks
@@ -71,7 +82,34 @@ public final class TkApp extends TkWrap {
      */
     public TkApp(final Talks talks, final Pulse pulse,
         final Toggles toggles) {
-        super(TkApp.make(talks, pulse, toggles));
+        this(talks, pulse, toggles, "rultor");
+    }
+
+    /**
+     * Ctor.
+     * @param talks Talks
+     * @param pulse Pulse
+     * @param toggles Toggles
+     * @param login My login in Github
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public TkApp(final Talks talks, final Pulse pulse,
+        final Toggles toggles, final String login) {
+        this(talks, pulse, toggles, login, TkApp.HOOK);
+    }
+
+    /**
+     * Ctor.
+     * @param talks Talks
+     * @param pulse Pulse
+     * @param toggles Toggles
+     * @param login My login in Github
+     * @param secret Secret shared with Github, empty to disable /hook
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public TkApp(final Talks talks, final Pulse pulse,
+        final Toggles toggles, final String login, final String secret) {
+        super(TkApp.make(talks, pulse, toggles, login, secret));
     }
 
     /**
@@ -79,10 +117,13 @@ public final class TkApp extends TkWrap {
      * @param talks Talks
      * @param pulse Pulse
      * @param toggles Toggles
+     * @param login My login in Github
+     * @param secret Secret shared with Github
      * @return Takes
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
-    private static Take make(final Talks talks,
-        final Pulse pulse, final Toggles toggles) {
+    private static Take make(final Talks talks, final Pulse pulse,
+        final Toggles toggles, final String login, final String secret) {
         if (!"UTF-8".equals(Charset.defaultCharset().name())) {
             throw new IllegalStateException(
                 String.format(
@@ -98,7 +139,10 @@ public final class TkApp extends TkWrap {
                             new TkAppFallback(
                                 new TkAppAuth(
                                     new TkForward(
-                                        TkApp.regex(talks, pulse, toggles)
+                                        TkApp.regex(
+                                            talks, pulse, toggles,
+                                            login, secret
+                                        )
                                     )
                                 )
                             )
@@ -116,41 +160,83 @@ public final class TkApp extends TkWrap {
      * @param talks Talks
      * @param pulse Pulse
      * @param toggles Toggles
+     * @param login My login in Github
+     * @param secret Secret shared with Github
      * @return Takes
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
-    private static Take regex(final Talks talks,
-        final Pulse pulse, final Toggles toggles) {
-        return new TkFork(
-            new FkRegex("/robots.txt", ""),
-            new FkRegex("/ticks", new TkTicks(pulse)),
-            new FkRegex("/status", new TkStatus(pulse)),
-            new FkRegex("/s/.*", new TkRedirect()),
-            new FkRegex("/sitemap", new TkSitemap(talks)),
-            new FkRegex(
-                "/xsl/.*",
-                new TkWithType(new TkClasspath(), "text/xsl")
-            ),
-            new FkRegex(
-                "/js/.*",
-                new TkWithType(new TkClasspath(), "text/javascript")
-            ),
-            new FkRegex(
-                "/css/.*",
-                new TkWithType(new TkClasspath(), "text/css")
-            ),
-            new FkRegex("/", new TkHome(talks, toggles)),
-            new FkRegex("/b/([/a-zA-Z0-9_\\-\\.]+)", new TkButton()),
-            new FkRegex("/t/([0-9]+)-([a-f0-9]+)", new TkDaemon(talks)),
-            new FkRegex("/p/([/a-zA-Z0-9_\\-\\.]+)", new TkSiblings(talks)),
-            new FkAdminOnly(
-                new TkFork(
-                    new FkRegex("/t/([0-9]+)", new TkTalk(talks)),
-                    new FkRegex("/t/([0-9]+)/kill", new TkTalkKill(talks)),
-                    new FkRegex("/t/([0-9]+)/delete", new TkTalkDelete(talks)),
-                    new FkRegex("/toggles/read-only", new TkToggles(toggles))
+    private static Take regex(final Talks talks, final Pulse pulse,
+        final Toggles toggles, final String login, final String secret) {
+        final Collection<Fork> forks = new ArrayList<>(0);
+        forks.addAll(
+            Arrays.<Fork>asList(
+                new FkRegex("/robots.txt", ""),
+                new FkRegex("/ticks", new TkTicks(pulse)),
+                new FkRegex("/status", new TkStatus(pulse)),
+                new FkRegex("/s/.*", new TkRedirect()),
+                new FkRegex("/sitemap", new TkSitemap(talks))
+            )
+        );
+        if (!secret.isEmpty()) {
+            forks.add(
+                new FkRegex(
+                    "/hook",
+                    new TkMethods(
+                        new TkHook(talks, secret, login), RqMethod.POST
+                    )
+                )
+            );
+        }
+        forks.addAll(
+            Arrays.<Fork>asList(
+                new FkRegex(
+                    "/xsl/.*",
+                    new TkWithType(new TkClasspath(), "text/xsl")
+                ),
+                new FkRegex(
+                    "/js/.*",
+                    new TkWithType(new TkClasspath(), "text/javascript")
+                ),
+                new FkRegex(
+                    "/css/.*",
+                    new TkWithType(new TkClasspath(), "text/css")
+                ),
+                new FkRegex("/", new TkHome(talks, toggles)),
+                new FkRegex("/b/([/a-zA-Z0-9_\\-\\.]+)", new TkButton()),
+                new FkRegex("/t/([0-9]+)-([a-f0-9]+)", new TkDaemon(talks)),
+                new FkRegex(
+                    "/p/([/a-zA-Z0-9_\\-\\.]+)", new TkSiblings(talks)
+                ),
+                new FkAdminOnly(
+                    new TkFork(
+                        new FkRegex("/t/([0-9]+)", new TkTalk(talks)),
+                        new FkRegex("/t/([0-9]+)/kill", new TkTalkKill(talks)),
+                        new FkRegex(
+                            "/t/([0-9]+)/delete", new TkTalkDelete(talks)
+                        ),
+                        new FkRegex(
+                            "/toggles/read-only", new TkToggles(toggles)
+                        )
+                    )
                 )
             )
         );
+        return new TkFork(forks);
+    }
+
+    /**
+     * Secret shared with Github web hooks.
+     * @return Secret or empty string if it is not configured
+     */
+    private static String hook() {
+        String secret = "";
+        if (Manifests.exists("Rultor-GithubHookSecret")) {
+            secret = Manifests.read("Rultor-GithubHookSecret");
+        }
+        if (secret.startsWith("${")) {
+            secret = "";
+        }
+        return secret;
     }
 
 }
@@ -0,0 +1,322 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.web;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.log.Logger;
+import com.rultor.agents.github.Activation;
+import com.rultor.spi.Talks;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.rq.RqHeaders;
+import org.takes.rs.RsText;
+import org.takes.rs.RsWithStatus;
+
+/**
+ * Github web hook.
+ *
+ * <p>Accepts {@code issue_comment}, {@code issues} and
+ * {@code pull_request} deliveries, signed with the shared secret
+ * (see {@code X-Hub-Signature} in Github docs). A talk is activated
+ * right away when I'm mentioned in the text, or when an issue, a pull
+ * request or a comment is {@code opened} or {@code created} and the talk
+ * for the issue already exists. Edits, labels and other actions that
+ * don't mention me are acknowledged and ignored. The take is mounted
+ * only when the secret is configured, see {@link TkApp}.</p>
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+final class TkHook implements Take {
+
+    /**
+     * HMAC algorithm.
+     */
+    private static final String HMAC = "HmacSHA1";
+
+    /**
+     * Talks.
+     */
+    private final transient Talks talks;
+
+    /**
+     * Secret shared with Github.
+     */
+    private final transient String secret;
+
+    /**
+     * My login in Github.
+     */
+    private final transient String login;
+
+    /**
+     * Ctor.
+     * @param tlks Talks
+     * @param key Secret shared with Github
+     * @param self My login in Github
+     */
+    TkHook(final Talks tlks, final String key, final String self) {
+        this.talks = tlks;
+        this.secret = key;
+        this.login = self;
+    }
+
+    @Override
+    public Response act(final Request req) throws IOException {
+        final byte[] body = IOUtils.toByteArray(req.body());
+        final RqHeaders.Smart headers = new RqHeaders.Smart(
+            new RqHeaders.Base(req)
+        );
+        final String signature = headers.single("X-Hub-Signature", "");
+        final Response response;
+        if (!this.signed(signature, body)) {
+            response = new RsWithStatus(
+                new RsText("invalid signature"),
+                HttpURLConnection.HTTP_FORBIDDEN
+            );
+        } else {
+            response = this.deliver(
+                headers.single("X-GitHub-Event", ""), body
+            );
+        }
+        return response;
+    }
+
+    /**
+     * Deliver the signed payload.
+     * @param event Type of event
+     * @param body Body of the request
+     * @return Response
+     * @throws IOException If fails
+     */
+    private Response deliver(final String event, final byte[] body)
+        throws IOException {
+        Response response;
+        try {
+            final JsonObject json = Json.createReader(
+                new ByteArrayInputStream(body)
+            ).readObject();
+            if (json.get("repository") instanceof JsonObject) {
+                Activation.pushed(TkHook.repo(json));
+            }
+            response = new RsText(this.deliver(event, json));
+        } catch (final JsonException ex) {
+            response = new RsWithStatus(
+                new RsText(
+                    String.format("invalid payload: %s", ex.getMessage())
+                ),
+                HttpURLConnection.HTTP_BAD_REQUEST
+            );
+        }
+        return response;
+    }
+
+    /**
+     * Deliver the event.
+     * @param event Type of event
+     * @param json Payload
+     * @return Summary
+     * @throws IOException If fails
+     */
+    private String deliver(final String event, final JsonObject json)
+        throws IOException {
+        final String summary;
+        if ("issue_comment".equals(event)) {
+            summary = this.deliver(
+                json, TkHook.object(json, "issue"),
+                TkHook.object(json, "comment").getString("body", "")
+            );
+        } else if ("issues".equals(event)) {
+            final JsonObject issue = TkHook.object(json, "issue");
+            summary = this.deliver(json, issue, issue.getString("body", ""));
+        } else if ("pull_request".equals(event)) {
+            final JsonObject pull = TkHook.object(json, "pull_request");
+            summary = this.deliver(json, pull, pull.getString("body", ""));
+        } else {
+            summary = String.format("event \"%s\" ignored", event);
+        }
+        return summary;
+    }
+
+    /**
+     * Deliver the issue event.
+     * @param json Payload
+     * @param issue Issue or pull request JSON
+     * @param text Text of the event
+     * @return Summary
+     * @throws IOException If fails
+     */
+    private String deliver(final JsonObject json, final JsonObject issue,
+        final String text) throws IOException {
+        final Coordinates coords = TkHook.repo(json);
+        final JsonValue num = issue.get("number");
+        if (!(num instanceof JsonNumber)) {
+            throw new JsonException("\"number\" is missing");
+        }
+        final int number = JsonNumber.class.cast(num).intValue();
+        final Activation activation = new Activation(this.talks);
+        final String summary;
+        if (this.mentioned(text)
+            || (TkHook.fresh(json) && activation.exists(coords, number))) {
+            summary = String.format(
+                "talk %s activated",
+                activation.activate(
+                    coords, number, TkHook.string(issue, "html_url")
+                )
+            );
+        } else {
+            summary = String.format("%s#%d ignored", coords, number);
+        }
+        Logger.info(this, "hook delivered: %s", summary);
+        return summary;
+    }
+
+    /**
+     * Repository of the payload.
+     * @param json Payload
+     * @return Coordinates
+     */
+    private static Coordinates repo(final JsonObject json) {
+        final String name = TkHook.string(
+            TkHook.object(json, "repository"), "full_name"
+        );
+        if (!name.matches("[^/]+/[^/]+")) {
+            throw new JsonException(
+                String.format("invalid repository name \"%s\"", name)
+            );
+        }
+        return new Coordinates.Simple(name);
+    }
+
+    /**
+     * Get a child object, which must be there.
+     * @param json Parent object
+     * @param name Name of the child
+     * @return Child object
+     */
+    private static JsonObject object(final JsonObject json,
+        final String name) {
+        final JsonValue value = json.get(name);
+        if (!(value instanceof JsonObject)) {
+            throw new JsonException(
+                String.format("object \"%s\" is missing", name)
+            );
+        }
+        return JsonObject.class.cast(value);
+    }
+
+    /**
+     * Get a string, which must be there.
+     * @param json Parent object
+     * @param name Name of the string
+     * @return String
+     */
+    private static String string(final JsonObject json, final String name) {
+        final JsonValue value = json.get(name);
+        if (!(value instanceof JsonString)) {
+            throw new JsonException(
+                String.format("string \"%s\" is missing", name)
+            );
+        }
+        return JsonString.class.cast(value).getString();
+    }
+
+    /**
+     * Is it a new issue, pull request or comment, not an edit, a label,
+     * a close or any other change of an existing one?
+     * @param json Payload
+     * @return TRUE if it is new
+     */
+    private static boolean fresh(final JsonObject json) {
+        final String action = json.getString("action", "");
+        return "opened".equals(action) || "created".equals(action);
+    }
+
+    /**
+     * Am I mentioned in the text?
+     * @param text The text
+     * @return TRUE if mentioned
+     */
+    private boolean mentioned(final String text) {
+        return text.toLowerCase(Locale.ENGLISH).contains(
+            String.format("@%s", this.login.toLowerCase(Locale.ENGLISH))
+        );
+    }
+
+    /**
+     * Is the body signed with our secret?
+     * @param signature Value of X-Hub-Signature header
+     * @param body Body of the request
+     * @return TRUE if signature is valid
+     * @throws IOException If fails
+     */
+    private boolean signed(final String signature, final byte[] body)
+        throws IOException {
+        final Mac mac;
+        try {
+            mac = Mac.getInstance(TkHook.HMAC);
+            mac.init(
+                new SecretKeySpec(
+                    this.secret.getBytes("UTF-8"), TkHook.HMAC
+                )
+            );
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        } catch (final InvalidKeyException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return MessageDigest.isEqual(
+            String.format(
+                "sha1=%s", Hex.encodeHexString(mac.doFinal(body))
+            ).getBytes("UTF-8"),
+            signature.getBytes("UTF-8")
+        );
+    }
+
+}
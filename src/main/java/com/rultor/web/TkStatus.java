@@ -32,6 +32,9 @@ package com.rultor.web;
 import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Tv;
 import com.jcabi.log.Logger;
+import com.rultor.agents.github.Breaker;
+import com.rultor.agents.github.Budget;
+import com.rultor.cached.CdWire;
 import com.rultor.spi.Pulse;
 import com.rultor.spi.Tick;
 import java.net.HttpURLConnection;
@@ -98,8 +101,23 @@ final class TkStatus implements Take {
                         age
                     )
                 );
+                msg.append(
+                    String.format(
+                        "\n\n%d notification(s) in backlog",
+                        Iterables.getLast(ticks).backlog()
+                    )
+                );
+                msg.append(
+                    String.format(
+                        "\n\n%d agent(s) ran out of time in the last check",
+                        Iterables.getLast(ticks).overdue()
+                    )
+                );
             }
         }
+        msg.append("\n\nGithub: ").append(Budget.GITHUB)
+            .append("; ").append(Breaker.GITHUB)
+            .append("; ").append(CdWire.stats());
         for (final Throwable error : this.pulse.error()) {
             msg.append(Logger.format("\n\n%[exception]s", error));
         }
@@ -43,6 +43,7 @@
                 <xsl:text> * no new requests registered&#10;</xsl:text>
             </xsl:otherwise>
         </xsl:choose>
+        <xsl:apply-templates select="queue[request]"/>
         <xsl:choose>
             <xsl:when test="daemon[started]">
                 <xsl:apply-templates select="daemon"/>
@@ -87,6 +88,20 @@
             </xsl:otherwise>
         </xsl:choose>
     </xsl:template>
+    <xsl:template match="queue[request]">
+        <xsl:text> * </xsl:text>
+        <xsl:value-of select="count(request)"/>
+        <xsl:text> request(s) waiting in the queue: </xsl:text>
+        <xsl:for-each select="request">
+            <xsl:if test="position() &gt; 1">
+                <xsl:text>, </xsl:text>
+            </xsl:if>
+            <xsl:text>`</xsl:text>
+            <xsl:value-of select="type"/>
+            <xsl:text>`</xsl:text>
+        </xsl:for-each>
+        <xsl:text>&#10;</xsl:text>
+    </xsl:template>
     <xsl:template match="args[arg]">
         <xsl:text> * request has </xsl:text>
         <xsl:value-of select="count(arg)"/>
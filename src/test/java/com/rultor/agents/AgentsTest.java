@@ -31,11 +31,38 @@ package com.rultor.agents;
 
 import co.stateful.Sttc;
 import co.stateful.mock.MkSttc;
+import com.jcabi.github.Comment;
 import com.jcabi.github.Github;
+import com.jcabi.github.Issue;
 import com.jcabi.github.mock.MkGithub;
+import com.jcabi.immutable.Array;
+import com.rultor.agents.github.Question;
+import com.rultor.agents.github.Req;
+import com.rultor.agents.github.qtn.QnConfig;
+import com.rultor.agents.github.qtn.QnDeploy;
+import com.rultor.agents.github.qtn.QnHello;
+import com.rultor.agents.github.qtn.QnIfContains;
+import com.rultor.agents.github.qtn.QnIfPull;
+import com.rultor.agents.github.qtn.QnIfUnlocked;
+import com.rultor.agents.github.qtn.QnLock;
+import com.rultor.agents.github.qtn.QnMerge;
+import com.rultor.agents.github.qtn.QnRelease;
+import com.rultor.agents.github.qtn.QnStatus;
+import com.rultor.agents.github.qtn.QnStop;
+import com.rultor.agents.github.qtn.QnUnlock;
+import com.rultor.agents.github.qtn.QnVersion;
 import com.rultor.spi.Profile;
 import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.xembly.Directives;
 
 /**
  * Tests for ${@link Agents}.
@@ -43,9 +70,62 @@ import org.junit.Test;
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 1.7
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
  */
 public final class AgentsTest {
 
+    /**
+     * Comments, as they were posted to Github.
+     */
+    private static final String[] CORPUS = {
+        "@rultor hello",
+        "@rultor merge",
+        "@rultor Merge, please",
+        "@rultor please deploy",
+        "@rultor release, tag is `1.0`",
+        "@rultor status",
+        "@rultor what's your version?",
+        "@rultor unlock branch is `master`",
+        "@rultor lock branch is `dev`",
+        "@rultor stop it please",
+        "@rultor stop the merge",
+        "@rultor show me the config",
+        "@rultor thanks!",
+        "@rultor good job",
+        "@rultor MERGE and deploy",
+        "@rultor redeploy",
+        "@rultor what is the status of the release?",
+        "@rultor please unlock",
+        "@rultor try again",
+        "@rultor \n\n deploy",
+        "@rultor release, tag is `0.7`, and please hurry",
+        "@rultor what about tag is `merge`?",
+        "@rultor stop_merge",
+    };
+
+    /**
+     * Verbs, as the chain of questions looked for them.
+     */
+    private static final String[] VERBS = {
+        "config", "status", "version", "hello", "stop",
+        "unlock", "lock", "merge", "deploy", "release",
+    };
+
+    /**
+     * Guards in the order the main commands used to run them.
+     */
+    private static final List<String> BEFORE = Arrays.asList(
+        "follow", "collaborator", "alone", "architect"
+    );
+
+    /**
+     * Guards in the order the main commands run them now.
+     */
+    private static final List<String> AFTER = Arrays.asList(
+        "collaborator", "architect", "alone", "follow"
+    );
+
     /**
      * Agents can process a talk.
      * @throws Exception In case of error.
@@ -59,4 +139,246 @@ public final class AgentsTest {
         new Agents(github, sttc).agent(talk, profile).execute(talk);
     }
 
+    /**
+     * Agents can dispatch comments exactly as the chain of questions
+     * it replaced did, running the same guards in the new order, rate
+     * limits only for known commands and no guards at all for unknown
+     * commands.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void dispatchesLikeChainOfQuestions() throws Exception {
+        final Talk talk = new Talk.InFile();
+        final Profile profile = new Profile.Fixed();
+        final Issue issue = new MkGithub().randomRepo().issues()
+            .create("", "");
+        final URI home = new URI("#");
+        for (final String body : AgentsTest.CORPUS) {
+            final Comment.Smart comment = new Comment.Smart(
+                issue.comments().post(body)
+            );
+            final AgentsTest.Recording old = new AgentsTest.Recording();
+            final String expected = AgentsTest.print(
+                AgentsTest.chain(talk, profile, old).understand(comment, home)
+            );
+            final AgentsTest.Recording guards = new AgentsTest.Recording();
+            MatcherAssert.assertThat(
+                body,
+                AgentsTest.print(
+                    Agents.dispatcher(talk, profile, guards)
+                        .understand(comment, home)
+                ),
+                Matchers.equalTo(expected)
+            );
+            final List<String> log = new LinkedList<>(guards.log());
+            MatcherAssert.assertThat(
+                body, !log.isEmpty() && "rated".equals(log.remove(0)),
+                Matchers.is(AgentsTest.known(body))
+            );
+            MatcherAssert.assertThat(
+                body, log,
+                Matchers.equalTo(AgentsTest.reordered(old.log(), log))
+            );
+        }
+    }
+
+    /**
+     * Agents can guard the main commands in the order of their cost.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void guardsCommandsInOrder() throws Exception {
+        final Issue issue = new MkGithub().randomRepo().issues()
+            .create("", "");
+        final AgentsTest.Recording guards = new AgentsTest.Recording();
+        final Question question = Agents.dispatcher(
+            new Talk.InFile(), new Profile.Fixed(), guards
+        );
+        question.understand(
+            new Comment.Smart(issue.comments().post("@rultor thanks!")),
+            new URI("#")
+        );
+        MatcherAssert.assertThat(guards.log(), Matchers.<String>empty());
+        question.understand(
+            new Comment.Smart(issue.comments().post("@rultor deploy")),
+            new URI("#")
+        );
+        MatcherAssert.assertThat(
+            guards.log(),
+            Matchers.contains(
+                "rated", "collaborator", "architect", "alone", "follow",
+                "asked-by-deploy"
+            )
+        );
+    }
+
+    /**
+     * The chain of questions that understood comments before they were
+     * dispatched by their verbs.
+     * @param talk Talk
+     * @param profile Profile
+     * @param guards Guards
+     * @return Question
+     */
+    private static Question chain(final Talk talk, final Profile profile,
+        final Guards guards) {
+        return new Question.FirstOf(
+            new Array<Question>(
+                new QnIfContains("config", new QnConfig(profile)),
+                new QnIfContains("status", new QnStatus(talk)),
+                new QnIfContains("version", new QnVersion()),
+                new QnIfContains("hello", new QnHello()),
+                new QnIfContains(
+                    "stop", guards.askedBy("stop", new QnStop())
+                ),
+                guards.follow(
+                    guards.collaborator(
+                        guards.alone(
+                            guards.architect(AgentsTest.commands(guards))
+                        )
+                    )
+                )
+            )
+        );
+    }
+
+    /**
+     * The chain of main commands, as it was.
+     * @param guards Guards
+     * @return Question
+     */
+    private static Question commands(final Guards guards) {
+        return new Question.FirstOf(
+            new Array<Question>(
+                new QnIfContains("unlock", new QnUnlock()),
+                new QnIfContains("lock", new QnLock()),
+                new QnIfContains(
+                    "merge",
+                    guards.askedBy(
+                        "merge",
+                        new QnIfPull(new QnIfUnlocked(new QnMerge()))
+                    )
+                ),
+                new QnIfContains(
+                    "deploy", guards.askedBy("deploy", new QnDeploy())
+                ),
+                new QnIfContains(
+                    "release", guards.askedBy("release", new QnRelease())
+                )
+            )
+        );
+    }
+
+    /**
+     * Guards the new dispatcher must run, given the ones the old chain
+     * ran: the main commands are guarded in the new order, but only if
+     * there is a verb for them.
+     * @param old Guards the old chain ran
+     * @param log Guards the new dispatcher ran
+     * @return Guards expected
+     */
+    private static List<String> reordered(final List<String> old,
+        final List<String> log) {
+        final List<String> expected = new LinkedList<>();
+        final int size = AgentsTest.BEFORE.size();
+        if (old.size() >= size
+            && old.subList(0, size).equals(AgentsTest.BEFORE)) {
+            final List<String> rest = old.subList(size, old.size());
+            if (!log.isEmpty() || !rest.isEmpty()) {
+                expected.addAll(AgentsTest.AFTER);
+                expected.addAll(rest);
+            }
+        } else {
+            expected.addAll(old);
+        }
+        return expected;
+    }
+
+    /**
+     * Does the comment have any verb, as the chain of questions saw it?
+     * @param body Text of the comment
+     * @return TRUE if it has
+     */
+    private static boolean known(final String body) {
+        final String lower = body.toLowerCase(Locale.ENGLISH);
+        boolean found = false;
+        for (final String verb : AgentsTest.VERBS) {
+            found |= lower.contains(verb);
+        }
+        return found;
+    }
+
+    /**
+     * Print request.
+     * @param req Request
+     * @return Text
+     */
+    private static String print(final Req req) {
+        final String text;
+        if (req.equals(Req.EMPTY)) {
+            text = "EMPTY";
+        } else {
+            text = new Directives(req.dirs()).toString();
+        }
+        return text;
+    }
+
+    /**
+     * Guards that let everybody in and record their names.
+     */
+    private static final class Recording implements Guards {
+        /**
+         * Names of guards, in the order they ran.
+         */
+        private final transient List<String> names = new LinkedList<>();
+        /**
+         * Names of guards that ran.
+         * @return Names
+         */
+        public List<String> log() {
+            return this.names;
+        }
+        @Override
+        public Question rated(final Question origin) {
+            return this.guard("rated", origin);
+        }
+        @Override
+        public Question follow(final Question origin) {
+            return this.guard("follow", origin);
+        }
+        @Override
+        public Question collaborator(final Question origin) {
+            return this.guard("collaborator", origin);
+        }
+        @Override
+        public Question architect(final Question origin) {
+            return this.guard("architect", origin);
+        }
+        @Override
+        public Question alone(final Question origin) {
+            return this.guard("alone", origin);
+        }
+        @Override
+        public Question askedBy(final String section, final Question origin) {
+            return this.guard(String.format("asked-by-%s", section), origin);
+        }
+        /**
+         * Make a guard that records its name.
+         * @param name Name of the guard
+         * @param origin Original question
+         * @return Question
+         */
+        private Question guard(final String name, final Question origin) {
+            final List<String> log = this.names;
+            return new Question() {
+                @Override
+                public Req understand(final Comment.Smart comment,
+                    final URI home) throws IOException {
+                    log.add(name);
+                    return origin.understand(comment, home);
+                }
+            };
+        }
+    }
+
 }
@@ -0,0 +1,329 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.immutable.Array;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.jcabi.xml.XML;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Tests for ${@link Concurrent}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ */
+public final class ConcurrentTest {
+
+    /**
+     * Concurrent can run independent agents at the same time.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void runsIndependentAgentsTogether() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final Talk talk = new Talk.InFile();
+        new Concurrent(
+            new ConcurrentTest.Waiting(latch, "first"),
+            new ConcurrentTest.Waiting(latch, "second")
+        ).execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk/outbox/message[1][@id='first']",
+                "/talk/outbox/message[2][@id='second']"
+            )
+        );
+    }
+
+    /**
+     * Concurrent can run dependent agents one after another.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void runsDependentAgentsInOrder() throws Exception {
+        final Talk talk = new Talk.InFile();
+        new Concurrent(
+            new ConcurrentTest.Waiting(new CountDownLatch(0), "one"),
+            new ConcurrentTest.Counting()
+        ).execute(talk);
+        MatcherAssert.assertThat(
+            talk.read().xpath("/talk/outbox/message/@id"),
+            Matchers.contains("one", "seen-1")
+        );
+    }
+
+    /**
+     * Concurrent can drop directives of agents after a failed one.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void dropsChangesAfterFailedAgent() throws Exception {
+        final Talk talk = new Talk.InFile();
+        final CountDownLatch latch = new CountDownLatch(0);
+        String error = "";
+        try {
+            new Concurrent(
+                new ConcurrentTest.Waiting(latch, "before"),
+                new ConcurrentTest.Failing(),
+                new ConcurrentTest.Waiting(latch, "after")
+            ).execute(talk);
+        } catch (final IOException ex) {
+            error = ex.getMessage();
+        }
+        MatcherAssert.assertThat(error, Matchers.equalTo("release failed"));
+        MatcherAssert.assertThat(
+            talk.read().xpath("/talk/outbox/message/@id"),
+            Matchers.contains("before")
+        );
+    }
+
+    /**
+     * Concurrent can run agents that call the same service one after
+     * another.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void runsAgentsOfOneServiceInOrder() throws Exception {
+        final Talk talk = new Talk.InFile();
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger most = new AtomicInteger();
+        new Concurrent(
+            new ConcurrentTest.Calling(active, most, "tag"),
+            new ConcurrentTest.Calling(active, most, "star")
+        ).execute(talk);
+        MatcherAssert.assertThat(most.get(), Matchers.is(1));
+        MatcherAssert.assertThat(
+            talk.read().xpath("/talk/outbox/message/@id"),
+            Matchers.contains("tag", "star")
+        );
+    }
+
+    /**
+     * Agent that waits for others to start, then adds a message.
+     */
+    private static final class Waiting extends AbstractAgent
+        implements Footprint {
+        /**
+         * Latch.
+         */
+        private final transient CountDownLatch latch;
+        /**
+         * ID of the message.
+         */
+        private final transient String name;
+        /**
+         * Ctor.
+         * @param ltch Latch to count down and wait for
+         * @param label ID of the message
+         */
+        Waiting(final CountDownLatch ltch, final String label) {
+            super("/talk");
+            this.latch = ltch;
+            this.name = label;
+        }
+        @Override
+        public Iterable<Directive> process(final XML xml) throws IOException {
+            this.latch.countDown();
+            try {
+                MatcherAssert.assertThat(
+                    this.latch.await(1L, TimeUnit.MINUTES),
+                    Matchers.is(true)
+                );
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+            return ConcurrentTest.message(this.name);
+        }
+        @Override
+        public Iterable<String> reads() {
+            return Collections.emptyList();
+        }
+        @Override
+        public Iterable<String> writes() {
+            return new Array<>("outbox");
+        }
+        @Override
+        public Iterable<String> services() {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Agent that counts messages it sees.
+     */
+    private static final class Counting extends AbstractAgent
+        implements Footprint {
+        /**
+         * Ctor.
+         */
+        Counting() {
+            super("/talk");
+        }
+        @Override
+        public Iterable<Directive> process(final XML xml) {
+            return ConcurrentTest.message(
+                String.format(
+                    "seen-%d", xml.nodes("/talk/outbox/message").size()
+                )
+            );
+        }
+        @Override
+        public Iterable<String> reads() {
+            return new Array<>("outbox");
+        }
+        @Override
+        public Iterable<String> writes() {
+            return new Array<>("outbox");
+        }
+        @Override
+        public Iterable<String> services() {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Agent that calls Github for a while, then adds a message.
+     */
+    private static final class Calling extends AbstractAgent
+        implements Footprint {
+        /**
+         * Agents calling now.
+         */
+        private final transient AtomicInteger active;
+        /**
+         * Most agents calling at once.
+         */
+        private final transient AtomicInteger most;
+        /**
+         * ID of the message.
+         */
+        private final transient String name;
+        /**
+         * Ctor.
+         * @param now Agents calling now
+         * @param max Most agents calling at once
+         * @param label ID of the message
+         * @checkstyle ParameterNumberCheck (3 lines)
+         */
+        Calling(final AtomicInteger now, final AtomicInteger max,
+            final String label) {
+            super("/talk");
+            this.active = now;
+            this.most = max;
+            this.name = label;
+        }
+        @Override
+        public Iterable<Directive> process(final XML xml) throws IOException {
+            final int calling = this.active.incrementAndGet();
+            synchronized (this.most) {
+                this.most.set(Math.max(this.most.get(), calling));
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep((long) Tv.HUNDRED);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            } finally {
+                this.active.decrementAndGet();
+            }
+            return ConcurrentTest.message(this.name);
+        }
+        @Override
+        public Iterable<String> reads() {
+            return Collections.emptyList();
+        }
+        @Override
+        public Iterable<String> writes() {
+            return new Array<>("outbox");
+        }
+        @Override
+        public Iterable<String> services() {
+            return new Array<>("github");
+        }
+    }
+
+    /**
+     * Agent that always fails.
+     */
+    private static final class Failing extends AbstractAgent
+        implements Footprint {
+        /**
+         * Ctor.
+         */
+        Failing() {
+            super("/talk");
+        }
+        @Override
+        public Iterable<Directive> process(final XML xml) throws IOException {
+            throw new IOException("release failed");
+        }
+        @Override
+        public Iterable<String> reads() {
+            return Collections.emptyList();
+        }
+        @Override
+        public Iterable<String> writes() {
+            return Collections.emptyList();
+        }
+        @Override
+        public Iterable<String> services() {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Directives to add a message to the outbox.
+     * @param name ID of the message
+     * @return Directives
+     */
+    private static Iterable<Directive> message(final String name) {
+        return new Directives().xpath("/talk").addIf("outbox")
+            .add("message").attr("id", name).attr("to", "github")
+            .add("text").set("hi").up()
+            .add("attempts").set("0").up()
+            .add("after").set("2015-01-01T00:00:00Z");
+    }
+
+}
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents;
+
+import com.jcabi.matchers.XhtmlMatchers;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Agent;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+
+/**
+ * Tests for ${@link TimedAgent}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class TimedAgentTest {
+
+    /**
+     * TimedAgent can let a fast agent modify the talk.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void passesFastAgent() throws Exception {
+        final Talk talk = new Talk.InFile();
+        new TimedAgent(
+            new Agent() {
+                @Override
+                public void execute(final Talk tlk) throws IOException {
+                    tlk.modify(
+                        new Directives().xpath("/talk")
+                            .add("ec2").attr("id", "i-1")
+                    );
+                }
+            }
+        ).execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPath("/talk/ec2")
+        );
+    }
+
+    /**
+     * TimedAgent can interrupt a slow agent.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void interruptsSlowAgent() throws Exception {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        new TimedAgent(
+            new Agent() {
+                @Override
+                public void execute(final Talk tlk) {
+                    try {
+                        TimeUnit.MINUTES.sleep(1L);
+                    } catch (final InterruptedException ex) {
+                        interrupted.countDown();
+                    }
+                }
+            },
+            1L, TimeUnit.SECONDS
+        ).execute(new Talk.InFile());
+        MatcherAssert.assertThat(
+            interrupted.await(1L, TimeUnit.MINUTES),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            TimedAgent.overdue(), Matchers.greaterThanOrEqualTo(1L)
+        );
+    }
+
+    /**
+     * TimedAgent can reject changes of an agent that is out of time.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void rejectsLateChanges() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+        final Talk talk = new Talk.InFile();
+        new TimedAgent(
+            new Agent() {
+                @Override
+                public void execute(final Talk tlk) {
+                    boolean waiting = true;
+                    while (waiting) {
+                        try {
+                            release.await();
+                            waiting = false;
+                        } catch (final InterruptedException ex) {
+                            waiting = true;
+                        }
+                    }
+                    try {
+                        tlk.modify(
+                            new Directives().xpath("/talk")
+                                .add("ec2").attr("id", "i-2")
+                        );
+                    } catch (final IOException ex) {
+                        errors.add(ex);
+                    }
+                }
+            },
+            1L, TimeUnit.SECONDS
+        ).execute(talk);
+        release.countDown();
+        MatcherAssert.assertThat(
+            errors.poll(1L, TimeUnit.MINUTES),
+            Matchers.instanceOf(IOException.class)
+        );
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPath("/talk[not(ec2)]")
+        );
+    }
+
+    /**
+     * TimedAgent can give the agent a deadline.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void givesAgentDeadline() throws Exception {
+        final BlockingQueue<Integer> timeouts = new LinkedBlockingQueue<>();
+        new TimedAgent(
+            new Agent() {
+                @Override
+                public void execute(final Talk tlk) throws IOException {
+                    Deadline.check();
+                    timeouts.add(Deadline.timeout());
+                }
+            },
+            1L, TimeUnit.MINUTES
+        ).execute(new Talk.InFile());
+        MatcherAssert.assertThat(
+            timeouts.poll(),
+            Matchers.allOf(
+                Matchers.greaterThan(0),
+                Matchers.lessThanOrEqualTo(
+                    (int) TimeUnit.MINUTES.toMillis(1L)
+                )
+            )
+        );
+        MatcherAssert.assertThat(Deadline.timeout(), Matchers.is(0));
+    }
+
+    /**
+     * TimedAgent can skip an agent of a talk with too many stuck threads.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void skipsAgentWhenThreadsOfTalkAreBusy() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Talk stuck = TimedAgentTest.talk("stuck");
+        try {
+            for (int idx = 0; idx < TimedAgent.MAX; ++idx) {
+                new TimedAgent(
+                    new Agent() {
+                        @Override
+                        public void execute(final Talk tlk) {
+                            boolean waiting = true;
+                            while (waiting) {
+                                try {
+                                    release.await();
+                                    waiting = false;
+                                } catch (final InterruptedException ex) {
+                                    waiting = true;
+                                }
+                            }
+                        }
+                    },
+                    1L, TimeUnit.SECONDS
+                ).execute(stuck);
+            }
+            final Talk other = TimedAgentTest.talk("other");
+            final Agent agent = new TimedAgent(
+                new Agent() {
+                    @Override
+                    public void execute(final Talk tlk) throws IOException {
+                        tlk.modify(
+                            new Directives().xpath("/talk")
+                                .add("ec2").attr("id", "i-3")
+                        );
+                    }
+                }
+            );
+            agent.execute(stuck);
+            agent.execute(other);
+            MatcherAssert.assertThat(
+                stuck.read(),
+                XhtmlMatchers.hasXPath("/talk[not(ec2)]")
+            );
+            MatcherAssert.assertThat(
+                other.read(),
+                XhtmlMatchers.hasXPath("/talk/ec2")
+            );
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Make a talk with a unique name.
+     * @param prefix Prefix of the name
+     * @return Talk
+     * @throws IOException If fails
+     */
+    private static Talk talk(final String prefix) throws IOException {
+        return new Talk.InFile(
+            new XMLDocument(
+                String.format(
+                    "<talk name='%s-%d' number='1' later='false'/>",
+                    prefix, System.nanoTime()
+                )
+            )
+        );
+    }
+
+}
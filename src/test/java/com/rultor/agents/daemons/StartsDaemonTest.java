@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.daemons;
+
+import com.jcabi.matchers.XhtmlMatchers;
+import com.rultor.Time;
+import com.rultor.spi.Agent;
+import com.rultor.spi.Profile;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.net.ServerSocket;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.xembly.Directives;
+
+/**
+ * Tests for ${@link StartsDaemon}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ */
+public final class StartsDaemonTest {
+
+    /**
+     * StartsDaemon can schedule a retry, instead of waiting for it.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void schedulesRetryWhenShellIsDown() throws Exception {
+        final Talk talk = StartsDaemonTest.talk();
+        final Agent agent = new StartsDaemon(Mockito.mock(Profile.class));
+        agent.execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk/daemon[attempts=1 and after]",
+                "/talk/daemon[not(started) and not(ended)]"
+            )
+        );
+        final String after = talk.read()
+            .xpath("/talk/daemon/after/text()").get(0);
+        MatcherAssert.assertThat(
+            new Time(after).msec(),
+            Matchers.greaterThan(System.currentTimeMillis())
+        );
+        agent.execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk/daemon[attempts=1]",
+                String.format("/talk/daemon[after='%s']", after)
+            )
+        );
+    }
+
+    /**
+     * StartsDaemon can give up after a few attempts.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void givesUpAfterLastAttempt() throws Exception {
+        final Talk talk = StartsDaemonTest.talk();
+        talk.modify(
+            new Directives().xpath("/talk/daemon")
+                .add("attempts").set("2").up()
+                .add("after").set(new Time(0L).iso())
+        );
+        new StartsDaemon(Mockito.mock(Profile.class)).execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk/daemon[started and ended]",
+                "/talk/daemon[code=128 and tail]"
+            )
+        );
+    }
+
+    /**
+     * Make a talk with a daemon and a shell nobody listens to.
+     * @return Talk
+     * @throws IOException If fails
+     */
+    private static Talk talk() throws IOException {
+        final int port;
+        final ServerSocket socket = new ServerSocket(0);
+        try {
+            port = socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+        final Talk talk = new Talk.InFile();
+        talk.modify(
+            new Directives().xpath("/talk")
+                .add("shell").attr("id", "abcdef")
+                .add("host").set("localhost").up()
+                .add("port").set(Integer.toString(port)).up()
+                .add("login").set("nobody").up()
+                .add("key").set("not a key").up().up()
+                .add("daemon").attr("id", "fedcba")
+                .add("title").set("some operation").up()
+                .add("script").set("ls -al")
+        );
+        return talk;
+    }
+
+}
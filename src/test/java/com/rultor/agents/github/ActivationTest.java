@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.xembly.Directives;
+
+/**
+ * Tests for ${@link Activation}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class ActivationTest {
+
+    /**
+     * Activation can skip a talk that is already waiting.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void skipsAlreadyActivatedTalk() throws Exception {
+        final Talk talk = Mockito.mock(Talk.class);
+        Mockito.doReturn(
+            new XMLDocument(
+                "<talk later='true'><wire><href>#</href></wire></talk>"
+            )
+        ).when(talk).read();
+        Mockito.doReturn("a/b#1").when(talk).name();
+        final Talks talks = Mockito.mock(Talks.class);
+        Mockito.doReturn(true).when(talks).exists("a/b#1");
+        Mockito.doReturn(talk).when(talks).get("a/b#1");
+        MatcherAssert.assertThat(
+            new Activation(talks).activate(
+                new Coordinates.Simple("a/b"), 1, "#"
+            ),
+            Matchers.equalTo("a/b#1")
+        );
+        Mockito.verify(talk, Mockito.never())
+            .modify(Mockito.any(Directives.class));
+        Mockito.verify(talk, Mockito.never()).active(Mockito.anyBoolean());
+    }
+
+    /**
+     * Activation can create just one talk for an issue activated
+     * by many threads at once.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void activatesSameIssueConcurrently() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final Coordinates coords = new Coordinates.Simple("a/c");
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService svc = Executors.newFixedThreadPool(threads);
+        final Collection<Future<String>> futures =
+            new ArrayList<Future<String>>(threads);
+        for (int idx = 0; idx < threads; ++idx) {
+            futures.add(
+                svc.submit(
+                    new Callable<String>() {
+                        @Override
+                        public String call() throws Exception {
+                            start.await();
+                            return new Activation(talks).activate(
+                                coords, 1, "#"
+                            );
+                        }
+                    }
+                )
+            );
+        }
+        start.countDown();
+        try {
+            for (final Future<String> future : futures) {
+                MatcherAssert.assertThat(
+                    future.get(1L, TimeUnit.MINUTES),
+                    Matchers.equalTo("a/c#1")
+                );
+            }
+        } finally {
+            svc.shutdown();
+        }
+        MatcherAssert.assertThat(
+            talks.active(),
+            Matchers.<Talk>iterableWithSize(1)
+        );
+        MatcherAssert.assertThat(
+            talks.get("a/c#1").read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk[@later='true']",
+                "/talk/wire[href='#' and github-issue='1']"
+            )
+        );
+    }
+
+    /**
+     * Activation can remember hook deliveries per repository.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void remembersDeliveriesPerRepo() throws Exception {
+        Activation.pushed(new Coordinates.Simple("Jeff/Hooked"));
+        MatcherAssert.assertThat(
+            Activation.pushedWithin(
+                new Coordinates.Simple("jeff/hooked"), 1L
+            ),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            Activation.pushedWithin(
+                new Coordinates.Simple("jeff/unhooked"), 1L
+            ),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            Activation.pushedWithin(1L),
+            Matchers.is(true)
+        );
+    }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.aspects.Tv;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for ${@link Breaker}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class BreakerTest {
+
+    /**
+     * Breaker can open when calls fail.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void opensOnFailures() throws Exception {
+        final Breaker breaker = new Breaker();
+        for (int idx = 0; idx < Tv.TEN; ++idx) {
+            breaker.record(1L, idx % 2 == 0);
+        }
+        MatcherAssert.assertThat(breaker.isOpen(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            breaker.toString(),
+            Matchers.containsString("circuit is open")
+        );
+    }
+
+    /**
+     * Breaker can open when calls are too slow.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void opensOnSlowCalls() throws Exception {
+        final Breaker breaker = new Breaker();
+        for (int idx = 0; idx < Tv.TEN; ++idx) {
+            breaker.record((long) Tv.MILLION, false);
+        }
+        MatcherAssert.assertThat(breaker.isOpen(), Matchers.is(true));
+    }
+
+    /**
+     * Breaker can stay closed when most calls succeed.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void staysClosedOnRareFailures() throws Exception {
+        final Breaker breaker = new Breaker();
+        for (int idx = 0; idx < Tv.HUNDRED; ++idx) {
+            breaker.record(1L, idx % Tv.THREE == 0);
+        }
+        MatcherAssert.assertThat(breaker.isOpen(), Matchers.is(false));
+        MatcherAssert.assertThat(breaker.due(), Matchers.is(false));
+    }
+
+    /**
+     * Breaker can close after a successful probe.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void closesAfterProbe() throws Exception {
+        final Breaker breaker = new Breaker();
+        for (int idx = 0; idx < Tv.TEN; ++idx) {
+            breaker.record(1L, true);
+        }
+        breaker.probed(false);
+        MatcherAssert.assertThat(breaker.isOpen(), Matchers.is(true));
+        breaker.probed(true);
+        MatcherAssert.assertThat(breaker.isOpen(), Matchers.is(false));
+    }
+
+}
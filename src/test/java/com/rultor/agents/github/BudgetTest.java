@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.http.Response;
+import com.jcabi.http.request.FakeRequest;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for ${@link Budget}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class BudgetTest {
+
+    /**
+     * Budget can allow everything when quota is not known.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void allowsWhenUnknown() throws Exception {
+        MatcherAssert.assertThat(
+            new Budget().allows(Budget.LOW), Matchers.is(true)
+        );
+    }
+
+    /**
+     * Budget can shed low priority calls when quota is low.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void shedsLowPriorityCalls() throws Exception {
+        final Budget budget = new Budget();
+        budget.update(BudgetTest.fetch("100", BudgetTest.later()));
+        MatcherAssert.assertThat(
+            budget.allows(Budget.LOW), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            budget.allows(0.0d), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            budget, Matchers.hasToString(Matchers.containsString("100 of"))
+        );
+    }
+
+    /**
+     * Budget can allow low priority calls when quota is high.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void allowsLowPriorityCallsWithEnoughQuota() throws Exception {
+        final Budget budget = new Budget();
+        budget.update(BudgetTest.fetch("4000", BudgetTest.later()));
+        MatcherAssert.assertThat(
+            budget.allows(Budget.LOW), Matchers.is(true)
+        );
+    }
+
+    /**
+     * Budget can allow everything after the reset.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void allowsAfterReset() throws Exception {
+        final Budget budget = new Budget();
+        budget.update(BudgetTest.fetch("0", "1"));
+        MatcherAssert.assertThat(
+            budget.allows(Budget.LOW), Matchers.is(true)
+        );
+    }
+
+    /**
+     * Budget can ignore broken headers and keep the last known values.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void keepsLastValuesOnBrokenHeaders() throws Exception {
+        final Budget budget = new Budget();
+        budget.update(BudgetTest.fetch("100", BudgetTest.later()));
+        budget.update(BudgetTest.fetch("many", "soon"));
+        MatcherAssert.assertThat(
+            budget.allows(Budget.LOW), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            budget, Matchers.hasToString(Matchers.containsString("100 of"))
+        );
+    }
+
+    /**
+     * Budget can keep quotas of different resources apart.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void keepsResourcesApart() throws Exception {
+        final Budget budget = new Budget();
+        budget.update(
+            new FakeRequest()
+                .withHeader("X-RateLimit-Resource", "search")
+                .withHeader("X-RateLimit-Limit", "30")
+                .withHeader("X-RateLimit-Remaining", "0")
+                .withHeader("X-RateLimit-Reset", BudgetTest.later())
+                .fetch()
+        );
+        MatcherAssert.assertThat(
+            budget.allows(Budget.LOW), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            budget.allows("search", Budget.LOW), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            budget, Matchers.hasToString(Matchers.containsString("search: "))
+        );
+    }
+
+    /**
+     * Budget can shed the lowest priority calls before low priority ones.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void shedsLowestPriorityCallsFirst() throws Exception {
+        final Budget budget = new Budget();
+        budget.update(BudgetTest.fetch("2000", BudgetTest.later()));
+        MatcherAssert.assertThat(
+            budget.allows(Budget.LOWEST), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            budget.allows(Budget.LOW), Matchers.is(true)
+        );
+    }
+
+    /**
+     * Make a response with rate limit headers.
+     * @param left Calls left
+     * @param reset Reset time, in seconds since epoch
+     * @return Response
+     * @throws Exception If fails
+     */
+    private static Response fetch(final String left,
+        final String reset) throws Exception {
+        return new FakeRequest()
+            .withHeader("X-RateLimit-Limit", "5000")
+            .withHeader("X-RateLimit-Remaining", left)
+            .withHeader("X-RateLimit-Reset", reset)
+            .fetch();
+    }
+
+    /**
+     * Reset time an hour later.
+     * @return Seconds since epoch
+     */
+    private static String later() {
+        return Long.toString(
+            TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis())
+                + TimeUnit.HOURS.toSeconds(1L)
+        );
+    }
+
+}
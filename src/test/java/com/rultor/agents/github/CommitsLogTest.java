@@ -30,16 +30,21 @@
 package com.rultor.agents.github;
 
 import com.jcabi.aspects.Tv;
+import com.jcabi.github.CommitsComparison;
+import com.jcabi.github.Coordinates;
 import com.jcabi.github.Repo;
 import com.jcabi.github.RepoCommit;
 import com.jcabi.github.RepoCommits;
 import java.io.IOException;
-import java.util.Collection;
+import java.util.AbstractList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.json.Json;
+import javax.json.JsonArrayBuilder;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
@@ -82,24 +87,83 @@ public final class CommitsLogTest {
     }
 
     /**
-     * CommitsLog can create a log for release.
+     * CommitsLog can stop listing commits right after the ones shown.
      * @throws Exception In case of error.
      */
     @Test
     @SuppressWarnings("unchecked")
     public void createsLongReleaseLog() throws Exception {
         final RepoCommits commits = Mockito.mock(RepoCommits.class);
-        final Collection<RepoCommit> list = new LinkedList<>();
+        final List<RepoCommit> list = new LinkedList<>();
         for (int idx = 0; idx < Tv.HUNDRED; ++idx) {
             list.add(this.commit(String.format("commit #%d", idx)));
         }
-        Mockito.doReturn(list).when(commits).iterate(Mockito.any(Map.class));
+        final AtomicInteger read = new AtomicInteger();
+        Mockito.doReturn(
+            new AbstractList<RepoCommit>() {
+                @Override
+                public RepoCommit get(final int index) {
+                    read.incrementAndGet();
+                    return list.get(index);
+                }
+                @Override
+                public int size() {
+                    return list.size();
+                }
+            }
+        ).when(commits).iterate(Mockito.any(Map.class));
         final Repo repo = Mockito.mock(Repo.class);
         Mockito.doReturn(commits).when(repo).commits();
         MatcherAssert.assertThat(
             new CommitsLog(repo).build(new Date(), new Date()),
-            Matchers.containsString("* and 80 more..")
+            Matchers.endsWith("* and more...")
+        );
+        // @checkstyle MagicNumber (1 line)
+        MatcherAssert.assertThat(read.get(), Matchers.equalTo(21));
+    }
+
+    /**
+     * CommitsLog can create a log between two tags, once.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void comparesTagsOnce() throws Exception {
+        final JsonArrayBuilder list = Json.createArrayBuilder();
+        for (int idx = 0; idx < Tv.FIFTY; ++idx) {
+            list.add(
+                Json.createObjectBuilder()
+                    .add("sha", String.format("c%d", idx))
+                    .addNull("author")
+                    .add(
+                        "commit",
+                        Json.createObjectBuilder().add("message", "fix")
+                    )
+            );
+        }
+        final CommitsComparison comparison =
+            Mockito.mock(CommitsComparison.class);
+        Mockito.doReturn(
+            Json.createObjectBuilder()
+                .add("total_commits", Tv.HUNDRED)
+                .add("commits", list)
+                .build()
+        ).when(comparison).json();
+        final RepoCommits commits = Mockito.mock(RepoCommits.class);
+        Mockito.doReturn(comparison).when(commits).compare("0.1", "0.2");
+        final Repo repo = Mockito.mock(Repo.class);
+        Mockito.doReturn(commits).when(repo).commits();
+        Mockito.doReturn(new Coordinates.Simple("jeff/compared"))
+            .when(repo).coordinates();
+        new CommitsLog(repo).build("0.1", "0.2");
+        final String log = new CommitsLog(repo).build("0.1", "0.2");
+        MatcherAssert.assertThat(
+            log,
+            Matchers.allOf(
+                Matchers.startsWith(" * c49: fix"),
+                Matchers.endsWith("* and 80 more...")
+            )
         );
+        Mockito.verify(commits, Mockito.times(1)).compare("0.1", "0.2");
     }
 
     /**
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Comment;
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Issue;
+import com.jcabi.github.Pull;
+import com.jcabi.github.Repo;
+import com.jcabi.github.RtGithub;
+import com.jcabi.github.mock.MkGithub;
+import com.jcabi.http.request.JdkRequest;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.http.FtRemote;
+import org.takes.rs.RsText;
+
+/**
+ * Tests for ${@link Gateway}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class GatewayTest {
+
+    /**
+     * Gateway can read a pull request in one GraphQL query.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void readsPullRequestInOneQuery() throws Exception {
+        final AtomicInteger hits = new AtomicInteger();
+        final String body = new StringBuilder(0)
+            .append("{'data':{'repository':{'issueOrPullRequest':{")
+            .append("'__typename':'PullRequest','title':'fix it',")
+            .append("'body':'please','state':'OPEN',")
+            .append("'url':'https://github.com/test/gw/pull/7',")
+            .append("'author':{'login':'jeff'},")
+            .append("'comments':{'totalCount':1,'nodes':[{'databaseId':5,")
+            .append("'body':'@rultor merge',")
+            .append("'createdAt':'2015-01-01T00:00:00Z',")
+            .append("'author':{'login':'frank'}}]},")
+            .append("'baseRefName':'master','baseRefOid':'abc',")
+            .append("'baseRepository':{'nameWithOwner':'test/gw'},")
+            .append("'headRefName':'fix','headRefOid':'def',")
+            .append("'headRepository':null}}}}")
+            .toString().replace('\'', '"');
+        new FtRemote(
+            new Take() {
+                @Override
+                public Response act(final Request req) {
+                    hits.incrementAndGet();
+                    return new RsText(body);
+                }
+            }
+        ).exec(
+            new FtRemote.Script() {
+                @Override
+                public void exec(final URI home) throws IOException {
+                    final Gateway gateway = new Gateway(
+                        new RtGithub(new JdkRequest(home))
+                    );
+                    final Coordinates coords =
+                        new Coordinates.Simple("test/gw");
+                    final Issue.Smart issue = new Issue.Smart(
+                        gateway.issue(coords, Tv.SEVEN)
+                    );
+                    MatcherAssert.assertThat(
+                        issue.title(), Matchers.equalTo("fix it")
+                    );
+                    MatcherAssert.assertThat(issue.isPull(), Matchers.is(true));
+                    MatcherAssert.assertThat(issue.isOpen(), Matchers.is(true));
+                    final Comment.Smart comment = new Comment.Smart(
+                        issue.comments().iterate().iterator().next()
+                    );
+                    MatcherAssert.assertThat(
+                        comment.number(), Matchers.equalTo(Tv.FIVE)
+                    );
+                    MatcherAssert.assertThat(
+                        comment.author().login(), Matchers.equalTo("frank")
+                    );
+                    final Pull pull = Gateway.pull(comment.issue());
+                    MatcherAssert.assertThat(
+                        pull.base().ref(), Matchers.equalTo("master")
+                    );
+                    MatcherAssert.assertThat(
+                        pull.head().json().isNull("repo"), Matchers.is(true)
+                    );
+                    gateway.issue(coords, Tv.SEVEN).json();
+                }
+            }
+        );
+        MatcherAssert.assertThat(hits.get(), Matchers.equalTo(1));
+    }
+
+    /**
+     * Gateway can fall back to REST without GraphQL.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void fallsBackToRest() throws Exception {
+        final Repo repo = new MkGithub().randomRepo();
+        final Issue issue = repo.issues().create("hello", "");
+        MatcherAssert.assertThat(
+            new Issue.Smart(
+                new Gateway(repo.github()).issue(
+                    repo.coordinates(), issue.number()
+                )
+            ).title(),
+            Matchers.equalTo("hello")
+        );
+    }
+
+}
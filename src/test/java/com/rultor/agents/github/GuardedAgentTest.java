@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.aspects.Tv;
+import com.rultor.spi.Agent;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for ${@link GuardedAgent}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class GuardedAgentTest {
+
+    /**
+     * GuardedAgent can skip a failure while Github is not available.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void skipsFailureWhenOpen() throws Exception {
+        final Breaker breaker = new Breaker();
+        for (int idx = 0; idx < Tv.TEN; ++idx) {
+            breaker.record(1L, true);
+        }
+        final Agent agent = Mockito.mock(Agent.class);
+        final Talk talk = new Talk.InFile();
+        Mockito.doThrow(new IOException("down")).when(agent).execute(talk);
+        new GuardedAgent(breaker, agent).execute(talk);
+        Mockito.verify(agent).execute(talk);
+    }
+
+    /**
+     * GuardedAgent can rethrow a failure while Github is fine.
+     * @throws Exception In case of error.
+     */
+    @Test(expected = IOException.class)
+    public void rethrowsFailureWhenClosed() throws Exception {
+        final Agent agent = Mockito.mock(Agent.class);
+        final Talk talk = new Talk.InFile();
+        Mockito.doThrow(new IOException("broken")).when(agent).execute(talk);
+        new GuardedAgent(new Breaker(), agent).execute(talk);
+    }
+
+}
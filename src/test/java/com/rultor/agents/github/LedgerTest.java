@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import java.io.File;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for ${@link Ledger}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class LedgerTest {
+
+    /**
+     * Temp directory.
+     * @checkstyle VisibilityModifierCheck (5 lines)
+     */
+    @Rule
+    public final transient TemporaryFolder temp = new TemporaryFolder();
+
+    /**
+     * Ledger can remember entries after restart.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void remembersEntriesAfterRestart() throws Exception {
+        final File file = new File(this.temp.newFolder(), "stars.bloom");
+        final Ledger ledger = new Ledger(file);
+        MatcherAssert.assertThat(
+            ledger.contains("jeff/test"),
+            Matchers.is(false)
+        );
+        ledger.add("jeff/test");
+        MatcherAssert.assertThat(
+            new Ledger(file).contains("jeff/test"),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new Ledger(file).contains("jeff/other"),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Ledger can save changes in batches.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void savesChangesInBatches() throws Exception {
+        final File file = new File(this.temp.newFolder(), "follows.bloom");
+        final Ledger ledger = new Ledger(file);
+        ledger.add("jeff");
+        ledger.add("walter");
+        MatcherAssert.assertThat(
+            new Ledger(file).contains("walter"),
+            Matchers.is(false)
+        );
+        ledger.flush();
+        MatcherAssert.assertThat(
+            new Ledger(file).contains("walter"),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            file.getParentFile().list(),
+            Matchers.arrayWithSize(1)
+        );
+    }
+
+}
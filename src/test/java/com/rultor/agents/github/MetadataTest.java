@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Github;
+import com.jcabi.github.Repo;
+import com.jcabi.github.User;
+import com.jcabi.github.Users;
+import com.jcabi.github.mock.MkGithub;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for ${@link Metadata}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class MetadataTest {
+
+    /**
+     * Metadata can resolve my login only once.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void resolvesSelfOnce() throws Exception {
+        final User user = Mockito.mock(User.class);
+        Mockito.doReturn("rultor").when(user).login();
+        final Users users = Mockito.mock(Users.class);
+        Mockito.doReturn(user).when(users).self();
+        final Github github = Mockito.mock(Github.class);
+        Mockito.doReturn(users).when(github).users();
+        new Metadata(github).self();
+        MatcherAssert.assertThat(
+            new Metadata(github).self(),
+            Matchers.equalTo("rultor")
+        );
+        Mockito.verify(user, Mockito.times(1)).login();
+    }
+
+    /**
+     * Metadata can read metadata of a repository.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void readsRepository() throws Exception {
+        final Repo repo = new MkGithub().randomRepo();
+        final Coordinates coords = repo.coordinates();
+        final Metadata.Info info = new Metadata(repo.github()).repo(coords);
+        MatcherAssert.assertThat(
+            info.isPrivate(),
+            Matchers.is(new Repo.Smart(repo).isPrivate())
+        );
+        MatcherAssert.assertThat(
+            new Metadata(repo.github()).repo(coords),
+            Matchers.sameInstance(info)
+        );
+    }
+
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.github.Comment;
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Issue;
+import com.jcabi.github.RtGithub;
+import com.jcabi.github.mock.MkGithub;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.FakeRequest;
+import com.jcabi.http.request.JdkRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for ${@link RecentComments}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class RecentCommentsTest {
+
+    /**
+     * RecentComments can ask Github only for recent comments.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void asksOnlyForRecentComments() throws Exception {
+        final Issue issue = new RtGithub(
+            new JdkRequest("https://api.github.com")
+                .through(RecentCommentsTest.RecordingWire.class)
+        ).repos().get(new Coordinates.Simple("jeff/test")).issues().get(1);
+        MatcherAssert.assertThat(
+            new RecentComments(issue, 1L),
+            Matchers.emptyIterable()
+        );
+        MatcherAssert.assertThat(
+            RecentCommentsTest.RecordingWire.HOMES,
+            Matchers.hasItem(
+                Matchers.containsString(
+                    "/issues/1/comments?since=1970-01-01T00:00:00Z"
+                )
+            )
+        );
+    }
+
+    /**
+     * RecentComments can iterate all comments of a mock issue.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void iteratesAllCommentsOfMock() throws Exception {
+        final Issue issue = new MkGithub().randomRepo()
+            .issues().create("", "");
+        issue.comments().post("first");
+        issue.comments().post("second");
+        MatcherAssert.assertThat(
+            new RecentComments(issue, System.currentTimeMillis()),
+            Matchers.<Comment.Smart>iterableWithSize(2)
+        );
+    }
+
+    /**
+     * Wire that records URLs and returns an empty list.
+     */
+    public static final class RecordingWire implements Wire {
+        /**
+         * URLs requested.
+         */
+        private static final Collection<String> HOMES =
+            new CopyOnWriteArrayList<>();
+        /**
+         * Ctor.
+         * @param wire Original wire, ignored
+         */
+        @SuppressWarnings("PMD.UnusedFormalParameter")
+        public RecordingWire(final Wire wire) {
+            // nothing to do
+        }
+        // @checkstyle ParameterNumberCheck (7 lines)
+        @Override
+        public Response send(final Request req, final String home,
+            final String method,
+            final Collection<Map.Entry<String, String>> headers,
+            final InputStream content) throws IOException {
+            RecentCommentsTest.RecordingWire.HOMES.add(home);
+            return new FakeRequest().withBody("[]").fetch();
+        }
+    }
+
+}
@@ -29,14 +29,22 @@
  */
 package com.rultor.agents.github;
 
+import com.jcabi.github.Comment;
 import com.jcabi.github.Issue;
 import com.jcabi.github.Repo;
 import com.jcabi.github.mock.MkGithub;
+import com.jcabi.immutable.ArrayMap;
 import com.jcabi.matchers.XhtmlMatchers;
+import com.rultor.agents.outbox.Courier;
+import com.rultor.agents.outbox.DeliversOutbox;
 import com.rultor.spi.Agent;
 import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.util.Collections;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.xembly.Directives;
 
 /**
@@ -57,7 +65,7 @@ public final class ReportsTest {
         final Repo repo = new MkGithub().randomRepo();
         final Issue issue = repo.issues().create("", "");
         issue.comments().post("hey, do it");
-        final Agent agent = new Reports(repo.github());
+        final Agent agent = new Reports();
         final Talk talk = new Talk.InFile();
         talk.modify(
             new Directives().xpath("/talk").add("wire")
@@ -74,7 +82,25 @@ public final class ReportsTest {
         agent.execute(talk);
         MatcherAssert.assertThat(
             talk.read(),
-            XhtmlMatchers.hasXPath("/talk[not(request)]")
+            XhtmlMatchers.hasXPaths(
+                "/talk[not(request)]",
+                "/talk/outbox/message[@to='github']/args[arg='1']"
+            )
+        );
+        final Talks talks = Mockito.mock(Talks.class);
+        Mockito.doReturn(Collections.singleton(talk)).when(talks).active();
+        new DeliversOutbox(
+            new ArrayMap<String, Courier>().with(
+                "github", new PostsComment(repo.github())
+            )
+        ).execute(talks);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPath("/talk/outbox[not(message)]")
+        );
+        MatcherAssert.assertThat(
+            issue.comments().iterate(),
+            Matchers.<Comment>iterableWithSize(2)
         );
     }
 
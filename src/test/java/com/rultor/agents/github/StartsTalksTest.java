@@ -29,15 +29,37 @@
  */
 package com.rultor.agents.github;
 
+import co.stateful.Counter;
+import com.jcabi.github.Github;
 import com.jcabi.github.Issue;
 import com.jcabi.github.Repo;
+import com.jcabi.github.RtGithub;
 import com.jcabi.github.mock.MkGithub;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.FakeRequest;
+import com.jcabi.http.request.JdkRequest;
+import com.jcabi.matchers.XhtmlMatchers;
 import com.rultor.spi.SuperAgent;
+import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.json.Json;
+import org.apache.commons.lang3.StringUtils;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.xembly.Directives;
 
 /**
  * Tests for ${@link StartsTalks}.
@@ -45,6 +67,7 @@ import org.junit.Test;
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 1.9
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 public final class StartsTalksTest {
 
@@ -58,7 +81,9 @@ public final class StartsTalksTest {
         final Repo repo = new MkGithub().randomRepo();
         final Issue issue = repo.issues().create("", "");
         issue.comments().post("hey, do it");
-        final SuperAgent agent = new StartsTalks(repo.github());
+        final SuperAgent agent = new StartsTalks(
+            repo.github(), Mockito.mock(Counter.class)
+        );
         final Talks talks = new Talks.InDir();
         agent.execute(talks);
         MatcherAssert.assertThat(
@@ -67,4 +92,229 @@ public final class StartsTalksTest {
         );
     }
 
+    /**
+     * StartsTalks can activate a mentioned talk and move the cursor.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void activatesTalkAndMovesCursor() throws Exception {
+        final Counter cursor = Mockito.mock(Counter.class);
+        final Talks talks = Mockito.mock(Talks.class);
+        final Talk talk = new Talk.InFile();
+        final Collection<String> homes = new CopyOnWriteArrayList<>();
+        new StartsTalks(
+            new RtGithub(
+                new JdkRequest("https://api.github.com").through(
+                    StartsTalksTest.ReplyWire.class,
+                    StartsTalksTest.notifications(),
+                    homes
+                )
+            ),
+            cursor
+        ).execute(talks);
+        final ArgumentCaptor<Directives> dirs =
+            ArgumentCaptor.forClass(Directives.class);
+        Mockito.verify(talks).create(
+            Mockito.eq("jeff/test"), Mockito.eq("jeff/test#42"), dirs.capture()
+        );
+        talk.modify(dirs.getValue());
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk[@later='true']",
+                "/talk/wire[github-issue='42']",
+                "/talk/wire[href='https://github.com/jeff/test/issues/42']"
+            )
+        );
+        Mockito.verify(cursor).set(
+            new Github.Time("2015-06-01T11:00:00Z").date().getTime()
+        );
+        MatcherAssert.assertThat(
+            homes,
+            Matchers.hasItem(
+                Matchers.containsString("last_read_at=2015-06-01T11:00:00Z")
+            )
+        );
+    }
+
+    /**
+     * StartsTalks can poll with an overlap, reading the first page once
+     * and skipping notifications already processed.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void pollsWithOverlapAndSkipsProcessed() throws Exception {
+        final Counter cursor = Mockito.mock(Counter.class);
+        Mockito.doReturn(
+            new Github.Time("2015-07-01T10:00:00Z").date().getTime()
+        ).when(cursor).incrementAndGet(0L);
+        final Talks talks = Mockito.mock(Talks.class);
+        final Collection<String> homes = new CopyOnWriteArrayList<>();
+        final SuperAgent agent = new StartsTalks(
+            new RtGithub(
+                new JdkRequest("https://api.github.com").through(
+                    StartsTalksTest.ReplyWire.class,
+                    StartsTalksTest.mention(
+                        "jeff/dedupe", "issues/5", "2015-07-01T10:00:00Z"
+                    ),
+                    homes
+                )
+            ),
+            cursor
+        );
+        agent.execute(talks);
+        agent.execute(talks);
+        Mockito.verify(talks, Mockito.times(1)).create(
+            Mockito.eq("jeff/dedupe"), Mockito.eq("jeff/dedupe#5"),
+            Mockito.<Directives>any()
+        );
+        final Collection<String> gets = new LinkedList<>();
+        for (final String home : homes) {
+            if (home.startsWith(Request.GET)) {
+                gets.add(home);
+            }
+        }
+        MatcherAssert.assertThat(gets, Matchers.hasSize(2));
+        MatcherAssert.assertThat(
+            gets,
+            Matchers.everyItem(
+                Matchers.containsString("since=2015-07-01T09:57:00Z")
+            )
+        );
+    }
+
+    /**
+     * StartsTalks can drop a notification that fails again and again.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void dropsNotificationThatKeepsFailing() throws Exception {
+        final Counter cursor = Mockito.mock(Counter.class);
+        final long updated = new Github.Time("2015-08-01T10:00:00Z")
+            .date().getTime();
+        final SuperAgent agent = new StartsTalks(
+            new RtGithub(
+                new JdkRequest("https://api.github.com").through(
+                    StartsTalksTest.ReplyWire.class,
+                    StartsTalksTest.mention(
+                        "jeff/broken", "commits/abc", "2015-08-01T10:00:00Z"
+                    ),
+                    new CopyOnWriteArrayList<String>()
+                )
+            ),
+            cursor
+        );
+        final Talks talks = Mockito.mock(Talks.class);
+        // @checkstyle MagicNumber (1 line)
+        for (int idx = 0; idx < 4; ++idx) {
+            agent.execute(talks);
+        }
+        Mockito.verify(cursor, Mockito.never()).set(updated);
+        agent.execute(talks);
+        Mockito.verify(cursor).set(updated);
+    }
+
+    /**
+     * Two notifications, a mention and a subscription.
+     * @return JSON
+     */
+    private static String notifications() {
+        return StringUtils.join(
+            "[{\"reason\":\"mention\",",
+            "\"updated_at\":\"2015-06-01T10:00:00Z\",",
+            "\"repository\":{\"full_name\":\"jeff/test\",",
+            "\"html_url\":\"https://github.com/jeff/test\"},",
+            "\"subject\":{\"url\":",
+            "\"https://api.github.com/repos/jeff/test/issues/42\"}},",
+            "{\"reason\":\"subscribed\",",
+            "\"updated_at\":\"2015-06-01T11:00:00Z\",",
+            "\"repository\":{\"full_name\":\"jeff/test\",",
+            "\"html_url\":\"https://github.com/jeff/test\"},",
+            "\"subject\":{\"url\":",
+            "\"https://api.github.com/repos/jeff/test/issues/43\"}}]"
+        );
+    }
+
+    /**
+     * Make a list of notifications with one mention.
+     * @param repo Repository
+     * @param subject Path of the subject in the repository
+     * @param updated When it was updated
+     * @return JSON
+     */
+    private static String mention(final String repo, final String subject,
+        final String updated) {
+        return Json.createArrayBuilder().add(
+            Json.createObjectBuilder()
+                .add("id", String.format("%s-%s", repo, subject))
+                .add("reason", "mention")
+                .add("updated_at", updated)
+                .add(
+                    "repository",
+                    Json.createObjectBuilder()
+                        .add("full_name", repo)
+                        .add(
+                            "html_url",
+                            String.format("https://github.com/%s", repo)
+                        )
+                )
+                .add(
+                    "subject",
+                    Json.createObjectBuilder().add(
+                        "url",
+                        String.format(
+                            "https://api.github.com/repos/%s/%s",
+                            repo, subject
+                        )
+                    )
+                )
+        ).build().toString();
+    }
+
+    /**
+     * Wire that returns the given notifications and records requests.
+     */
+    public static final class ReplyWire implements Wire {
+        /**
+         * Notifications to return.
+         */
+        private final transient String json;
+        /**
+         * Requests made, methods and URLs.
+         */
+        private final transient Collection<String> homes;
+        /**
+         * Ctor.
+         * @param wire Original wire, ignored
+         * @param body Notifications to return
+         * @param list Where to record requests
+         */
+        @SuppressWarnings("PMD.UnusedFormalParameter")
+        public ReplyWire(final Wire wire, final String body,
+            final Collection<String> list) {
+            this.json = body;
+            this.homes = list;
+        }
+        // @checkstyle ParameterNumberCheck (7 lines)
+        @Override
+        public Response send(final Request req, final String home,
+            final String method,
+            final Collection<Map.Entry<String, String>> headers,
+            final InputStream content) throws IOException {
+            this.homes.add(String.format("%s %s", method, home));
+            final Response response;
+            if (Request.PUT.equals(method)) {
+                response = new FakeRequest()
+                    .withStatus(HttpURLConnection.HTTP_RESET)
+                    .fetch();
+            } else {
+                response = new FakeRequest()
+                    .withHeader("X-Poll-Interval", "0")
+                    .withBody(this.json)
+                    .fetch();
+            }
+            return response;
+        }
+    }
+
 }
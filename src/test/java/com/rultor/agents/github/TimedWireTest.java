@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.request.JdkRequest;
+import com.rultor.agents.TimedAgent;
+import com.rultor.spi.Agent;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for ${@link TimedWire}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class TimedWireTest {
+
+    /**
+     * TimedWire can fetch a response within the deadline.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void fetchesWithinDeadline() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0)) {
+            final Thread thread = new Thread(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        try (final Socket socket = server.accept()) {
+                            final OutputStream output =
+                                socket.getOutputStream();
+                            output.write(
+                                // @checkstyle LineLength (1 line)
+                                "HTTP/1.1 200 OK\r\nX-Test: yes\r\nContent-Length: 5\r\nConnection: close\r\n\r\nhello"
+                                    .getBytes(StandardCharsets.UTF_8)
+                            );
+                            output.flush();
+                            socket.getInputStream().read();
+                        } catch (final IOException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    }
+                }
+            );
+            thread.start();
+            final Response response = TimedWireTest.fetch(server);
+            thread.join();
+            MatcherAssert.assertThat(response.body(), Matchers.is("hello"));
+            MatcherAssert.assertThat(
+                response.headers().get("x-test"),
+                Matchers.contains("yes")
+            );
+            MatcherAssert.assertThat(
+                response.back().uri().get().getPort(),
+                Matchers.is(server.getLocalPort())
+            );
+        }
+    }
+
+    /**
+     * TimedWire can give up on a silent server when the time is over.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void givesUpOnSilentServer() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0)) {
+            final BlockingQueue<Throwable> errors =
+                new LinkedBlockingQueue<>();
+            new TimedAgent(
+                new Agent() {
+                    @Override
+                    public void execute(final Talk talk) {
+                        try {
+                            TimedWireTest.request(server).fetch();
+                        } catch (final IOException ex) {
+                            errors.add(ex);
+                        }
+                    }
+                },
+                1L, TimeUnit.SECONDS
+            ).execute(new Talk.InFile());
+            MatcherAssert.assertThat(
+                errors.poll(1L, TimeUnit.MINUTES),
+                Matchers.instanceOf(IOException.class)
+            );
+        }
+    }
+
+    /**
+     * Fetch from the server within a deadline.
+     * @param server Server
+     * @return Response
+     * @throws Exception If fails
+     */
+    private static Response fetch(final ServerSocket server)
+        throws Exception {
+        final BlockingQueue<Response> responses = new LinkedBlockingQueue<>();
+        new TimedAgent(
+            new Agent() {
+                @Override
+                public void execute(final Talk talk) throws IOException {
+                    responses.add(TimedWireTest.request(server).fetch());
+                }
+            }
+        ).execute(new Talk.InFile());
+        return responses.poll();
+    }
+
+    /**
+     * Request to the server through the wire.
+     * @param server Server
+     * @return Request
+     */
+    private static Request request(final ServerSocket server) {
+        return new JdkRequest(
+            String.format("http://localhost:%d/", server.getLocalPort())
+        ).through(TimedWire.class);
+    }
+
+}
@@ -29,6 +29,7 @@
  */
 package com.rultor.agents.github;
 
+import com.jcabi.aspects.Tv;
 import com.jcabi.github.Comment;
 import com.jcabi.github.Issue;
 import com.jcabi.github.Repo;
@@ -38,6 +39,7 @@ import com.rultor.agents.github.qtn.QnDeploy;
 import com.rultor.agents.github.qtn.QnFirstOf;
 import com.rultor.agents.github.qtn.QnHello;
 import com.rultor.agents.github.qtn.QnIfContains;
+import com.rultor.agents.github.qtn.QnStop;
 import com.rultor.spi.Agent;
 import com.rultor.spi.Talk;
 import java.io.IOException;
@@ -80,11 +82,11 @@ public final class UnderstandsTest {
         );
         final Talk talk = UnderstandsTest.talk(issue);
         agent.execute(talk);
-        agent.execute(talk);
         MatcherAssert.assertThat(
             talk.read(),
             XhtmlMatchers.hasXPaths(
                 "/talk/wire[github-seen='2']",
+                "/talk/wire/github-seen-at",
                 "/talk/request[@id='2']",
                 "/talk/request[type='deploy' and args]",
                 "/talk/request/args/arg[@name='head_branch' and .='master']"
@@ -92,6 +94,74 @@ public final class UnderstandsTest {
         );
     }
 
+    /**
+     * Understands can queue requests and answer simple ones in one pass.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void queuesRequestsInOnePass() throws Exception {
+        final Repo repo = new MkGithub().randomRepo();
+        final Issue issue = repo.issues().create("", "");
+        issue.comments().post("@jeff deploy");
+        issue.comments().post("@jeff hello");
+        issue.comments().post("@jeff deploy again");
+        final Agent agent = new Understands(
+            repo.github(),
+            new QnFirstOf(
+                Arrays.<Question>asList(
+                    new QnIfContains("hello", new QnHello()),
+                    new QnIfContains("deploy", new QnDeploy())
+                )
+            )
+        );
+        final Talk talk = UnderstandsTest.talk(issue);
+        agent.execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk/wire[github-seen='3']",
+                "/talk/request[@id='1' and type='deploy']",
+                "/talk/queue[count(request)=1]",
+                "/talk/queue/request[@id='3' and type='deploy']"
+            )
+        );
+        MatcherAssert.assertThat(
+            new Comment.Smart(issue.comments().get(Tv.FIVE)).body(),
+            Matchers.containsString("Hi there")
+        );
+    }
+
+    /**
+     * Understands can stop the current request and drop the queue.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void stopsAndDropsQueue() throws Exception {
+        final Repo repo = new MkGithub().randomRepo();
+        final Issue issue = repo.issues().create("", "");
+        issue.comments().post("@jeff deploy");
+        issue.comments().post("@jeff deploy again");
+        issue.comments().post("@jeff stop");
+        final Agent agent = new Understands(
+            repo.github(),
+            new QnFirstOf(
+                Arrays.<Question>asList(
+                    new QnIfContains("stop", new QnStop()),
+                    new QnIfContains("deploy", new QnDeploy())
+                )
+            )
+        );
+        final Talk talk = UnderstandsTest.talk(issue);
+        agent.execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk/request[@id='3' and type='stop']",
+                "/talk[not(queue)]"
+            )
+        );
+    }
+
     /**
      * Understands can ignore LATER req.
      * @throws Exception In case of error.
@@ -29,13 +29,17 @@
  */
 package com.rultor.agents.github;
 
+import co.stateful.Lock;
+import co.stateful.Locks;
 import co.stateful.mock.MkSttc;
 import com.jcabi.github.Issue;
 import com.jcabi.github.Repo;
 import com.jcabi.github.mock.MkGithub;
 import com.rultor.spi.SuperAgent;
+import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.xembly.Directives;
 
 /**
@@ -72,4 +76,37 @@ public final class UnlocksRepoTest {
         agent.execute(talks);
     }
 
+    /**
+     * UnlocksRepo can keep the lock while requests are queued.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void keepsLockWhileRequestsAreQueued() throws Exception {
+        final Repo repo = new MkGithub().randomRepo();
+        final Issue issue = repo.issues().create("", "");
+        final Lock lock = Mockito.mock(Lock.class);
+        final Locks locks = Mockito.mock(Locks.class);
+        Mockito.doReturn(lock).when(locks).get(Mockito.anyString());
+        final Talks talks = new Talks.InDir();
+        final String name = "queued-talk";
+        talks.create("", name);
+        final Talk talk = talks.get(name);
+        talk.modify(
+            new Directives()
+                .xpath("/talk").add("wire")
+                .add("github-repo").set(repo.coordinates().toString()).up()
+                .add("github-issue").set(Integer.toString(issue.number())).up()
+                .add("href").set("#").up().up()
+                .add("queue").add("request").attr("id", "1")
+                .add("type").set("merge").up()
+                .add("args")
+        );
+        final SuperAgent agent = new UnlocksRepo(locks, repo.github());
+        agent.execute(talks);
+        Mockito.verify(lock, Mockito.never()).unlock(Mockito.anyString());
+        talk.modify(new Directives().xpath("/talk/queue").remove());
+        agent.execute(talks);
+        Mockito.verify(lock).unlock(name);
+    }
+
 }
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github.qtn;
+
+import com.jcabi.immutable.ArraySet;
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for ${@link Command}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class CommandTest {
+
+    /**
+     * Command can find parameters.
+     */
+    @Test
+    public void findsParameters() {
+        final Command command = new Command(
+            "@rultor release, tag is `1.0`, Branch: `dev`, a=`b c`"
+        );
+        MatcherAssert.assertThat(
+            command.params(),
+            Matchers.allOf(
+                Matchers.hasEntry("tag", "1.0"),
+                Matchers.hasEntry("Branch", "dev"),
+                Matchers.hasEntry("a", "b c")
+            )
+        );
+    }
+
+    /**
+     * Command can find known words inside its words and parameters.
+     */
+    @Test
+    public void findsKnownWords() {
+        MatcherAssert.assertThat(
+            new Command("@rultor REDEPLOY, then tag is `unlock`").find(
+                new ArraySet<>(Arrays.asList("deploy", "lock", "merge"))
+            ),
+            Matchers.containsInAnyOrder("deploy", "lock")
+        );
+    }
+
+    /**
+     * Command can parse the same text only once.
+     */
+    @Test
+    public void parsesOnce() {
+        final String text = "@rultor merge, please";
+        MatcherAssert.assertThat(
+            Command.of(text),
+            Matchers.sameInstance(Command.of(new String(text)))
+        );
+    }
+
+}
@@ -65,7 +65,7 @@ public final class QnAskedByTest {
         );
         final QnAskedBy qab = new QnAskedBy(
             new Profile.Fixed(),
-            "//test",
+            "test",
             Mockito.mock(Question.class)
         );
         github.relogin("rultor");
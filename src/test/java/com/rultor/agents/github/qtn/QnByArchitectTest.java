@@ -67,9 +67,11 @@ public final class QnByArchitectTest {
         final URI home = new URI("#");
         new QnByArchitect(
             new Profile.Fixed(
-                new XMLDocument("<p><entry key='a'>johnny</entry></p>")
+                new XMLDocument(
+                    "<p><entry key='architect'><item>johnny</item></entry></p>"
+                )
             ),
-            "/p/entry[@key='a']/text()", question
+            question
         ).understand(comment, home);
         Mockito.verify(question, Mockito.never()).understand(comment, home);
         MatcherAssert.assertThat(
@@ -95,14 +97,14 @@ public final class QnByArchitectTest {
             new Profile.Fixed(
                 new XMLDocument(
                     String.format(
-                        "<p><entry key='b'>%s</entry></p>",
+                        "<p><entry key='architect'><item>%s</item></entry></p>",
                         repo.github().users().self().login().toUpperCase(
                             Locale.ENGLISH
                         )
                     )
                 )
             ),
-            "/p/entry[@key='b']/text()", question
+            question
         ).understand(comment, home);
         Mockito.verify(question).understand(comment, home);
     }
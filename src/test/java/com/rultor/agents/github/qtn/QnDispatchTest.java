@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github.qtn;
+
+import com.google.common.collect.ImmutableMap;
+import com.jcabi.github.Comment;
+import com.jcabi.github.Issue;
+import com.jcabi.github.mock.MkGithub;
+import com.rultor.agents.github.Question;
+import com.rultor.agents.github.Req;
+import java.net.URI;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.xembly.Directives;
+
+/**
+ * Tests for ${@link QnDispatch}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ */
+public final class QnDispatchTest {
+
+    /**
+     * QnDispatch can ignore unknown commands without asking anyone.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void ignoresUnknownCommands() throws Exception {
+        final Question origin = Mockito.mock(Question.class);
+        final Question question = new QnDispatch(
+            new QnDispatch.Verb("merge", origin),
+            new QnDispatch.Verb("deploy", origin)
+        );
+        final Issue issue = new MkGithub().randomRepo().issues()
+            .create("", "");
+        MatcherAssert.assertThat(
+            question.understand(
+                new Comment.Smart(issue.comments().post("@rultor thanks!")),
+                new URI("#")
+            ),
+            Matchers.is(Req.EMPTY)
+        );
+        Mockito.verify(origin, Mockito.never()).understand(
+            Mockito.any(Comment.Smart.class), Mockito.any(URI.class)
+        );
+    }
+
+    /**
+     * QnDispatch can give priority to verbs by their order.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void prefersEarlierVerbs() throws Exception {
+        final Question question = new QnDispatch(
+            new QnDispatch.Verb("unlock", QnDispatchTest.simple("unlock")),
+            new QnDispatch.Verb("lock", QnDispatchTest.simple("lock"))
+        );
+        final Issue issue = new MkGithub().randomRepo().issues()
+            .create("", "");
+        MatcherAssert.assertThat(
+            QnDispatchTest.print(
+                question.understand(
+                    new Comment.Smart(
+                        issue.comments().post("@rultor lock, then UNLOCK")
+                    ),
+                    new URI("#")
+                )
+            ),
+            Matchers.containsString("unlock")
+        );
+    }
+
+    /**
+     * QnDispatch can find verbs inside words, like a substring search.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void findsVerbsInsideWords() throws Exception {
+        final Question question = new QnDispatch(
+            new QnDispatch.Verb("merge", QnDispatchTest.simple("merge")),
+            new QnDispatch.Verb("deploy", QnDispatchTest.simple("deploy"))
+        );
+        final Issue issue = new MkGithub().randomRepo().issues()
+            .create("", "");
+        MatcherAssert.assertThat(
+            QnDispatchTest.print(
+                question.understand(
+                    new Comment.Smart(
+                        issue.comments().post("@rultor REDEPLOY, tag: `1`")
+                    ),
+                    new URI("#")
+                )
+            ),
+            Matchers.containsString("deploy")
+        );
+    }
+
+    /**
+     * Make a simple question, which always understands.
+     * @param type Type of request
+     * @return Question
+     */
+    private static Question simple(final String type) {
+        return new Question() {
+            @Override
+            public Req understand(final Comment.Smart comment,
+                final URI home) {
+                return new Req.Simple(
+                    type, ImmutableMap.<String, String>of()
+                );
+            }
+        };
+    }
+
+    /**
+     * Print request.
+     * @param req Request
+     * @return Text
+     */
+    private static String print(final Req req) {
+        final String text;
+        if (req.equals(Req.EMPTY)) {
+            text = "EMPTY";
+        } else {
+            text = new Directives(req.dirs()).toString();
+        }
+        return text;
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github.qtn;
+
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Comment;
+import com.jcabi.github.Issue;
+import com.jcabi.github.Repo;
+import com.jcabi.github.mock.MkGithub;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.agents.github.Question;
+import com.rultor.agents.github.Req;
+import com.rultor.spi.Profile;
+import java.net.URI;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for ${@link QnRateLimited}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class QnRateLimitedTest {
+
+    /**
+     * QnRateLimited can throttle an author and reply only once.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void throttlesAuthorAndRepliesOnce() throws Exception {
+        final Repo repo = new MkGithub().randomRepo();
+        final Issue issue = repo.issues().create("title", "body");
+        issue.comments().post("@rultor hello");
+        issue.comments().post("@rultor hello again");
+        issue.comments().post("@rultor hello once more");
+        final Question origin = Mockito.mock(Question.class);
+        Mockito.doReturn(Req.DONE).when(origin).understand(
+            Mockito.any(Comment.Smart.class), Mockito.any(URI.class)
+        );
+        final Question question = new QnRateLimited(
+            new Profile.Fixed(
+                new XMLDocument(
+                    // @checkstyle LineLength (1 line)
+                    "<p><entry key='limits'><entry key='author'>1</entry></entry></p>"
+                )
+            ),
+            origin
+        );
+        final URI home = new URI("#");
+        MatcherAssert.assertThat(
+            question.understand(
+                new Comment.Smart(issue.comments().get(1)), home
+            ),
+            Matchers.is(Req.DONE)
+        );
+        MatcherAssert.assertThat(
+            question.understand(
+                new Comment.Smart(issue.comments().get(2)), home
+            ),
+            Matchers.is(Req.EMPTY)
+        );
+        MatcherAssert.assertThat(
+            question.understand(
+                new Comment.Smart(issue.comments().get(Tv.THREE)), home
+            ),
+            Matchers.is(Req.EMPTY)
+        );
+        MatcherAssert.assertThat(
+            Iterables.size(issue.comments().iterate()),
+            Matchers.is(Tv.FOUR)
+        );
+        MatcherAssert.assertThat(
+            new Comment.Smart(issue.comments().get(Tv.FOUR)).body(),
+            Matchers.containsString("too many commands")
+        );
+    }
+
+}
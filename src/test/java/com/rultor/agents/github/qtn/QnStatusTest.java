@@ -67,6 +67,9 @@ public final class QnStatusTest {
                 Joiner.on(' ').join(
                     "<talk name='test' number='45' later='false'>",
                     "<request id='454'><type>merge</type><args/></request>",
+                    "<queue><request id='455'><type>deploy</type><args/>",
+                    "</request><request id='456'><type>release</type>",
+                    "<args/></request></queue>",
                     "<daemon id='454'><started>2014-07-08T12:09:09Z</started>",
                     "<script>test</script><title>something</title>",
                     "<code>3</code><dir>/tmp/abc</dir>",
@@ -86,6 +89,9 @@ public final class QnStatusTest {
             Matchers.allOf(
                 Matchers.containsString("request `454` is in processing"),
                 Matchers.containsString("request has no parameters"),
+                Matchers.containsString(
+                    "2 request(s) waiting in the queue: `deploy`, `release`"
+                ),
                 Matchers.containsString("build started"),
                 Matchers.containsString("build exit code is `3`")
             )
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.outbox;
+
+import com.jcabi.immutable.ArrayMap;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.jcabi.xml.XML;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.io.IOException;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for ${@link DeliversOutbox}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class DeliversOutboxTest {
+
+    /**
+     * DeliversOutbox can deliver a message and remove it.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void deliversMessage() throws Exception {
+        final Talk talk = new Talk.InFile();
+        talk.modify(new Outbox("test").put("msg-1", "hi"));
+        final Courier courier = Mockito.mock(Courier.class);
+        new DeliversOutbox(
+            new ArrayMap<String, Courier>().with("test", courier)
+        ).execute(DeliversOutboxTest.talks(talk));
+        Mockito.verify(courier).deliver(
+            Mockito.any(XML.class), Mockito.any(XML.class)
+        );
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPath("/talk/outbox[not(message)]")
+        );
+    }
+
+    /**
+     * DeliversOutbox can postpone a message that failed.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void postponesFailedMessage() throws Exception {
+        final Talk talk = new Talk.InFile();
+        talk.modify(new Outbox("test").put("msg-2", "hey"));
+        final Courier courier = Mockito.mock(Courier.class);
+        Mockito.doThrow(new IOException("outage")).when(courier).deliver(
+            Mockito.any(XML.class), Mockito.any(XML.class)
+        );
+        final DeliversOutbox agent = new DeliversOutbox(
+            new ArrayMap<String, Courier>().with("test", courier)
+        );
+        agent.execute(DeliversOutboxTest.talks(talk));
+        agent.execute(DeliversOutboxTest.talks(talk));
+        Mockito.verify(courier, Mockito.times(1)).deliver(
+            Mockito.any(XML.class), Mockito.any(XML.class)
+        );
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPath("/talk/outbox/message[attempts=1]")
+        );
+    }
+
+    /**
+     * DeliversOutbox can drop a message nobody can deliver.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void dropsMessageWithoutCourier() throws Exception {
+        final Talk talk = new Talk.InFile();
+        talk.modify(new Outbox("nowhere").put("msg-3", "bye"));
+        new DeliversOutbox(new ArrayMap<String, Courier>())
+            .execute(DeliversOutboxTest.talks(talk));
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPath("/talk/outbox[not(message)]")
+        );
+    }
+
+    /**
+     * Talks with this one talk active.
+     * @param talk The talk
+     * @return Talks
+     */
+    private static Talks talks(final Talk talk) {
+        final Talks talks = Mockito.mock(Talks.class);
+        Mockito.doReturn(Collections.singleton(talk)).when(talks).active();
+        return talks;
+    }
+
+}
@@ -32,12 +32,18 @@ package com.rultor.agents.twitter;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Iterables;
+import com.jcabi.github.Github;
 import com.jcabi.github.Issue;
 import com.jcabi.github.Language;
 import com.jcabi.github.Repo;
 import com.jcabi.github.mock.MkGithub;
+import com.jcabi.immutable.ArrayMap;
+import com.rultor.agents.outbox.Courier;
+import com.rultor.agents.outbox.DeliversOutbox;
 import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
 import java.io.IOException;
+import java.util.Collections;
 import org.junit.Test;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
@@ -61,7 +67,8 @@ public final class TweetsTest {
         final Repo repo = new MkGithub().randomRepo();
         final Twitter twitter = Mockito.mock(Twitter.class);
         final Talk talk = TweetsTest.talk(repo, repo.issues().create("", ""));
-        new Tweets(repo.github(), twitter).execute(talk);
+        new Tweets().execute(talk);
+        TweetsTest.deliver(talk, twitter, repo.github());
         Mockito.verify(twitter).post(
             Matchers.contains(repo.coordinates().repo())
         );
@@ -75,9 +82,9 @@ public final class TweetsTest {
     public void postsTweetWithLanguages() throws Exception {
         final Repo repo = new MkGithub().randomRepo();
         final Twitter twitter = Mockito.mock(Twitter.class);
-        new Tweets(repo.github(), twitter).execute(
-            TweetsTest.talk(repo, repo.issues().create("", ""))
-        );
+        final Talk talk = TweetsTest.talk(repo, repo.issues().create("", ""));
+        new Tweets().execute(talk);
+        TweetsTest.deliver(talk, twitter, repo.github());
         Mockito.verify(twitter).post(
             Matchers.contains(
                 Joiner.on(' ').join(
@@ -95,6 +102,24 @@ public final class TweetsTest {
         );
     }
 
+    /**
+     * Deliver messages from the outbox of the talk.
+     * @param talk The talk
+     * @param twitter Twitter to deliver to
+     * @param github Github to take metadata from
+     * @throws IOException In case of error
+     */
+    private static void deliver(final Talk talk, final Twitter twitter,
+        final Github github) throws IOException {
+        final Talks talks = Mockito.mock(Talks.class);
+        Mockito.doReturn(Collections.singleton(talk)).when(talks).active();
+        new DeliversOutbox(
+            new ArrayMap<String, Courier>().with(
+                "twitter", new PostsTweet(twitter, github)
+            )
+        ).execute(talks);
+    }
+
     /**
      * Creates a talk with repo and issue.
      * @param repo Repo to use
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.cached;
+
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.Wire;
+import com.jcabi.http.request.FakeRequest;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Tests for ${@link CdWire}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class CdWireTest {
+
+    /**
+     * CdWire can replay cached response on 304.
+     * @throws Exception In case of error.
+     */
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void replaysCachedResponseOnNotModified() throws Exception {
+        final Wire origin = Mockito.mock(Wire.class);
+        Mockito.doReturn(
+            new FakeRequest()
+                .withHeader("ETag", "\"abc\"")
+                .withBody("first")
+                .fetch()
+        ).doReturn(
+            new FakeRequest()
+                .withStatus(HttpURLConnection.HTTP_NOT_MODIFIED)
+                .withBody("")
+                .fetch()
+        ).when(origin).send(
+            Mockito.any(Request.class), Mockito.anyString(),
+            Mockito.anyString(), Mockito.any(Collection.class),
+            Mockito.any(InputStream.class)
+        );
+        final Wire wire = new CdWire(origin);
+        final String home = "http://localhost/repos/a/b/replays";
+        CdWireTest.get(wire, home);
+        final Response response = CdWireTest.get(wire, home);
+        MatcherAssert.assertThat(response.body(), Matchers.is("first"));
+        MatcherAssert.assertThat(
+            response.status(), Matchers.is(HttpURLConnection.HTTP_OK)
+        );
+        final ArgumentCaptor<Collection> headers =
+            ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(origin, Mockito.times(2)).send(
+            Mockito.any(Request.class), Mockito.anyString(),
+            Mockito.anyString(), headers.capture(),
+            Mockito.any(InputStream.class)
+        );
+        MatcherAssert.assertThat(
+            (Collection<Map.Entry<String, String>>) headers.getValue(),
+            Matchers.hasItem(
+                (Map.Entry<String, String>) new AbstractMap.SimpleEntry<>(
+                    "If-None-Match", "\"abc\""
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            CdWire.stats(), Matchers.containsString("replayed")
+        );
+    }
+
+    /**
+     * CdWire can replace cached response when content changes.
+     * @throws Exception In case of error.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void replacesChangedResponse() throws Exception {
+        final Wire origin = Mockito.mock(Wire.class);
+        Mockito.doReturn(
+            new FakeRequest()
+                .withHeader("Last-Modified", "Mon, 19 Oct 2015 10:00:00 GMT")
+                .withBody("old")
+                .fetch()
+        ).doReturn(
+            new FakeRequest()
+                .withHeader("Last-Modified", "Mon, 19 Oct 2015 11:00:00 GMT")
+                .withBody("new")
+                .fetch()
+        ).when(origin).send(
+            Mockito.any(Request.class), Mockito.anyString(),
+            Mockito.anyString(), Mockito.any(Collection.class),
+            Mockito.any(InputStream.class)
+        );
+        final Wire wire = new CdWire(origin);
+        final String home = "http://localhost/repos/a/b/changes";
+        CdWireTest.get(wire, home);
+        MatcherAssert.assertThat(
+            CdWireTest.get(wire, home).body(), Matchers.is("new")
+        );
+    }
+
+    /**
+     * Send GET through the wire.
+     * @param wire Wire
+     * @param home URL
+     * @return Response
+     * @throws Exception If fails
+     */
+    private static Response get(final Wire wire, final String home)
+        throws Exception {
+        return wire.send(
+            new FakeRequest(), home, "GET",
+            Collections.<Map.Entry<String, String>>emptyList(),
+            new ByteArrayInputStream(new byte[0])
+        );
+    }
+
+}
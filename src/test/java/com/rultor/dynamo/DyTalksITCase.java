@@ -76,6 +76,26 @@ public final class DyTalksITCase {
         );
     }
 
+    /**
+     * DyTalks can add a talk with directives, in one write.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void addsTalksWithDirectives() throws Exception {
+        final Talks talks = new DyTalks(
+            this.dynamo(), new MkSttc().counters().get("")
+        );
+        final String name = "b7e1c02";
+        talks.create(
+            "hey/you", name,
+            new Directives().xpath("/talk").attr("later", "true")
+        );
+        MatcherAssert.assertThat(
+            talks.get(name).read(),
+            XhtmlMatchers.hasXPath("/talk[@later='true']")
+        );
+    }
+
     /**
      * DyTalks can list recent talks.
      * @throws Exception If some problem inside
@@ -151,6 +171,20 @@ public final class DyTalksITCase {
         );
     }
 
+    /**
+     * DyTalks can refuse to create a talk twice.
+     * @throws Exception If some problem inside
+     */
+    @Test(expected = Talks.ExistsException.class)
+    public void refusesToCreateTalkTwice() throws Exception {
+        final Talks talks = new DyTalks(
+            this.dynamo(), new MkSttc().counters().get("")
+        );
+        final String name = "yegor256/rultor#991";
+        talks.create("a/fg", name);
+        talks.create("a/fg", name);
+    }
+
     /**
      * DyTalks can list recent talks, ignoring private ones.
      * @throws Exception If some problem inside
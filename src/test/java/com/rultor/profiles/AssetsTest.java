@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.profiles;
+
+import com.jcabi.github.Repo;
+import com.jcabi.github.Repos;
+import com.jcabi.github.mock.MkGithub;
+import com.rultor.spi.Profile;
+import java.io.File;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for ${@link Assets}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class AssetsTest {
+
+    /**
+     * Temp directory.
+     * @checkstyle VisibilityModifierCheck (5 lines)
+     */
+    @Rule
+    public final transient TemporaryFolder temp = new TemporaryFolder();
+
+    /**
+     * Assets can stream an asset from disk, after it's downloaded once.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void streamsAssetFromDisk() throws Exception {
+        final Repo repo = AssetsTest.repo("secret.txt", "hello, world!");
+        final File dir = this.temp.newFolder();
+        final Assets assets = new Assets(dir, 1L, TimeUnit.MINUTES);
+        MatcherAssert.assertThat(
+            IOUtils.toString(
+                assets.stream(repo, "master", "secret.txt"),
+                CharEncoding.UTF_8
+            ),
+            Matchers.equalTo("hello, world!")
+        );
+        MatcherAssert.assertThat(dir.list(), Matchers.arrayWithSize(1));
+        MatcherAssert.assertThat(
+            java.nio.file.Files.getPosixFilePermissions(
+                dir.listFiles()[0].toPath()
+            ),
+            Matchers.equalTo(PosixFilePermissions.fromString("rw-------"))
+        );
+        MatcherAssert.assertThat(
+            IOUtils.toString(
+                assets.stream(repo, "master", "secret.txt"),
+                CharEncoding.UTF_8
+            ),
+            Matchers.equalTo("hello, world!")
+        );
+    }
+
+    /**
+     * Assets can re-check the SHA of an asset when the head expires,
+     * without saving a blob it already has.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void reloadsAssetWhenHeadExpires() throws Exception {
+        final Repo repo = AssetsTest.repo("a.txt", "same");
+        final File dir = this.temp.newFolder();
+        final Assets assets = new Assets(dir, 0L, TimeUnit.MILLISECONDS);
+        IOUtils.toString(
+            assets.stream(repo, "master", "a.txt"), CharEncoding.UTF_8
+        );
+        final File file = dir.listFiles()[0];
+        file.setLastModified(0L);
+        MatcherAssert.assertThat(
+            IOUtils.toString(
+                assets.stream(repo, "master", "a.txt"),
+                CharEncoding.UTF_8
+            ),
+            Matchers.equalTo("same")
+        );
+        MatcherAssert.assertThat(file.lastModified(), Matchers.is(0L));
+        MatcherAssert.assertThat(dir.list(), Matchers.arrayWithSize(1));
+    }
+
+    /**
+     * Assets can keep blobs in a directory only the owner can read.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void keepsBlobsInPrivateDirectory() throws Exception {
+        final String dir = new Assets().toString().replaceAll(
+            ".*dir=([^,)]+).*", "$1"
+        );
+        MatcherAssert.assertThat(
+            java.nio.file.Files.getPosixFilePermissions(
+                new File(dir).toPath()
+            ),
+            Matchers.equalTo(PosixFilePermissions.fromString("rwx------"))
+        );
+    }
+
+    /**
+     * Assets can throw if asset is absent.
+     * @throws Exception In case of error.
+     */
+    @Test(expected = Profile.ConfigException.class)
+    public void throwsWhenAssetIsAbsent() throws Exception {
+        new Assets(this.temp.newFolder(), 1L, TimeUnit.MINUTES).stream(
+            AssetsTest.repo("b.txt", "data"), "master", "c.txt"
+        );
+    }
+
+    /**
+     * Make a repo with a file inside.
+     * @param path Path of the file
+     * @param content Content of it
+     * @return Repo
+     * @throws Exception If fails
+     */
+    private static Repo repo(final String path, final String content)
+        throws Exception {
+        final Repo repo = new MkGithub("jeff").repos().create(
+            new Repos.RepoCreate("assets", false)
+        );
+        repo.contents().create(
+            Json.createObjectBuilder()
+                .add("path", path)
+                .add("message", "just test")
+                .add(
+                    "content",
+                    Base64.encodeBase64String(
+                        content.getBytes(CharEncoding.UTF_8)
+                    )
+                )
+                .build()
+        );
+        return repo;
+    }
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.profiles;
+
+import com.google.common.base.Function;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Repo;
+import com.jcabi.github.Repos;
+import com.jcabi.github.mock.MkGithub;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.jcabi.xml.XML;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.json.Json;
+import org.apache.commons.codec.binary.Base64;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for ${@link Blobs}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class BlobsTest {
+
+    /**
+     * Blobs can parse a blob only once.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void parsesBlobOnlyOnce() throws Exception {
+        final Repo repo = BlobsTest.repo("a: hello");
+        final AtomicInteger parsed = new AtomicInteger();
+        final Blobs blobs = new Blobs(BlobsTest.counting(parsed));
+        final XML first = blobs.xml(repo, "master", ".rultor.yml");
+        MatcherAssert.assertThat(
+            first,
+            XhtmlMatchers.hasXPath("/p/entry[@key='a' and .='hello']")
+        );
+        MatcherAssert.assertThat(
+            blobs.xml(repo, "master", ".rultor.yml"),
+            Matchers.sameInstance(first)
+        );
+        MatcherAssert.assertThat(parsed.get(), Matchers.equalTo(1));
+    }
+
+    /**
+     * Blobs can notice a new version of the file, when the head expires.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void noticesNewVersionOfFile() throws Exception {
+        final Repo repo = BlobsTest.repo("b: first");
+        final AtomicInteger parsed = new AtomicInteger();
+        final Blobs blobs = new Blobs(
+            BlobsTest.counting(parsed), 0L, TimeUnit.MILLISECONDS
+        );
+        MatcherAssert.assertThat(
+            blobs.xml(repo, "master", ".rultor.yml"),
+            XhtmlMatchers.hasXPath("/p/entry[@key='b' and .='first']")
+        );
+        repo.contents().update(
+            ".rultor.yml",
+            Json.createObjectBuilder()
+                .add("path", ".rultor.yml")
+                .add("message", "second version")
+                .add("sha", "f4a1e7c2d0b35e9a8c6b2d4e1f0a9b8c7d6e5f41")
+                .add(
+                    "content",
+                    Base64.encodeBase64String("b: second".getBytes())
+                )
+                .build()
+        );
+        MatcherAssert.assertThat(
+            blobs.xml(repo, "master", ".rultor.yml"),
+            XhtmlMatchers.hasXPath("/p/entry[@key='b' and .='second']")
+        );
+        MatcherAssert.assertThat(parsed.get(), Matchers.equalTo(2));
+    }
+
+    /**
+     * Blobs can return empty XML when file is absent.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void readsAbsentFile() throws Exception {
+        final Repo repo = BlobsTest.repo("c: test");
+        MatcherAssert.assertThat(
+            new Blobs(BlobsTest.counting(new AtomicInteger())).xml(
+                repo, "master", "absent.yml"
+            ),
+            XhtmlMatchers.hasXPath("/p[not(entry)]")
+        );
+    }
+
+    /**
+     * Blobs can share parsed XML between many threads.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void sharesXmlBetweenThreads() throws Exception {
+        final XML xml = new Blobs(BlobsTest.counting(new AtomicInteger()))
+            .xml(BlobsTest.repo("d: [one, two]"), "master", ".rultor.yml");
+        final ExecutorService pool = Executors.newFixedThreadPool(Tv.TEN);
+        try {
+            final Collection<Callable<List<String>>> tasks =
+                new LinkedList<>();
+            for (int idx = 0; idx < Tv.HUNDRED; ++idx) {
+                tasks.add(
+                    new Callable<List<String>>() {
+                        @Override
+                        public List<String> call() {
+                            return xml.nodes("/p/entry[@key='d']").get(0)
+                                .xpath("item/text()");
+                        }
+                    }
+                );
+            }
+            for (final Future<List<String>> items : pool.invokeAll(tasks)) {
+                MatcherAssert.assertThat(
+                    items.get(), Matchers.contains("one", "two")
+                );
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Make a parser that counts its invocations.
+     * @param counter Counter
+     * @return Parser
+     */
+    private static Function<String, XML> counting(final AtomicInteger counter) {
+        return new Function<String, XML>() {
+            @Override
+            public XML apply(final String yml) {
+                counter.incrementAndGet();
+                return new YamlXML(yml).get();
+            }
+        };
+    }
+
+    /**
+     * Make a repo with YAML inside.
+     * @param yaml YAML config
+     * @return Repo
+     * @throws Exception If fails
+     */
+    private static Repo repo(final String yaml) throws Exception {
+        final Repo repo = new MkGithub("jeff").repos().create(
+            new Repos.RepoCreate("test", false)
+        );
+        repo.contents().create(
+            Json.createObjectBuilder()
+                .add("path", ".rultor.yml")
+                .add("message", "just test")
+                .add("content", Base64.encodeBase64String(yaml.getBytes()))
+                .build()
+        );
+        return repo;
+    }
+
+}
@@ -42,7 +42,6 @@ import javax.json.Json;
 import org.apache.commons.codec.binary.Base64;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
-import org.junit.Ignore;
 import org.junit.Test;
 
 /**
@@ -74,7 +73,6 @@ public final class GithubProfileValidationTest {
      * GithubProfile can reject YAML with missing script in merge command.
      * @throws Exception In case of error.
      */
-    @Ignore
     @Test(expected = Profile.ConfigException.class)
     public void rejectsYamlWithoutMergeScript() throws Exception {
         final Repo repo = GithubProfileValidationTest.repo(
@@ -90,7 +88,6 @@ public final class GithubProfileValidationTest {
      * GithubProfile can reject YAML with missing script in deploy command.
      * @throws Exception In case of error.
      */
-    @Ignore
     @Test(expected = Profile.ConfigException.class)
     public void rejectsYamlWithoutDeployScript() throws Exception {
         final Repo repo = GithubProfileValidationTest.repo(
@@ -106,7 +103,6 @@ public final class GithubProfileValidationTest {
      * GithubProfile can reject YAML with missing script in release command.
      * @throws Exception In case of error.
      */
-    @Ignore
     @Test(expected = Profile.ConfigException.class)
     public void rejectsYamlWithoutReleaseScript() throws Exception {
         final Repo repo = GithubProfileValidationTest.repo(
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.profiles;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Github;
+import com.jcabi.github.Repo;
+import com.jcabi.github.Repos;
+import com.jcabi.github.mock.MkGithub;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Profile;
+import com.rultor.spi.Talk;
+import java.util.Collections;
+import javax.json.Json;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang3.CharEncoding;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.xembly.Directives;
+
+/**
+ * Tests for ${@link Readers} and {@link Profiles#readers(Talk)}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class ReadersTest {
+
+    /**
+     * Readers can read the profile only once for its SHA.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void readsProfileOnlyOncePerSha() throws Exception {
+        final Profile profile = Mockito.mock(Profile.class);
+        Mockito.doReturn(ReadersTest.doc("urn:github:1")).when(profile).read();
+        final Readers readers = new Readers();
+        readers.get(profile, "a1");
+        MatcherAssert.assertThat(
+            readers.get(profile, "a1"),
+            Matchers.contains("urn:github:1")
+        );
+        Mockito.verify(profile, Mockito.times(1)).read();
+    }
+
+    /**
+     * Readers can replace readers when a new SHA is seen.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void replacesReadersOfNewSha() throws Exception {
+        final Profile profile = Mockito.mock(Profile.class);
+        Mockito.doReturn(ReadersTest.doc("urn:github:2"))
+            .doReturn(ReadersTest.doc("urn:github:3"))
+            .when(profile).read();
+        final Readers readers = new Readers();
+        readers.get(profile, "b1");
+        MatcherAssert.assertThat(
+            readers.get(profile, "b2"),
+            Matchers.contains("urn:github:3")
+        );
+    }
+
+    /**
+     * Profiles can give no readers to the test talk.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void givesNoReadersToTestTalk() throws Exception {
+        final Talk talk = Mockito.mock(Talk.class);
+        Mockito.doReturn(Talk.TEST_NAME).when(talk).name();
+        MatcherAssert.assertThat(
+            new Profiles(new MkGithub()).readers(talk),
+            Matchers.emptyIterable()
+        );
+        Mockito.verify(talk, Mockito.never()).read();
+    }
+
+    /**
+     * Profiles can give no readers to a talk without a wire.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void givesNoReadersToTalkWithoutWire() throws Exception {
+        final Talk talk = new Talk.InFile();
+        talk.modify(new Directives().xpath("/talk").attr("name", "a/b#1"));
+        MatcherAssert.assertThat(
+            new Profiles(new MkGithub()).readers(talk),
+            Matchers.emptyIterable()
+        );
+    }
+
+    /**
+     * Profiles can give no readers to a talk of a public repo,
+     * whatever its profile says.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void givesNoReadersToTalkOfPublicRepo() throws Exception {
+        final Repo repo = ReadersTest.repo("readers-pub", false);
+        MatcherAssert.assertThat(
+            new Profiles(ReadersTest.github(repo)).readers(
+                ReadersTest.talk(repo)
+            ),
+            Matchers.emptyIterable()
+        );
+    }
+
+    /**
+     * Profiles can give readers of the profile to a talk of
+     * a private repo.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void givesReadersToTalkOfPrivateRepo() throws Exception {
+        final Repo repo = ReadersTest.repo("readers-priv", true);
+        MatcherAssert.assertThat(
+            new Profiles(ReadersTest.github(repo)).readers(
+                ReadersTest.talk(repo)
+            ),
+            Matchers.contains("urn:github:526301")
+        );
+    }
+
+    /**
+     * Make a profile document.
+     * @param reader URN of the only reader
+     * @return XML
+     */
+    private static XML doc(final String reader) {
+        return new XMLDocument(
+            String.format(
+                "<p><entry key='readers'><item>%s</item></entry></p>", reader
+            )
+        );
+    }
+
+    /**
+     * Make a talk of the repo.
+     * @param repo Repo
+     * @return Talk
+     * @throws Exception If fails
+     */
+    private static Talk talk(final Repo repo) throws Exception {
+        final Talk talk = new Talk.InFile();
+        talk.modify(
+            new Directives().xpath("/talk")
+                .attr("name", String.format("%s#1", repo.coordinates()))
+                .add("wire")
+                .add("href").set("#").up()
+                .add("github-repo").set(repo.coordinates().toString()).up()
+                .add("github-issue").set("1")
+        );
+        return talk;
+    }
+
+    /**
+     * Make a repo with a reader in its profile.
+     *
+     * <p>The mock Github keeps the {@code private} flag of a repo as
+     * a string, so the repo is a mock that reports it as JSON boolean.
+     *
+     * @param name Name of the repo
+     * @param priv Is it private?
+     * @return Repo
+     * @throws Exception If fails
+     */
+    private static Repo repo(final String name, final boolean priv)
+        throws Exception {
+        final Repo origin = new MkGithub("jeff").repos().create(
+            new Repos.RepoCreate(name, priv)
+        );
+        origin.contents().create(
+            Json.createObjectBuilder()
+                .add("path", ".rultor.yml")
+                .add("message", "just test")
+                .add(
+                    "content",
+                    Base64.encodeBase64String(
+                        "readers:\n  - urn:github:526301\n"
+                            .getBytes(CharEncoding.UTF_8)
+                    )
+                )
+                .build()
+        );
+        final Repo repo = Mockito.mock(Repo.class);
+        Mockito.doReturn(origin.coordinates()).when(repo).coordinates();
+        Mockito.doReturn(origin.contents()).when(repo).contents();
+        Mockito.doReturn(Collections.emptyList()).when(repo).languages();
+        Mockito.doReturn(
+            Json.createObjectBuilder()
+                .add("private", priv)
+                .add("description", "")
+                .build()
+        ).when(repo).json();
+        return repo;
+    }
+
+    /**
+     * Make a Github with the repo inside.
+     * @param repo Repo
+     * @return Github
+     */
+    private static Github github(final Repo repo) {
+        final Coordinates coords = repo.coordinates();
+        final Repos repos = Mockito.mock(Repos.class);
+        Mockito.doReturn(repo).when(repos).get(coords);
+        final Github github = Mockito.mock(Github.class);
+        Mockito.doReturn(repos).when(github).repos();
+        return github;
+    }
+
+}
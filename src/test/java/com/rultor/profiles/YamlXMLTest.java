@@ -29,11 +29,27 @@
  */
 package com.rultor.profiles;
 
+import com.google.common.base.Joiner;
+import com.jcabi.aspects.Tv;
 import com.jcabi.matchers.XhtmlMatchers;
+import com.jcabi.xml.XMLDocument;
 import com.rultor.spi.Profile;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
+import org.xembly.Directive;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+import org.yaml.snakeyaml.Yaml;
 
 /**
  * Tests for ${@link YamlXML}.
@@ -41,6 +57,7 @@ import org.junit.Test;
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 1.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
  */
 public final class YamlXMLTest {
 
@@ -98,4 +115,110 @@ public final class YamlXMLTest {
         }
     }
 
+    /**
+     * YamlXML can build the same XML as Xembly directives do.
+     * @throws Exception In case of error.
+     */
+    @Test
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    public void buildsSameXmlAsDirectives() throws Exception {
+        final String[] yamls = {
+            "",
+            "hello",
+            "- a\n- b",
+            "a: 1\nb: yes\nc: 0.5\nd: ~\ne: ''\nf: '<&>'",
+            Joiner.on('\n').join(
+                "docker:",
+                "  image: yegor256/rultor",
+                "env:",
+                "  MAVEN_OPTS: -Xmx1g",
+                "merge:",
+                "  script: |",
+                "    mvn clean install",
+                "    echo \"done\"",
+                "  commanders: [jeff, 'bob']",
+                "k: [[x, y], {z: w}]"
+            ),
+        };
+        for (final String yaml : yamls) {
+            MatcherAssert.assertThat(
+                new YamlXML(yaml).get().toString(),
+                Matchers.equalTo(YamlXMLTest.reference(yaml))
+            );
+        }
+    }
+
+    /**
+     * YamlXML can parse in many threads at the same time.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void parsesInManyThreads() throws Exception {
+        final String yaml = "a: one\nb:\n  - two\n  - three";
+        final String expected = YamlXMLTest.reference(yaml);
+        final ExecutorService pool = Executors.newFixedThreadPool(Tv.TEN);
+        try {
+            final Collection<Callable<String>> tasks = new LinkedList<>();
+            for (int idx = 0; idx < Tv.HUNDRED; ++idx) {
+                tasks.add(
+                    new Callable<String>() {
+                        @Override
+                        public String call() {
+                            return new YamlXML(yaml).get().toString();
+                        }
+                    }
+                );
+            }
+            for (final Future<String> xml : pool.invokeAll(tasks)) {
+                MatcherAssert.assertThat(
+                    xml.get(), Matchers.equalTo(expected)
+                );
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Convert YAML to XML through Xembly directives, the way it was done
+     * before the DOM was built directly.
+     * @param yaml YAML
+     * @return XML
+     */
+    private static String reference(final String yaml) {
+        final Directives dirs = new Directives().add("p");
+        if (!yaml.trim().isEmpty()) {
+            dirs.append(YamlXMLTest.dirs(new Yaml().load(yaml.trim())));
+        }
+        return new XMLDocument(new Xembler(dirs).xmlQuietly()).toString();
+    }
+
+    /**
+     * Convert something to dirs.
+     * @param obj Object
+     * @return Dirs
+     */
+    @SuppressWarnings("unchecked")
+    private static Iterable<Directive> dirs(final Object obj) {
+        final Directives dirs = new Directives();
+        if (obj instanceof Map) {
+            for (final Map.Entry<String, Object> ent
+                : ((Map<String, Object>) obj).entrySet()) {
+                dirs.add("entry")
+                    .attr("key", ent.getKey())
+                    .append(YamlXMLTest.dirs(ent.getValue()))
+                    .up();
+            }
+        } else if (obj instanceof List) {
+            for (final Object item : (Iterable<Object>) obj) {
+                dirs.add("item").append(YamlXMLTest.dirs(item)).up();
+            }
+        } else if (obj == null) {
+            dirs.set("");
+        } else {
+            dirs.set(obj.toString());
+        }
+        return dirs;
+    }
+
 }
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import com.jcabi.xml.XMLDocument;
+import org.apache.commons.lang3.StringUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Config}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class ConfigTest {
+
+    /**
+     * Config can compile docker and merge sections.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void compilesDockerAndMerge() throws Exception {
+        final Config config = Config.of(
+            new Profile.Fixed(
+                new XMLDocument(
+                    StringUtils.join(
+                        "<p><entry key='docker'>",
+                        "<entry key='image'>test/image</entry>",
+                        "<entry key='as_root'>true</entry></entry>",
+                        "<entry key='merge'>",
+                        "<entry key='squash'>True</entry>",
+                        "<entry key='fast-forward'>only</entry>",
+                        "<entry key='script'><item>mvn</item></entry>",
+                        "<entry key='commanders'><item>jeff</item></entry>",
+                        "</entry></p>"
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(config.image(), Matchers.is("test/image"));
+        MatcherAssert.assertThat(config.asRoot(), Matchers.is(true));
+        MatcherAssert.assertThat(config.merging(), Matchers.is(true));
+        MatcherAssert.assertThat(config.squash(), Matchers.is(true));
+        MatcherAssert.assertThat(config.rebase(), Matchers.is(false));
+        MatcherAssert.assertThat(config.fastForward(), Matchers.is("only"));
+        MatcherAssert.assertThat(
+            config.section("merge").script(), Matchers.contains("mvn")
+        );
+        MatcherAssert.assertThat(
+            config.section("merge").commanders(), Matchers.contains("jeff")
+        );
+        MatcherAssert.assertThat(config.errors(), Matchers.emptyIterable());
+    }
+
+    /**
+     * Config can use defaults for an empty profile.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void usesDefaults() throws Exception {
+        final Config config = Config.of(new Profile.Fixed());
+        MatcherAssert.assertThat(config.image(), Matchers.is(Config.IMAGE));
+        MatcherAssert.assertThat(config.merging(), Matchers.is(false));
+        MatcherAssert.assertThat(config.sshHost("b1"), Matchers.is("b1"));
+        MatcherAssert.assertThat(config.sshPort(2), Matchers.is(2));
+        MatcherAssert.assertThat(
+            config.section("deploy").script(), Matchers.emptyIterable()
+        );
+    }
+
+    /**
+     * Config can report invalid values.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void reportsInvalidValues() throws Exception {
+        MatcherAssert.assertThat(
+            Config.of(
+                new Profile.Fixed(
+                    new XMLDocument(
+                        StringUtils.join(
+                            "<p><entry key='release'><item>pwd</item></entry>",
+                            "<entry key='merge'>",
+                            "<entry key='rebase'>maybe</entry>",
+                            "<entry key='fast-forward'>yes</entry></entry>",
+                            "<entry key='ssh'>",
+                            "<entry key='port'>abc</entry></entry></p>"
+                        )
+                    )
+                )
+            ).errors(),
+            Matchers.<String>iterableWithSize(4)
+        );
+    }
+
+    /**
+     * Config can compile the same XML document only once.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void compilesOnlyOnce() throws Exception {
+        final Profile profile = new Profile.Fixed(
+            new XMLDocument(
+                "<p><entry key='readers'><item>a</item></entry></p>"
+            )
+        );
+        MatcherAssert.assertThat(
+            Config.of(profile),
+            Matchers.sameInstance(Config.of(profile))
+        );
+    }
+
+}
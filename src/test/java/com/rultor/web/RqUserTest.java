@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.web;
+
+import com.jcabi.github.Coordinates;
+import com.jcabi.github.Github;
+import com.jcabi.github.Repo;
+import com.jcabi.github.Repos;
+import com.jcabi.github.mock.MkGithub;
+import com.rultor.profiles.Profiles;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.Collections;
+import javax.json.Json;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.facets.auth.PsFake;
+import org.takes.facets.auth.TkAuth;
+import org.takes.rq.RqFake;
+import org.takes.rs.RsText;
+import org.xembly.Directives;
+
+/**
+ * Test case for {@link RqUser}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class RqUserTest {
+
+    /**
+     * RqUser can let a reader of a private repo see its talk.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void letsReaderSeeTalk() throws Exception {
+        MatcherAssert.assertThat(
+            RqUserTest.canSee("rq-user-allowed", "urn:test:1", true),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * RqUser can hide a talk of a private repo from a user who is not
+     * its reader.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void hidesTalkFromOthers() throws Exception {
+        MatcherAssert.assertThat(
+            RqUserTest.canSee("rq-user-denied", "urn:test:2", true),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * RqUser can hide a talk of a private repo from an anonymous user.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void hidesTalkFromAnonymous() throws Exception {
+        MatcherAssert.assertThat(
+            RqUserTest.canSee("rq-user-anonymous", "urn:test:1", false),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Can the user see a talk of a private repo, which has the reader?
+     * @param name Name of the repo
+     * @param reader URN of the reader of the repo
+     * @param logged Is the user logged in as urn:test:1?
+     * @return TRUE if can see
+     * @throws Exception If fails
+     */
+    private static boolean canSee(final String name, final String reader,
+        final boolean logged) throws Exception {
+        final Profiles profiles = new Profiles(
+            RqUserTest.github(name, reader)
+        );
+        final Talk talk = new Talk.InFile();
+        talk.modify(
+            new Directives().xpath("/talk")
+                .attr("name", String.format("jeff/%s#1", name))
+                .add("wire")
+                .add("href").set("#").up()
+                .add("github-repo").set(String.format("jeff/%s", name)).up()
+                .add("github-issue").set("1")
+        );
+        return Boolean.parseBoolean(
+            IOUtils.toString(
+                new TkAuth(
+                    new Take() {
+                        @Override
+                        public Response act(final Request req)
+                            throws IOException {
+                            return new RsText(
+                                Boolean.toString(
+                                    new RqUser(req, profiles).canSee(talk)
+                                )
+                            );
+                        }
+                    },
+                    new PsFake(logged)
+                ).act(new RqFake()).body()
+            )
+        );
+    }
+
+    /**
+     * Make a Github with a private repo, which has one reader.
+     *
+     * <p>The mock Github keeps the {@code private} flag of a repo as
+     * a string, so the repo is a mock that reports it as JSON boolean.
+     *
+     * @param name Name of the repo
+     * @param reader URN of the reader
+     * @return Github
+     * @throws Exception If fails
+     */
+    private static Github github(final String name, final String reader)
+        throws Exception {
+        final Repo origin = new MkGithub("jeff").repos().create(
+            new Repos.RepoCreate(name, true)
+        );
+        origin.contents().create(
+            Json.createObjectBuilder()
+                .add("path", ".rultor.yml")
+                .add("message", "just test")
+                .add(
+                    "content",
+                    Base64.encodeBase64String(
+                        String.format("readers:\n  - %s\n", reader)
+                            .getBytes(CharEncoding.UTF_8)
+                    )
+                )
+                .build()
+        );
+        final Coordinates coords = origin.coordinates();
+        final Repo repo = Mockito.mock(Repo.class);
+        Mockito.doReturn(coords).when(repo).coordinates();
+        Mockito.doReturn(origin.contents()).when(repo).contents();
+        Mockito.doReturn(Collections.emptyList()).when(repo).languages();
+        Mockito.doReturn(
+            Json.createObjectBuilder()
+                .add("private", true)
+                .add("description", "")
+                .build()
+        ).when(repo).json();
+        final Repos repos = Mockito.mock(Repos.class);
+        Mockito.doReturn(repo).when(repos).get(coords);
+        final Github github = Mockito.mock(Github.class);
+        Mockito.doReturn(repos).when(github).repos();
+        return github;
+    }
+
+}
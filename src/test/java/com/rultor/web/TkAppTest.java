@@ -41,6 +41,7 @@ import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
 import org.takes.Take;
 import org.takes.http.FtRemote;
@@ -121,4 +122,46 @@ public final class TkAppTest {
         );
     }
 
+    /**
+     * App can mount the web hook when the secret is configured.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void mountsHookWithSecret() throws Exception {
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new TkApp(
+                    new Talks.InDir(), Pulse.EMPTY,
+                    new Toggles.InFile(), "rultor", "secret"
+                ).act(new RqFake("POST", "/hook", "{}"))
+            ).printHead(),
+            Matchers.startsWith(
+                String.format(
+                    "HTTP/1.1 %d", HttpURLConnection.HTTP_FORBIDDEN
+                )
+            )
+        );
+    }
+
+    /**
+     * App can leave the web hook out when there is no secret.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void skipsHookWithoutSecret() throws Exception {
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new TkApp(
+                    new Talks.InDir(), Pulse.EMPTY,
+                    new Toggles.InFile(), "rultor", ""
+                ).act(new RqFake("POST", "/hook", "{}"))
+            ).printHead(),
+            Matchers.startsWith(
+                String.format(
+                    "HTTP/1.1 %d", HttpURLConnection.HTTP_SEE_OTHER
+                )
+            )
+        );
+    }
+
 }
@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2009-2015, rultor.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.web;
+
+import com.jcabi.matchers.XhtmlMatchers;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.json.Json;
+import org.apache.commons.codec.binary.Hex;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.xembly.Directives;
+import org.takes.Request;
+import org.takes.rq.RqFake;
+import org.takes.rs.RsPrint;
+
+/**
+ * Test case for {@link TkHook}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class TkHookTest {
+
+    /**
+     * Shared secret.
+     */
+    private static final String SECRET = "s3cr3t";
+
+    /**
+     * TkHook can activate a talk when I'm mentioned.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void activatesTalkOnMention() throws Exception {
+        final Talks talks = Mockito.mock(Talks.class);
+        final Talk talk = new Talk.InFile();
+        final String body = TkHookTest.comment("@rultor hello");
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new TkHook(talks, TkHookTest.SECRET, "rultor").act(
+                    TkHookTest.request(
+                        "issue_comment", body, TkHookTest.sign(body)
+                    )
+                )
+            ).printBody(),
+            Matchers.containsString("activated")
+        );
+        final ArgumentCaptor<Directives> dirs =
+            ArgumentCaptor.forClass(Directives.class);
+        Mockito.verify(talks).create(
+            Mockito.eq("test/test"), Mockito.eq("test/test#7"), dirs.capture()
+        );
+        talk.modify(dirs.getValue());
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk[@later='true']",
+                "/talk/wire[github-repo='test/test']",
+                "/talk/wire[github-issue='7']",
+                "/talk/wire[href='http://example.com/7']"
+            )
+        );
+    }
+
+    /**
+     * TkHook can reject a delivery with invalid signature.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void rejectsInvalidSignature() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final String body = TkHookTest.comment("@rultor hi");
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new TkHook(talks, TkHookTest.SECRET, "rultor").act(
+                    TkHookTest.request(
+                        "issue_comment", body,
+                        "sha1=0000000000000000000000000000000000000000"
+                    )
+                )
+            ).printHead(),
+            Matchers.startsWith(
+                String.format(
+                    "HTTP/1.1 %d", HttpURLConnection.HTTP_FORBIDDEN
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            talks.exists("test/test#7"),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * TkHook can ignore comments that don't mention me.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void ignoresUnrelatedComments() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final String body = TkHookTest.comment("@jeff how are you?");
+        new TkHook(talks, TkHookTest.SECRET, "rultor").act(
+            TkHookTest.request(
+                "issue_comment", body, TkHookTest.sign(body)
+            )
+        );
+        MatcherAssert.assertThat(
+            talks.exists("test/test#7"),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * TkHook can activate an existing talk on a new comment.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void activatesExistingTalkOnNewComment() throws Exception {
+        final Talks talks = new Talks.InDir();
+        talks.create("test/test", "test/test#7");
+        final String body = TkHookTest.comment("created", "thanks!");
+        new TkHook(talks, TkHookTest.SECRET, "rultor").act(
+            TkHookTest.request(
+                "issue_comment", body, TkHookTest.sign(body)
+            )
+        );
+        MatcherAssert.assertThat(
+            talks.get("test/test#7").read(),
+            XhtmlMatchers.hasXPath("/talk[@later='true']")
+        );
+    }
+
+    /**
+     * TkHook can ignore edits of an existing talk that don't mention me.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void ignoresEditsOfExistingTalk() throws Exception {
+        final Talks talks = new Talks.InDir();
+        talks.create("test/test", "test/test#7");
+        final String body = TkHookTest.comment("edited", "thanks!!");
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new TkHook(talks, TkHookTest.SECRET, "rultor").act(
+                    TkHookTest.request(
+                        "issue_comment", body, TkHookTest.sign(body)
+                    )
+                )
+            ).printBody(),
+            Matchers.containsString("ignored")
+        );
+        MatcherAssert.assertThat(
+            talks.get("test/test#7").read(),
+            Matchers.not(XhtmlMatchers.hasXPath("/talk[@later='true']"))
+        );
+    }
+
+    /**
+     * TkHook can reject a payload that is not JSON.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void rejectsMalformedPayload() throws Exception {
+        final String body = "{\"issue\": ";
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new TkHook(new Talks.InDir(), TkHookTest.SECRET, "rultor").act(
+                    TkHookTest.request(
+                        "issue_comment", body, TkHookTest.sign(body)
+                    )
+                )
+            ).printHead(),
+            Matchers.startsWith(
+                String.format(
+                    "HTTP/1.1 %d", HttpURLConnection.HTTP_BAD_REQUEST
+                )
+            )
+        );
+    }
+
+    /**
+     * TkHook can reject a comment payload without the issue.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void rejectsPayloadWithoutIssue() throws Exception {
+        final String body = Json.createObjectBuilder()
+            .add(
+                "repository",
+                Json.createObjectBuilder().add("full_name", "test/test")
+            )
+            .add("comment", Json.createObjectBuilder().add("body", "@rultor"))
+            .build().toString();
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new TkHook(new Talks.InDir(), TkHookTest.SECRET, "rultor").act(
+                    TkHookTest.request(
+                        "issue_comment", body, TkHookTest.sign(body)
+                    )
+                )
+            ).printHead(),
+            Matchers.startsWith(
+                String.format(
+                    "HTTP/1.1 %d", HttpURLConnection.HTTP_BAD_REQUEST
+                )
+            )
+        );
+    }
+
+    /**
+     * Make a payload of a new comment.
+     * @param text Text of the comment
+     * @return JSON
+     */
+    private static String comment(final String text) {
+        return TkHookTest.comment("created", text);
+    }
+
+    /**
+     * Make a comment payload.
+     * @param action Action, like "created" or "edited"
+     * @param text Text of the comment
+     * @return JSON
+     */
+    private static String comment(final String action, final String text) {
+        return Json.createObjectBuilder()
+            .add("action", action)
+            .add(
+                "repository",
+                Json.createObjectBuilder().add("full_name", "test/test")
+            )
+            .add(
+                "issue",
+                Json.createObjectBuilder()
+                    .add("number", 7)
+                    .add("html_url", "http://example.com/7")
+            )
+            .add("comment", Json.createObjectBuilder().add("body", text))
+            .build().toString();
+    }
+
+    /**
+     * Make a signed request.
+     * @param event Type of event
+     * @param body Body
+     * @param signature Signature
+     * @return Request
+     */
+    private static Request request(final String event, final String body,
+        final String signature) {
+        return new RqFake(
+            Arrays.asList(
+                "POST /hook HTTP/1.1",
+                "Host: www.rultor.com",
+                String.format("X-GitHub-Event: %s", event),
+                String.format("X-Hub-Signature: %s", signature)
+            ),
+            body
+        );
+    }
+
+    /**
+     * Sign the body with the secret.
+     * @param body Body
+     * @return Signature
+     * @throws Exception If fails
+     */
+    private static String sign(final String body) throws Exception {
+        final Mac mac = Mac.getInstance("HmacSHA1");
+        mac.init(
+            new SecretKeySpec(TkHookTest.SECRET.getBytes("UTF-8"), "HmacSHA1")
+        );
+        return String.format(
+            "sha1=%s",
+            Hex.encodeHexString(mac.doFinal(body.getBytes("UTF-8")))
+        );
+    }
+
+}